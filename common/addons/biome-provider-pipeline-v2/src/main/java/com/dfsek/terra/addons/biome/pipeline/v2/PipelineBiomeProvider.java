@@ -2,13 +2,21 @@ package com.dfsek.terra.addons.biome.pipeline.v2;
 
 import com.dfsek.terra.api.util.cache.SeededVector2Key;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.RemovalCause;
 
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.StreamSupport;
 
 import com.dfsek.terra.addons.biome.pipeline.v2.api.BiomeChunk;
@@ -23,22 +31,80 @@ import com.dfsek.terra.api.world.biome.generation.BiomeProvider;
 
 
 public class PipelineBiomeProvider implements BiomeProvider {
+    /*
+     * Width in blocks of the area an automatically sized cache should be able to hold
+     */
+    private static final int AUTO_CACHE_BLOCKS = 1024;
+    private static final int MIN_CACHE_SIZE = 64;
 
-    private final LoadingCache<SeededVector2Key, BiomeChunk> biomeChunkCache;
+    /*
+     * Prefetch threads exit after being idle this long, so a provider that is no longer used (after a reload, or once
+     * the platform shuts down) doesn't keep any threads alive
+     */
+    private static final long PREFETCH_KEEP_ALIVE_SECONDS = 5;
+
+    private final Cache<SeededVector2Key, ChunkTask> biomeChunkCache;
+    private final ThreadLocal<LastChunk> lastChunk = ThreadLocal.withInitial(LastChunk::new);
+    private final Pipeline pipeline;
     private final int chunkSize;
     private final int resolution;
+    private final int prefetchRadius;
+    private final ThreadPoolExecutor prefetchExecutor;
+    /*
+     * Prefetching is skipped while this many chunks are already queued, so it can never fall far behind generation
+     */
+    private final int maxPendingPrefetches;
+    private final AtomicInteger pendingPrefetches = new AtomicInteger();
     private final NoiseSampler mutator;
     private final double noiseAmp;
     private final Set<Biome> biomes;
 
     public PipelineBiomeProvider(Pipeline pipeline, int resolution, NoiseSampler mutator, double noiseAmp) {
+        this(pipeline, resolution, mutator, noiseAmp, 0, 0, 1);
+    }
+
+    /**
+     * @param cacheSize       Maximum number of pipeline chunks to keep, or 0 to size the cache from the pipeline chunk size
+     * @param prefetchRadius  Radius in pipeline chunks around each newly generated chunk to generate in the background
+     * @param prefetchThreads Number of background threads generating prefetched chunks
+     */
+    public PipelineBiomeProvider(Pipeline pipeline, int resolution, NoiseSampler mutator, double noiseAmp, int cacheSize,
+                                 int prefetchRadius, int prefetchThreads) {
+        this.pipeline = pipeline;
         this.resolution = resolution;
         this.mutator = mutator;
         this.noiseAmp = noiseAmp;
         this.chunkSize = pipeline.getChunkSize();
+        if(cacheSize <= 0) {
+            int chunksAcross = Math.ceilDiv(AUTO_CACHE_BLOCKS, chunkSize * resolution) + 1 + prefetchRadius * 2;
+            cacheSize = Math.max(MIN_CACHE_SIZE, chunksAcross * chunksAcross);
+        } else {
+            // Prefetched chunks would otherwise evict each other before they are used
+            while(prefetchRadius > 0 && (prefetchRadius * 2 + 1) * (prefetchRadius * 2 + 1) > cacheSize / 2) prefetchRadius--;
+        }
+        this.prefetchRadius = prefetchRadius;
+        if(prefetchRadius > 0) {
+            prefetchThreads = Math.max(1, prefetchThreads);
+            this.prefetchExecutor = new ThreadPoolExecutor(prefetchThreads, prefetchThreads, PREFETCH_KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "Terra Biome Pipeline Prefetch");
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                });
+            this.prefetchExecutor.allowCoreThreadTimeOut(true);
+            this.maxPendingPrefetches = prefetchThreads * 8;
+        } else {
+            this.prefetchExecutor = null;
+            this.maxPendingPrefetches = 0;
+        }
         this.biomeChunkCache = Caffeine.newBuilder()
-            .maximumSize(64)
-            .build(pipeline::generateChunk);
+            .maximumSize(cacheSize)
+            .evictionListener((SeededVector2Key key, ChunkTask task, RemovalCause cause) -> {
+                // Prefetches that are evicted before they start are no longer worth running
+                if(task != null && task.claim()) task.cancel(false);
+            })
+            .build();
 
         Set<PipelineBiome> biomeSet = new HashSet<>();
         pipeline.getSource().getBiomes().forEach(biomeSet::add);
@@ -91,7 +157,59 @@ public class PipelineBiomeProvider implements BiomeProvider {
         int xInChunk = x - chunkWorldX;
         int zInChunk = z - chunkWorldZ;
 
-        return biomeChunkCache.get(new SeededVector2Key(chunkWorldX, chunkWorldZ, seed)).get(xInChunk, zInChunk).getBiome();
+        return getChunk(chunkWorldX, chunkWorldZ, seed).get(xInChunk, zInChunk).getBiome();
+    }
+
+    private BiomeChunk getChunk(int chunkWorldX, int chunkWorldZ, long seed) {
+        // Consecutive lookups from one thread almost always land in the same pipeline chunk
+        LastChunk last = lastChunk.get();
+        if(last.chunk != null && last.x == chunkWorldX && last.z == chunkWorldZ && last.seed == seed) return last.chunk;
+
+        SeededVector2Key key = new SeededVector2Key(chunkWorldX, chunkWorldZ, seed);
+        BiomeChunk chunk;
+        while(true) {
+            ChunkTask task = biomeChunkCache.getIfPresent(key);
+            if(task == null) {
+                // Claimed up front, so that eviction cannot cancel it before this thread gets to run it
+                ChunkTask created = new ChunkTask(key);
+                created.claim();
+                task = biomeChunkCache.asMap().putIfAbsent(key, created);
+                if(task == null) {
+                    task = created;
+                    prefetch(chunkWorldX, chunkWorldZ, seed);
+                    task.run();
+                }
+            }
+            // Generate on this thread rather than waiting if the chunk is still queued for prefetching
+            if(task.claim()) task.run();
+            try {
+                chunk = task.join();
+                break;
+            } catch(CancellationException e) {
+                // Evicted before it was generated, queue it again
+            }
+        }
+        last.set(chunkWorldX, chunkWorldZ, seed, chunk);
+        return chunk;
+    }
+
+    private void prefetch(int chunkWorldX, int chunkWorldZ, long seed) {
+        for(int x = -prefetchRadius; x <= prefetchRadius; x++) {
+            for(int z = -prefetchRadius; z <= prefetchRadius; z++) {
+                if(x == 0 && z == 0) continue;
+                if(pendingPrefetches.get() >= maxPendingPrefetches) return;
+                SeededVector2Key key = new SeededVector2Key(chunkWorldX + x * chunkSize, chunkWorldZ + z * chunkSize, seed);
+                if(biomeChunkCache.getIfPresent(key) != null) continue;
+                ChunkTask task = new ChunkTask(key);
+                if(biomeChunkCache.asMap().putIfAbsent(key, task) == null) {
+                    pendingPrefetches.incrementAndGet();
+                    prefetchExecutor.execute(() -> {
+                        pendingPrefetches.decrementAndGet();
+                        if(task.claim()) task.run();
+                    });
+                }
+            }
+        }
     }
 
     @Override
@@ -113,4 +231,45 @@ public class PipelineBiomeProvider implements BiomeProvider {
     public int resolution() {
         return resolution;
     }
+
+    /**
+     * Generation of a single pipeline chunk, run by whichever thread claims it first.
+     */
+    private final class ChunkTask extends CompletableFuture<BiomeChunk> implements Runnable {
+        private final SeededVector2Key key;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private ChunkTask(SeededVector2Key key) {
+            this.key = key;
+        }
+
+        private boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        @Override
+        public void run() {
+            try {
+                complete(pipeline.generateChunk(key));
+            } catch(Throwable e) {
+                completeExceptionally(e);
+                biomeChunkCache.asMap().remove(key, this);
+            }
+        }
+    }
+
+
+    private static final class LastChunk {
+        private int x;
+        private int z;
+        private long seed;
+        private BiomeChunk chunk;
+
+        private void set(int x, int z, long seed, BiomeChunk chunk) {
+            this.x = x;
+            this.z = z;
+            this.seed = seed;
+            this.chunk = chunk;
+        }
+    }
 }
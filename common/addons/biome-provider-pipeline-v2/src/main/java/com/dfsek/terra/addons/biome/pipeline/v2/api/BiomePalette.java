@@ -0,0 +1,178 @@
+package com.dfsek.terra.addons.biome.pipeline.v2.api;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import com.dfsek.terra.addons.biome.pipeline.v2.api.biome.PipelineBiome;
+import com.dfsek.terra.api.noise.NoiseSampler;
+import com.dfsek.terra.api.util.MathUtil;
+import com.dfsek.terra.api.util.collection.ProbabilityCollection;
+
+
+/**
+ * Dense numbering of every biome a pipeline can produce, so that pipeline chunks can store biomes as {@code short}
+ * indices and stages can replace per-biome checks with array lookups.
+ * <p>
+ * The palette is built from what the source and stages report through {@link Source#getBiomes()} and
+ * {@link Stage#getBiomes(Iterable)}. Biomes that are produced without having been reported are appended the first time
+ * they are indexed, {@link Mask} and {@link Table} fall back to evaluating those directly.
+ */
+public final class BiomePalette {
+    /**
+     * Index of an empty cell.
+     */
+    public static final short NONE = -1;
+
+    /**
+     * Stands in for {@link PipelineBiome#self()} in index tables built by {@link #indices(ProbabilityCollection)}.
+     */
+    public static final short SELF = -2;
+
+    private static final Logger logger = LoggerFactory.getLogger(BiomePalette.class);
+
+    private final Map<PipelineBiome, Short> indices = new ConcurrentHashMap<>();
+    private volatile PipelineBiome[] biomes;
+
+    private BiomePalette(Set<PipelineBiome> biomes) {
+        if(biomes.size() > Short.MAX_VALUE) throw new IllegalArgumentException("Too many biomes in pipeline: " + biomes.size());
+        this.biomes = biomes.toArray(new PipelineBiome[0]);
+        for(short i = 0; i < this.biomes.length; i++) {
+            indices.put(this.biomes[i], i);
+        }
+    }
+
+    /**
+     * Create the palette of every biome the source and stages can produce.
+     */
+    public static BiomePalette of(Source source, Iterable<Stage> stages) {
+        Set<PipelineBiome> biomes = new LinkedHashSet<>();
+        source.getBiomes().forEach(biomes::add);
+        Iterable<PipelineBiome> result = biomes;
+        for(Stage stage : stages) {
+            result = stage.getBiomes(result);
+            result.forEach(biomes::add);
+        }
+        return new BiomePalette(biomes);
+    }
+
+    /**
+     * Select an index from a table built by {@link #indices(ProbabilityCollection)}, exactly as
+     * {@link ProbabilityCollection#get(NoiseSampler, double, double, long)} selects from the collection it was built from.
+     */
+    public static short select(short[] indices, NoiseSampler sampler, double x, double z, long seed) {
+        if(indices.length == 1) return indices[0];
+        return indices[MathUtil.normalizeIndex(sampler.noise(seed, x, z), indices.length)];
+    }
+
+    public short index(PipelineBiome biome) {
+        if(biome == null) return NONE;
+        Short index = indices.get(biome);
+        return index == null ? append(biome) : index;
+    }
+
+    private synchronized short append(PipelineBiome biome) {
+        Short existing = indices.get(biome);
+        if(existing != null) return existing;
+
+        PipelineBiome[] biomes = this.biomes;
+        if(biomes.length >= Short.MAX_VALUE) throw new IllegalStateException("Too many biomes in pipeline: " + (biomes.length + 1));
+        logger.warn("Biome \"{}\" is not reported by the source or any stage of the pipeline it was produced in", biome.getID());
+
+        short index = (short) biomes.length;
+        PipelineBiome[] appended = Arrays.copyOf(biomes, biomes.length + 1);
+        appended[index] = biome;
+        // Publish the biome before its index, so any thread that has the index can resolve it
+        this.biomes = appended;
+        indices.put(biome, index);
+        return index;
+    }
+
+    public PipelineBiome get(short index) {
+        return index < 0 ? null : biomes[index];
+    }
+
+    /**
+     * @return Number of biomes currently in the palette.
+     */
+    public int size() {
+        return biomes.length;
+    }
+
+    /**
+     * @return Mask of which biomes match the predicate.
+     */
+    public Mask mask(Predicate<PipelineBiome> predicate) {
+        return new Mask(predicate);
+    }
+
+    /**
+     * @return Table of the function applied to each biome.
+     */
+    public <T> Table<T> table(Function<PipelineBiome, T> function) {
+        return new Table<>(function);
+    }
+
+    /**
+     * Map the weighted entries of a collection to their indices, with {@link PipelineBiome#self()} mapped to {@link #SELF}.
+     * Select from the result with {@link #select(short[], NoiseSampler, double, double, long)}.
+     */
+    public short[] indices(ProbabilityCollection<PipelineBiome> collection) {
+        short[] indices = new short[collection.getTotalProbability()];
+        int[] next = { 0 };
+        // Mapping visits the weighted entries in the order the collection selects from them
+        collection.map(biome -> indices[next[0]++] = biome.isSelf() ? SELF : index(biome), false);
+        return indices;
+    }
+
+    /**
+     * Whether each biome matches a predicate, precomputed for the biomes in the palette when it was created.
+     */
+    public final class Mask {
+        private final Predicate<PipelineBiome> predicate;
+        private final boolean[] matching;
+
+        private Mask(Predicate<PipelineBiome> predicate) {
+            this.predicate = predicate;
+            PipelineBiome[] biomes = BiomePalette.this.biomes;
+            this.matching = new boolean[biomes.length];
+            for(int i = 0; i < biomes.length; i++) {
+                matching[i] = predicate.test(biomes[i]);
+            }
+        }
+
+        public boolean test(short index) {
+            return index < matching.length ? matching[index] : predicate.test(get(index));
+        }
+    }
+
+
+    /**
+     * A function of each biome, precomputed for the biomes in the palette when it was created.
+     */
+    public final class Table<T> {
+        private final Function<PipelineBiome, T> function;
+        private final Object[] values;
+
+        private Table(Function<PipelineBiome, T> function) {
+            this.function = function;
+            PipelineBiome[] biomes = BiomePalette.this.biomes;
+            this.values = new Object[biomes.length];
+            for(int i = 0; i < biomes.length; i++) {
+                values[i] = function.apply(biomes[i]);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        public T get(short index) {
+            return index < values.length ? (T) values[index] : function.apply(BiomePalette.this.get(index));
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.dfsek.terra.addons.biome.pipeline.v2.api;
+
+import com.dfsek.terra.addons.biome.pipeline.v2.pipeline.BiomeChunkImpl.ViewPoint;
+
+
+/**
+ * A {@link Stage} bound to the {@link BiomePalette} of the pipeline it is part of.
+ */
+@FunctionalInterface
+public interface CompiledStage {
+    /**
+     * @return Palette index of the biome at the view point after applying the stage.
+     */
+    short apply(ViewPoint viewPoint);
+}
@@ -26,4 +26,12 @@ public interface Expander extends Stage {
             return currentBiome;
         }
     }
+
+    @Override
+    default CompiledStage compile(BiomePalette palette) {
+        return viewPoint -> {
+            short current = viewPoint.getBiomeIndex();
+            return current == BiomePalette.NONE ? palette.index(fillBiome(viewPoint)) : current;
+        };
+    }
 }
\ No newline at end of file
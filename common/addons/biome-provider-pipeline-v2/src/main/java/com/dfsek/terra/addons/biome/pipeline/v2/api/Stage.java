@@ -12,4 +12,13 @@ public interface Stage {
     default Iterable<PipelineBiome> getBiomes(Iterable<PipelineBiome> biomes) {
         return biomes;
     }
+
+    /**
+     * Bind this stage to a pipeline's palette. Stages should override this to precompute whatever they look up per
+     * biome as tables indexed by palette index, the default resolves the result of {@link #apply(ViewPoint)} instead. Biomes
+     * that are missing from {@link #getBiomes(Iterable)} are added to the palette when they are first produced.
+     */
+    default CompiledStage compile(BiomePalette palette) {
+        return viewPoint -> palette.index(apply(viewPoint));
+    }
 }
@@ -47,9 +47,32 @@ public class BiomePipelineTemplate implements ObjectTemplate<BiomeProvider> {
     @Value("pipeline.stages")
     @Description("A list of pipeline stages to apply to the result of #source")
     private @Meta List<@Meta Stage> stages;
+    @Value("pipeline.cache.size")
+    @Default
+    @Description("""
+                 The maximum number of pipeline chunks to keep cached.
+                 
+                 If set to 0, the cache is sized to fit the pipeline chunk size and prefetch radius.""")
+    private @Meta int cacheSize = 0;
+    @Value("pipeline.cache.prefetch-radius")
+    @Default
+    @Description("""
+                 The radius, in pipeline chunks, of neighbouring chunks to generate in the background when a new chunk is generated.
+                 
+                 Prefetching keeps generation threads from waiting on pipeline chunks as terrain generation moves outwards,
+                 at the cost of generating some chunks that may not end up being used.""")
+    private @Meta int prefetchRadius = 0;
+    @Value("pipeline.cache.prefetch-threads")
+    @Default
+    @Description("""
+                 The number of background threads generating prefetched chunks, if prefetching is enabled.
+                 
+                 These threads are owned by this biome provider, and exit once prefetching goes idle.""")
+    private @Meta int prefetchThreads = 1;
 
     @Override
     public BiomeProvider get() {
-        return new PipelineBiomeProvider(new PipelineImpl(source, stages, resolution, 128), resolution, blendSampler, blendAmplitude);
+        return new PipelineBiomeProvider(new PipelineImpl(source, stages, resolution, 128), resolution, blendSampler, blendAmplitude,
+            cacheSize, prefetchRadius, prefetchThreads);
     }
 }
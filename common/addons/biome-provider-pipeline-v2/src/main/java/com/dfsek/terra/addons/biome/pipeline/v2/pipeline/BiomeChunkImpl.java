@@ -1,8 +1,11 @@
 package com.dfsek.terra.addons.biome.pipeline.v2.pipeline;
 
+import java.util.Arrays;
 import java.util.List;
 
 import com.dfsek.terra.addons.biome.pipeline.v2.api.BiomeChunk;
+import com.dfsek.terra.addons.biome.pipeline.v2.api.BiomePalette;
+import com.dfsek.terra.addons.biome.pipeline.v2.api.CompiledStage;
 import com.dfsek.terra.addons.biome.pipeline.v2.api.Expander;
 import com.dfsek.terra.addons.biome.pipeline.v2.api.Stage;
 import com.dfsek.terra.addons.biome.pipeline.v2.api.biome.PipelineBiome;
@@ -15,7 +18,8 @@ public class BiomeChunkImpl implements BiomeChunk {
     private final int chunkOriginArrayIndex;
     private final int worldCoordinateScale;
     private final int size;
-    private PipelineBiome[] biomes;
+    private final BiomePalette palette;
+    private short[] biomes;
 
     public BiomeChunkImpl(SeededVector2Key worldOrigin, PipelineImpl pipeline) {
 
@@ -24,13 +28,16 @@ public class BiomeChunkImpl implements BiomeChunk {
         this.worldCoordinateScale = pipeline.getResolution();
 
         this.size = pipeline.getArraySize();
+        this.palette = pipeline.getPalette();
 
         int expanderCount = pipeline.getExpanderCount();
         int expansionsApplied = 0;
 
         // Allocate working arrays
-        this.biomes = new PipelineBiome[size * size];
-        PipelineBiome[] lookupArray = new PipelineBiome[size * size];
+        this.biomes = new short[size * size];
+        short[] lookupArray = new short[size * size];
+        Arrays.fill(biomes, BiomePalette.NONE);
+        Arrays.fill(lookupArray, BiomePalette.NONE);
         // A second lookup array is required such that stage application doesn't affect lookups, otherwise application may cascade
 
         // Construct working grid
@@ -44,12 +51,19 @@ public class BiomeChunkImpl implements BiomeChunk {
             for(int gridZ = 0; gridZ < gridSize; gridZ++) {
                 int xIndex = gridOrigin + gridX * gridInterval;
                 int zIndex = gridOrigin + gridZ * gridInterval;
-                biomes[(xIndex * size) + zIndex] = pipeline.getSource().get(worldOrigin.seed, xIndexToWorldCoordinate(xIndex),
-                    zIndexToWorldCoordinate(zIndex));
+                biomes[(xIndex * size) + zIndex] = palette.index(pipeline.getSource().get(worldOrigin.seed,
+                    xIndexToWorldCoordinate(xIndex), zIndexToWorldCoordinate(zIndex)));
             }
         }
 
-        for(Stage stage : pipeline.getStages()) {
+        // A single view point is moved across the grid, stages must not retain it past a call to apply
+        ViewPoint viewPoint = new ViewPoint(this, size);
+
+        List<Stage> stages = pipeline.getStages();
+        List<CompiledStage> compiledStages = pipeline.getCompiledStages();
+        for(int i = 0; i < stages.size(); i++) {
+            Stage stage = stages.get(i);
+            CompiledStage compiledStage = compiledStages.get(i);
             if(stage instanceof Expander) {
                 // Shrink working grid size, the expander will fill in null cells (as a result of shrinking the grid) during mutation
                 expansionsApplied++;
@@ -66,17 +80,18 @@ public class BiomeChunkImpl implements BiomeChunk {
 
             // Cycle arrays, the previously populated array is swapped to be used for lookups, and the result of the stage application
             // overwrites the previous lookup array. This saves having to allocate a new array copy each time
-            PipelineBiome[] tempArray = biomes;
+            short[] tempArray = biomes;
             biomes = lookupArray;
             lookupArray = tempArray;
 
             // Apply stage to working grid
+            viewPoint.setGrid(gridInterval, lookupArray);
             for(int gridZ = 0; gridZ < gridSize; gridZ = gridZ + 1) {
                 for(int gridX = 0; gridX < gridSize; gridX = gridX + 1) {
                     int xIndex = gridOrigin + gridX * gridInterval;
                     int zIndex = gridOrigin + gridZ * gridInterval;
-                    biomes[(xIndex * size) + zIndex] = stage.apply(
-                        new ViewPoint(this, gridInterval, gridX, gridZ, xIndex, zIndex, lookupArray, size));
+                    viewPoint.move(gridX, gridZ, xIndex, zIndex);
+                    biomes[(xIndex * size) + zIndex] = compiledStage.apply(viewPoint);
                 }
             }
         }
@@ -135,7 +150,7 @@ public class BiomeChunkImpl implements BiomeChunk {
     public PipelineBiome get(int xInChunk, int zInChunk) {
         int xIndex = xInChunk + chunkOriginArrayIndex;
         int zIndex = zInChunk + chunkOriginArrayIndex;
-        return biomes[(xIndex * size) + zIndex];
+        return palette.get(biomes[(xIndex * size) + zIndex]);
     }
 
     private int xIndexToWorldCoordinate(int xIndex) {
@@ -151,39 +166,61 @@ public class BiomeChunkImpl implements BiomeChunk {
     }
 
     /**
-     * Represents a point on the operating grid within the biomes array
+     * Represents a point on the operating grid within the biomes array.
+     * <p>
+     * The same instance is moved to each point in turn while a stage is applied, so it is only valid for the duration of
+     * {@link Stage#apply(ViewPoint)}.
      */
     public static class ViewPoint {
         private final BiomeChunkImpl chunk;
-        private final PipelineBiome biome;
-        private final int gridInterval;
-        private final int gridX;
-        private final int gridZ;
-        private final int xIndex;
-        private final int zIndex;
-        private final PipelineBiome[] lookupArray;
         private final int size;
-
-        private ViewPoint(BiomeChunkImpl chunk, int gridInterval, int gridX, int gridZ, int xIndex, int zIndex,
-                          PipelineBiome[] lookupArray, int size) {
+        private short biome;
+        private int gridInterval;
+        private int gridX;
+        private int gridZ;
+        private int xIndex;
+        private int zIndex;
+        private short[] lookupArray;
+
+        private ViewPoint(BiomeChunkImpl chunk, int size) {
             this.chunk = chunk;
+            this.size = size;
+        }
+
+        private void setGrid(int gridInterval, short[] lookupArray) {
             this.gridInterval = gridInterval;
+            this.lookupArray = lookupArray;
+        }
+
+        private void move(int gridX, int gridZ, int xIndex, int zIndex) {
             this.gridX = gridX;
             this.gridZ = gridZ;
             this.xIndex = xIndex;
             this.zIndex = zIndex;
-            this.lookupArray = lookupArray;
-            this.size = size;
-            this.biome = lookupArray[(this.xIndex * this.size) + this.zIndex];
+            this.biome = lookupArray[(xIndex * size) + zIndex];
         }
 
         public PipelineBiome getRelativeBiome(int x, int z) {
+            return chunk.palette.get(getRelativeBiomeIndex(x, z));
+        }
+
+        public PipelineBiome getBiome() {
+            return chunk.palette.get(biome);
+        }
+
+        /**
+         * @return Palette index of the biome relative to this point, or {@link BiomePalette#NONE} if the cell is empty
+         */
+        public short getRelativeBiomeIndex(int x, int z) {
             int lookupXIndex = this.xIndex + x * gridInterval;
             int lookupZIndex = this.zIndex + z * gridInterval;
             return lookupArray[(lookupXIndex * this.size) + lookupZIndex];
         }
 
-        public PipelineBiome getBiome() {
+        /**
+         * @return Palette index of the biome at this point, or {@link BiomePalette#NONE} if the cell is empty
+         */
+        public short getBiomeIndex() {
             return biome;
         }
 
@@ -8,6 +8,8 @@ import org.slf4j.LoggerFactory;
 import java.util.List;
 
 import com.dfsek.terra.addons.biome.pipeline.v2.api.BiomeChunk;
+import com.dfsek.terra.addons.biome.pipeline.v2.api.BiomePalette;
+import com.dfsek.terra.addons.biome.pipeline.v2.api.CompiledStage;
 import com.dfsek.terra.addons.biome.pipeline.v2.api.Expander;
 import com.dfsek.terra.addons.biome.pipeline.v2.api.Pipeline;
 import com.dfsek.terra.addons.biome.pipeline.v2.api.Source;
@@ -20,6 +22,8 @@ public class PipelineImpl implements Pipeline {
 
     private final Source source;
     private final List<Stage> stages;
+    private final BiomePalette palette;
+    private final List<CompiledStage> compiledStages;
     private final int chunkSize;
     private final int expanderCount;
     private final int arraySize;
@@ -31,6 +35,8 @@ public class PipelineImpl implements Pipeline {
         this.stages = stages;
         this.resolution = resolution;
         this.expanderCount = (int) stages.stream().filter(s -> s instanceof Expander).count();
+        this.palette = BiomePalette.of(source, stages);
+        this.compiledStages = stages.stream().map(stage -> stage.compile(palette)).toList();
 
         // Optimize for the ideal array size
         int arraySize;
@@ -53,6 +59,7 @@ public class PipelineImpl implements Pipeline {
         logger.debug("Array size: {} (Target: {})", arraySize, idealChunkArraySize);
         logger.debug("Internal array origin: {}", chunkOriginArrayIndex);
         logger.debug("Chunk size: {}", chunkSize);
+        logger.debug("Palette size: {}", palette.size());
     }
 
     @Override
@@ -75,6 +82,14 @@ public class PipelineImpl implements Pipeline {
         return stages;
     }
 
+    protected BiomePalette getPalette() {
+        return palette;
+    }
+
+    protected List<CompiledStage> getCompiledStages() {
+        return compiledStages;
+    }
+
     protected int getExpanderCount() {
         return expanderCount;
     }
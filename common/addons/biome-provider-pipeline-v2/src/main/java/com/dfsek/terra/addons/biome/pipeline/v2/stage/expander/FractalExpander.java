@@ -1,5 +1,7 @@
 package com.dfsek.terra.addons.biome.pipeline.v2.stage.expander;
 
+import com.dfsek.terra.addons.biome.pipeline.v2.api.BiomePalette;
+import com.dfsek.terra.addons.biome.pipeline.v2.api.CompiledStage;
 import com.dfsek.terra.addons.biome.pipeline.v2.api.Expander;
 import com.dfsek.terra.addons.biome.pipeline.v2.api.biome.PipelineBiome;
 import com.dfsek.terra.addons.biome.pipeline.v2.pipeline.BiomeChunkImpl;
@@ -34,4 +36,27 @@ public class FractalExpander implements Expander {
                    roll > -0.25 ? viewPoint.getRelativeBiome(-1, -1) : viewPoint.getRelativeBiome(1, -1);
         }
     }
+
+    @Override
+    public CompiledStage compile(BiomePalette palette) {
+        return viewPoint -> {
+            short current = viewPoint.getBiomeIndex();
+            if(current != BiomePalette.NONE) return current;
+
+            int xMod2 = viewPoint.gridX() % 2;
+            int zMod2 = viewPoint.gridZ() % 2;
+
+            double roll = sampler.noise(viewPoint.worldSeed(), viewPoint.worldX(), viewPoint.worldZ());
+
+            if(xMod2 == 1 && zMod2 == 0) {
+                return roll > 0 ? viewPoint.getRelativeBiomeIndex(-1, 0) : viewPoint.getRelativeBiomeIndex(1, 0);
+            } else if(xMod2 == 0 && zMod2 == 1) {
+                return roll > 0 ? viewPoint.getRelativeBiomeIndex(0, -1) : viewPoint.getRelativeBiomeIndex(0, 1);
+            } else {
+                return roll > 0 ?
+                       roll > 0.25 ? viewPoint.getRelativeBiomeIndex(-1, 1) : viewPoint.getRelativeBiomeIndex(1, 1) :
+                       roll > -0.25 ? viewPoint.getRelativeBiomeIndex(-1, -1) : viewPoint.getRelativeBiomeIndex(1, -1);
+            }
+        };
+    }
 }
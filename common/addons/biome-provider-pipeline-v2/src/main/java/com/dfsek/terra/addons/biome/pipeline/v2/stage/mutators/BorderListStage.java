@@ -14,6 +14,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.function.Predicate;
 
+import com.dfsek.terra.addons.biome.pipeline.v2.api.BiomePalette;
+import com.dfsek.terra.addons.biome.pipeline.v2.api.CompiledStage;
 import com.dfsek.terra.addons.biome.pipeline.v2.api.Stage;
 import com.dfsek.terra.addons.biome.pipeline.v2.api.biome.PipelineBiome;
 import com.dfsek.terra.addons.biome.pipeline.v2.pipeline.BiomeChunkImpl;
@@ -80,6 +82,32 @@ public class BorderListStage implements Stage {
         return center;
     }
 
+    @Override
+    public CompiledStage compile(BiomePalette palette) {
+        // Replacements of the center biome, falling back to the default replacements
+        short[] defaultReplacements = palette.indices(replaceDefault);
+        BiomePalette.Table<short[]> replacements = palette.table(biome -> {
+            ProbabilityCollection<PipelineBiome> collection = replace.get(biome);
+            return collection == null ? defaultReplacements : palette.indices(collection);
+        });
+        BiomePalette.Mask replaceable = palette.mask(biome -> biome.getTags().contains(defaultReplace));
+        BiomePalette.Mask borders = palette.mask(biome -> biome.getTags().contains(border));
+        return viewPoint -> {
+            short center = viewPoint.getBiomeIndex();
+            if(replaceable.test(center)) {
+                for(Vector2Int point : borderPoints) {
+                    short current = viewPoint.getRelativeBiomeIndex(point.getX(), point.getZ());
+                    if(current != BiomePalette.NONE && borders.test(current)) {
+                        short replacement = BiomePalette.select(replacements.get(center), noiseSampler, viewPoint.worldX(),
+                            viewPoint.worldZ(), viewPoint.worldSeed());
+                        return replacement == BiomePalette.SELF ? center : replacement;
+                    }
+                }
+            }
+            return center;
+        };
+    }
+
     @Override
     public int maxRelativeReadDistance() {
         return 1;
@@ -13,6 +13,8 @@ import java.util.List;
 import java.util.Set;
 import java.util.function.Predicate;
 
+import com.dfsek.terra.addons.biome.pipeline.v2.api.BiomePalette;
+import com.dfsek.terra.addons.biome.pipeline.v2.api.CompiledStage;
 import com.dfsek.terra.addons.biome.pipeline.v2.api.Stage;
 import com.dfsek.terra.addons.biome.pipeline.v2.api.biome.PipelineBiome;
 import com.dfsek.terra.addons.biome.pipeline.v2.pipeline.BiomeChunkImpl;
@@ -58,6 +60,27 @@ public class BorderStage implements Stage {
         return center;
     }
 
+    @Override
+    public CompiledStage compile(BiomePalette palette) {
+        BiomePalette.Mask replaceable = palette.mask(biome -> biome.getTags().contains(replaceTag));
+        BiomePalette.Mask borders = palette.mask(biome -> biome.getTags().contains(border));
+        short[] replacements = palette.indices(replace);
+        return viewPoint -> {
+            short center = viewPoint.getBiomeIndex();
+            if(replaceable.test(center)) {
+                for(Vector2Int point : borderPoints) {
+                    short current = viewPoint.getRelativeBiomeIndex(point.getX(), point.getZ());
+                    if(current != BiomePalette.NONE && borders.test(current)) {
+                        short replacement = BiomePalette.select(replacements, noiseSampler, viewPoint.worldX(), viewPoint.worldZ(),
+                            viewPoint.worldSeed());
+                        return replacement == BiomePalette.SELF ? center : replacement;
+                    }
+                }
+            }
+            return center;
+        };
+    }
+
     @Override
     public Iterable<PipelineBiome> getBiomes(Iterable<PipelineBiome> biomes) {
         Set<PipelineBiome> biomeSet = new HashSet<>();
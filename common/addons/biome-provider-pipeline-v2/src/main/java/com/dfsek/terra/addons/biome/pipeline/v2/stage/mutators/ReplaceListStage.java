@@ -12,6 +12,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.stream.Stream;
 
+import com.dfsek.terra.addons.biome.pipeline.v2.api.BiomePalette;
+import com.dfsek.terra.addons.biome.pipeline.v2.api.CompiledStage;
 import com.dfsek.terra.addons.biome.pipeline.v2.api.Stage;
 import com.dfsek.terra.addons.biome.pipeline.v2.api.biome.PipelineBiome;
 import com.dfsek.terra.addons.biome.pipeline.v2.pipeline.BiomeChunkImpl;
@@ -47,6 +49,27 @@ public class ReplaceListStage implements Stage {
         return center;
     }
 
+    @Override
+    public CompiledStage compile(BiomePalette palette) {
+        // Null where the biome has no replacement list
+        BiomePalette.Table<short[]> replacements = palette.table(biome -> {
+            ProbabilityCollection<PipelineBiome> collection = replace.get(biome);
+            return collection == null ? null : palette.indices(collection);
+        });
+        BiomePalette.Mask replaceDefault = palette.mask(biome -> biome.getTags().contains(defaultTag));
+        short[] defaultReplacements = palette.indices(this.replaceDefault);
+        return viewPoint -> {
+            short center = viewPoint.getBiomeIndex();
+            short[] indices = replacements.get(center);
+            if(indices == null) {
+                if(!replaceDefault.test(center)) return center;
+                indices = defaultReplacements;
+            }
+            short biome = BiomePalette.select(indices, sampler, viewPoint.worldX(), viewPoint.worldZ(), viewPoint.worldSeed());
+            return biome == BiomePalette.SELF ? center : biome;
+        };
+    }
+
     @Override
     public int maxRelativeReadDistance() {
         return 0;
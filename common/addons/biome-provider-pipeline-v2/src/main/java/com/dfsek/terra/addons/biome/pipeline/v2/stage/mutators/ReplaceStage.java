@@ -11,6 +11,8 @@ import java.util.HashSet;
 import java.util.Set;
 import java.util.stream.Stream;
 
+import com.dfsek.terra.addons.biome.pipeline.v2.api.BiomePalette;
+import com.dfsek.terra.addons.biome.pipeline.v2.api.CompiledStage;
 import com.dfsek.terra.addons.biome.pipeline.v2.api.Stage;
 import com.dfsek.terra.addons.biome.pipeline.v2.api.biome.PipelineBiome;
 import com.dfsek.terra.addons.biome.pipeline.v2.pipeline.BiomeChunkImpl;
@@ -38,6 +40,20 @@ public class ReplaceStage implements Stage {
         return viewPoint.getBiome();
     }
 
+    @Override
+    public CompiledStage compile(BiomePalette palette) {
+        BiomePalette.Mask replaceable = palette.mask(biome -> biome.getTags().contains(replaceableTag));
+        short[] replacements = palette.indices(replace);
+        return viewPoint -> {
+            short center = viewPoint.getBiomeIndex();
+            if(replaceable.test(center)) {
+                short biome = BiomePalette.select(replacements, sampler, viewPoint.worldX(), viewPoint.worldZ(), viewPoint.worldSeed());
+                return biome == BiomePalette.SELF ? center : biome;
+            }
+            return center;
+        };
+    }
+
     @Override
     public int maxRelativeReadDistance() {
         return 0;
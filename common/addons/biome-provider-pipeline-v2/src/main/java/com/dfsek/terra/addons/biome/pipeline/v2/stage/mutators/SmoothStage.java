@@ -9,6 +9,8 @@ package com.dfsek.terra.addons.biome.pipeline.v2.stage.mutators;
 
 import java.util.Objects;
 
+import com.dfsek.terra.addons.biome.pipeline.v2.api.BiomePalette;
+import com.dfsek.terra.addons.biome.pipeline.v2.api.CompiledStage;
 import com.dfsek.terra.addons.biome.pipeline.v2.api.Stage;
 import com.dfsek.terra.addons.biome.pipeline.v2.api.biome.PipelineBiome;
 import com.dfsek.terra.addons.biome.pipeline.v2.pipeline.BiomeChunkImpl;
@@ -49,6 +51,34 @@ public class SmoothStage implements Stage {
         return viewPoint.getBiome();
     }
 
+    @Override
+    public CompiledStage compile(BiomePalette palette) {
+        return viewPoint -> {
+            short top = viewPoint.getRelativeBiomeIndex(1, 0);
+            short bottom = viewPoint.getRelativeBiomeIndex(-1, 0);
+            short left = viewPoint.getRelativeBiomeIndex(0, 1);
+            short right = viewPoint.getRelativeBiomeIndex(0, -1);
+
+            double roll = sampler.noise(viewPoint.worldSeed(), viewPoint.worldX(), viewPoint.worldZ());
+
+            boolean vert = top == bottom;
+            boolean horiz = left == right;
+
+            if(vert && horiz) {
+                return roll > 0 ?
+                       roll > 0.25 ? left : right :
+                       roll > -0.25 ? top : bottom;
+            }
+            if(vert) {
+                return roll > 0 ? top : bottom;
+            }
+            if(horiz) {
+                return roll > 0 ? left : right;
+            }
+            return viewPoint.getBiomeIndex();
+        };
+    }
+
     @Override
     public int maxRelativeReadDistance() {
         return 1;
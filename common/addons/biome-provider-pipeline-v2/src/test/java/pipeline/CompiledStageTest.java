@@ -0,0 +1,234 @@
+package pipeline;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.dfsek.terra.addons.biome.pipeline.v2.api.BiomeChunk;
+import com.dfsek.terra.addons.biome.pipeline.v2.api.Expander;
+import com.dfsek.terra.addons.biome.pipeline.v2.api.Source;
+import com.dfsek.terra.addons.biome.pipeline.v2.api.Stage;
+import com.dfsek.terra.addons.biome.pipeline.v2.api.biome.PipelineBiome;
+import com.dfsek.terra.addons.biome.pipeline.v2.pipeline.BiomeChunkImpl.ViewPoint;
+import com.dfsek.terra.addons.biome.pipeline.v2.pipeline.PipelineImpl;
+import com.dfsek.terra.addons.biome.pipeline.v2.source.SamplerSource;
+import com.dfsek.terra.addons.biome.pipeline.v2.stage.expander.FractalExpander;
+import com.dfsek.terra.addons.biome.pipeline.v2.stage.mutators.BorderListStage;
+import com.dfsek.terra.addons.biome.pipeline.v2.stage.mutators.BorderStage;
+import com.dfsek.terra.addons.biome.pipeline.v2.stage.mutators.ReplaceListStage;
+import com.dfsek.terra.addons.biome.pipeline.v2.stage.mutators.ReplaceStage;
+import com.dfsek.terra.addons.biome.pipeline.v2.stage.mutators.SmoothStage;
+import com.dfsek.terra.api.noise.NoiseSampler;
+import com.dfsek.terra.api.util.cache.SeededVector2Key;
+import com.dfsek.terra.api.util.collection.ProbabilityCollection;
+import com.dfsek.terra.api.world.biome.Biome;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+
+/**
+ * Compiled stages must produce exactly the biomes their {@link Stage#apply(ViewPoint)} path produces.
+ */
+public class CompiledStageTest {
+    private static final PipelineBiome OCEAN = new TestBiome("OCEAN", "WATER");
+    private static final PipelineBiome DEEP_OCEAN = new TestBiome("DEEP_OCEAN", "WATER");
+    private static final PipelineBiome PLAINS = new TestBiome("PLAINS", "LAND");
+    private static final PipelineBiome FOREST = new TestBiome("FOREST", "LAND");
+    private static final PipelineBiome DESERT = new TestBiome("DESERT", "LAND", "HOT");
+    private static final PipelineBiome MOUNTAINS = new TestBiome("MOUNTAINS", "LAND", "HIGH");
+    private static final PipelineBiome BEACH = new TestBiome("BEACH", "SHORE");
+    private static final PipelineBiome RIVER = new TestBiome("RIVER", "WATER");
+
+    private static final NoiseSampler NOISE = new HashSampler(0);
+
+    private static ProbabilityCollection<PipelineBiome> collection(Object... biomesAndWeights) {
+        ProbabilityCollection<PipelineBiome> collection = new ProbabilityCollection<>();
+        for(int i = 0; i < biomesAndWeights.length; i += 2) {
+            collection.add((PipelineBiome) biomesAndWeights[i], (Integer) biomesAndWeights[i + 1]);
+        }
+        return collection;
+    }
+
+    private static Source source() {
+        return new SamplerSource(collection(OCEAN, 3, PLAINS, 2, FOREST, 2, DESERT, 1, MOUNTAINS, 1), new HashSampler(1));
+    }
+
+    /*
+     * Hides any compile override, so the pipeline falls back to apply.
+     */
+    private static Stage uncompiled(Stage stage) {
+        if(stage instanceof Expander expander) {
+            return (Expander) expander::fillBiome;
+        }
+        return new Stage() {
+            @Override
+            public PipelineBiome apply(ViewPoint viewPoint) {
+                return stage.apply(viewPoint);
+            }
+
+            @Override
+            public int maxRelativeReadDistance() {
+                return stage.maxRelativeReadDistance();
+            }
+
+            @Override
+            public Iterable<PipelineBiome> getBiomes(Iterable<PipelineBiome> biomes) {
+                return stage.getBiomes(biomes);
+            }
+        };
+    }
+
+    private static void assertCompiledIdentical(Stage... stages) {
+        List<Stage> compiled = List.of(stages);
+        List<Stage> interpreted = compiled.stream().map(CompiledStageTest::uncompiled).toList();
+        for(int resolution : new int[]{ 1, 4 }) {
+            PipelineImpl compiledPipeline = new PipelineImpl(source(), compiled, resolution, 64);
+            PipelineImpl interpretedPipeline = new PipelineImpl(source(), interpreted, resolution, 64);
+            assertEquals(interpretedPipeline.getChunkSize(), compiledPipeline.getChunkSize());
+            int size = compiledPipeline.getChunkSize();
+
+            for(long seed = -2; seed <= 2; seed++) {
+                for(int chunkX = -2; chunkX <= 2; chunkX++) {
+                    for(int chunkZ = -2; chunkZ <= 2; chunkZ++) {
+                        SeededVector2Key key = new SeededVector2Key(chunkX * size, chunkZ * size, seed * 0x5DEECE66DL);
+                        BiomeChunk expected = interpretedPipeline.generateChunk(key);
+                        BiomeChunk actual = compiledPipeline.generateChunk(key);
+                        for(int x = 0; x < size; x++) {
+                            for(int z = 0; z < size; z++) {
+                                assertSame(expected.get(x, z), actual.get(x, z),
+                                    "Mismatch at " + x + ", " + z + " in chunk " + chunkX + ", " + chunkZ + " with seed " + key.seed);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static Stage replace() {
+        return new ReplaceStage("WATER", collection(PipelineBiome.self(), 3, DEEP_OCEAN, 2), new HashSampler(2));
+    }
+
+    private static Stage replaceList() {
+        return new ReplaceListStage(Map.of(PLAINS, collection(PipelineBiome.self(), 1, FOREST, 1),
+            DESERT, collection(MOUNTAINS, 1)), "LAND", collection(PipelineBiome.self(), 4, PLAINS, 1), new HashSampler(3));
+    }
+
+    private static Stage border() {
+        return new BorderStage("WATER", "LAND", new HashSampler(4), collection(BEACH, 3, PipelineBiome.self(), 1));
+    }
+
+    private static Stage borderList() {
+        return new BorderListStage(Map.of(DESERT, collection(PLAINS, 1), MOUNTAINS, collection(PipelineBiome.self(), 1, FOREST, 2)),
+            "WATER", "LAND", new HashSampler(5), collection(BEACH, 1));
+    }
+
+    @Test
+    public void fractalExpander() {
+        assertCompiledIdentical(new FractalExpander(new HashSampler(6)));
+        assertCompiledIdentical(new FractalExpander(new HashSampler(6)), new FractalExpander(new HashSampler(7)));
+    }
+
+    @Test
+    public void replaceStage() {
+        assertCompiledIdentical(replace());
+        assertCompiledIdentical(new FractalExpander(NOISE), replace());
+    }
+
+    @Test
+    public void replaceListStage() {
+        assertCompiledIdentical(replaceList());
+        assertCompiledIdentical(new FractalExpander(NOISE), replaceList());
+    }
+
+    @Test
+    public void borderStage() {
+        assertCompiledIdentical(border());
+        assertCompiledIdentical(new FractalExpander(NOISE), border());
+    }
+
+    @Test
+    public void borderListStage() {
+        assertCompiledIdentical(borderList());
+        assertCompiledIdentical(new FractalExpander(NOISE), borderList());
+    }
+
+    @Test
+    public void smoothStage() {
+        assertCompiledIdentical(new SmoothStage(new HashSampler(8)));
+        assertCompiledIdentical(new FractalExpander(NOISE), new SmoothStage(new HashSampler(8)));
+    }
+
+    @Test
+    public void fullPipeline() {
+        assertCompiledIdentical(new FractalExpander(NOISE), replace(), new FractalExpander(new HashSampler(9)), borderList(),
+            new SmoothStage(new HashSampler(10)), replaceList(), new FractalExpander(new HashSampler(11)), border(),
+            new SmoothStage(new HashSampler(12)));
+    }
+
+    @Test
+    public void unreportedBiomes() {
+        PipelineBiome hidden = new TestBiome("HIDDEN", "LAND", "WATER");
+        // Produces a biome it doesn't report, which later stages have to handle without a precomputed table entry
+        Stage underReporting = new Stage() {
+            @Override
+            public PipelineBiome apply(ViewPoint viewPoint) {
+                return (viewPoint.worldX() & 3) == 0 ? hidden : viewPoint.getBiome();
+            }
+
+            @Override
+            public int maxRelativeReadDistance() {
+                return 0;
+            }
+        };
+        assertCompiledIdentical(new FractalExpander(NOISE), underReporting, border(), borderList(), replaceList(), replace(),
+            new SmoothStage(new HashSampler(13)));
+        assertCompiledIdentical(underReporting, new ReplaceListStage(Map.of(hidden, collection(PipelineBiome.self(), 1, DESERT, 1)),
+            "HOT", collection(hidden, 1), new HashSampler(14)), new FractalExpander(NOISE), replaceList());
+    }
+
+
+    private record TestBiome(String id, Set<String> tags) implements PipelineBiome {
+        private TestBiome(String id, String... tags) {
+            this(id, Set.of(tags));
+        }
+
+        @Override
+        public Biome getBiome() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Set<String> getTags() {
+            return tags;
+        }
+
+        @Override
+        public String getID() {
+            return id;
+        }
+    }
+
+
+    private record HashSampler(long salt) implements NoiseSampler {
+        private static double hash(long value) {
+            value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+            value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+            value ^= value >>> 33;
+            return (value >>> 11) * 0x1.0p-52 - 1;
+        }
+
+        @Override
+        public double noise(long seed, double x, double y) {
+            return hash(seed + salt * 31 + Double.doubleToLongBits(x) * 0x9E3779B97F4A7C15L + Double.doubleToLongBits(y));
+        }
+
+        @Override
+        public double noise(long seed, double x, double y, double z) {
+            return noise(seed, x, y + z * 257);
+        }
+    }
+}
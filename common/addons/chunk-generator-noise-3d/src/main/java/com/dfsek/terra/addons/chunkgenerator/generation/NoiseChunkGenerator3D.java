@@ -16,6 +16,7 @@ import com.dfsek.terra.addons.chunkgenerator.generation.math.interpolation.Lazil
 import com.dfsek.terra.addons.chunkgenerator.generation.math.samplers.Sampler3D;
 import com.dfsek.terra.addons.chunkgenerator.generation.math.samplers.SamplerProvider;
 import com.dfsek.terra.addons.chunkgenerator.palette.BiomePaletteInfo;
+import com.dfsek.terra.addons.chunkgenerator.palette.PaletteHolder;
 import com.dfsek.terra.addons.chunkgenerator.palette.slant.SlantHolder;
 import com.dfsek.terra.api.Platform;
 import com.dfsek.terra.api.block.state.BlockState;
@@ -47,6 +48,8 @@ public class NoiseChunkGenerator3D implements ChunkGenerator {
 
     private final boolean useSlantPalettes;
 
+    private final ThreadLocal<LazilyEvaluatedInterpolator> carvers;
+
     public NoiseChunkGenerator3D(ConfigPack pack, Platform platform, int elevationBlend, int carverHorizontalResolution,
                                  int carverVerticalResolution,
                                  PropertyKey<BiomeNoiseProperties> noisePropertiesKey,
@@ -60,6 +63,8 @@ public class NoiseChunkGenerator3D implements ChunkGenerator {
         this.noisePropertiesKey = noisePropertiesKey;
         this.slantCalculationMethod = slantCalculationMethod;
         this.useSlantPalettes = useSlantPalettes;
+        this.carvers = ThreadLocal.withInitial(
+            () -> new LazilyEvaluatedInterpolator(noisePropertiesKey, carverHorizontalResolution, carverVerticalResolution));
         int maxBlend = pack
             .getBiomeProvider()
             .stream()
@@ -95,50 +100,59 @@ public class NoiseChunkGenerator3D implements ChunkGenerator {
 
         long seed = world.getSeed();
 
-        LazilyEvaluatedInterpolator carver = new LazilyEvaluatedInterpolator(biomeProvider,
-            chunkX,
-            chunkZ,
-            world.getMaxHeight(),
-            noisePropertiesKey, world.getMinHeight(),
-            carverHorizontalResolution,
-            carverVerticalResolution,
-            seed);
-        for(int x = 0; x < 16; x++) {
-            for(int z = 0; z < 16; z++) {
-                int paletteLevel = 0;
-
-                int cx = xOrig + x;
-                int cz = zOrig + z;
-
-                BlockState data;
-                Column<Biome> biomeColumn = biomeProvider.getColumn(cx, cz, world);
-                for(int y = world.getMaxHeight() - 1; y >= world.getMinHeight(); y--) {
-                    Biome biome = biomeColumn.get(y);
-
-                    BiomePaletteInfo paletteInfo = biome.getContext().get(paletteInfoPropertyKey);
-
-                    int sea = paletteInfo.seaLevel();
-                    Palette seaPalette = paletteInfo.ocean();
-
-                    if(sampler.sample(x, y, z) > 0) {
-                        if(carver.sample(x, y, z) <= 0) {
-                            data = paletteAt(x, y, z, sampler, paletteInfo, paletteLevel)
-                                .get(paletteLevel, cx, y, cz, seed);
-                            chunk.setBlock(x, y, z, data);
-                            paletteLevel++;
-                        } else if(paletteInfo.updatePaletteWhenCarving()) {
+        LazilyEvaluatedInterpolator carver = carvers.get();
+        carver.reset(biomeProvider, chunkX, chunkZ, world.getMaxHeight(), world.getMinHeight(), seed);
+        try {
+            for(int x = 0; x < 16; x++) {
+                for(int z = 0; z < 16; z++) {
+                    int paletteLevel = 0;
+
+                    int cx = xOrig + x;
+                    int cz = zOrig + z;
+
+                    BlockState data;
+                    Column<Biome> biomeColumn = biomeProvider.getColumn(cx, cz, world);
+                    Biome lastBiome = null;
+                    BiomePaletteInfo paletteInfo = null;
+                    PaletteHolder palettes = null;
+                    for(int y = world.getMaxHeight() - 1; y >= world.getMinHeight(); y--) {
+                        Biome biome = biomeColumn.get(y);
+                        // Columns are mostly a single biome, so the lookup only happens when it changes
+                        if(biome != lastBiome) {
+                            paletteInfo = biome.getContext().get(paletteInfoPropertyKey);
+                            palettes = paletteInfo.paletteHolder();
+                            lastBiome = biome;
+                        }
+
+                        int sea = paletteInfo.seaLevel();
+                        Palette seaPalette = paletteInfo.ocean();
+
+                        if(sampler.sample(x, y, z) > 0) {
+                            if(carver.sample(x, y, z) <= 0) {
+                                // Without slant palettes the palette only depends on the biome and height
+                                Palette palette = useSlantPalettes
+                                                  ? paletteAt(x, y, z, sampler, paletteInfo, paletteLevel)
+                                                  : palettes.getPalette(y);
+                                data = palette.get(paletteLevel, cx, y, cz, seed);
+                                chunk.setBlock(x, y, z, data);
+                                paletteLevel++;
+                            } else if(paletteInfo.updatePaletteWhenCarving()) {
+                                paletteLevel = 0;
+                            } else {
+                                paletteLevel++;
+                            }
+                        } else if(y <= sea) {
+                            chunk.setBlock(x, y, z, seaPalette.get(sea - y, x + xOrig, y, z + zOrig, seed));
                             paletteLevel = 0;
                         } else {
-                            paletteLevel++;
+                            paletteLevel = 0;
                         }
-                    } else if(y <= sea) {
-                        chunk.setBlock(x, y, z, seaPalette.get(sea - y, x + xOrig, y, z + zOrig, seed));
-                        paletteLevel = 0;
-                    } else {
-                        paletteLevel = 0;
                     }
                 }
             }
+        } finally {
+            // The interpolator outlives the chunk on this thread, it mustn't keep the world's biome provider alive
+            carver.release();
         }
         platform.getProfiler().pop("chunk_base_3d");
     }
@@ -7,9 +7,13 @@
 
 package com.dfsek.terra.addons.chunkgenerator.generation.math.interpolation;
 
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
 import com.dfsek.terra.addons.chunkgenerator.config.noise.BiomeNoiseProperties;
 import com.dfsek.terra.api.properties.PropertyKey;
 import com.dfsek.terra.api.util.Column;
+import com.dfsek.terra.api.util.MathUtil;
 import com.dfsek.terra.api.world.biome.Biome;
 import com.dfsek.terra.api.world.biome.generation.BiomeProvider;
 
@@ -17,12 +21,41 @@ import com.dfsek.terra.api.world.biome.generation.BiomeProvider;
 /**
  * Class to abstract away the Interpolators needed to generate a chunk.<br>
  * Contains method to get interpolated noise at a coordinate within the chunk.
+ * <p>
+ * Noise is sampled on a grid of 5x5 columns with a point every 4 blocks vertically. Each horizontal layer of the grid
+ * is only sampled the first time a cell touching it is read, so callers that only look at part of the height range,
+ * like features probing the terrain, don't pay for the rest of it.
+ * <p>
+ * The outer columns of the grid are the same points as the outer columns of the neighbouring chunks' grids. Points a
+ * neighbour has already sampled are copied from it rather than sampled again. Neighbours are looked up once, when the
+ * first layer is sampled, and only weakly held, so the interpolators of a generated area never keep each other alive.
  */
 public class ChunkInterpolator {
-    private final Interpolator3[][][] interpGrid;
+    private static final int LAYER = 25;
 
     private final int min;
     private final int max;
+    private final int size;
+
+    /*
+     * Noise at each grid point, layer by layer, indexed by y * 25 + x * 5 + z. The topmost layer repeats the one below.
+     */
+    private final double[] noise;
+    private final AtomicIntegerArray sampled; // Written after the layer's noise, so a set flag publishes the values
+
+    private final long seed;
+    private final int chunkX;
+    private final int chunkZ;
+    private final int xOrigin;
+    private final int zOrigin;
+    private final Neighbours neighbours;
+    private final BiomeProvider provider;
+    private final PropertyKey<BiomeNoiseProperties> noisePropertiesKey;
+    private final int maxBlend;
+    private final int maxBlendAndChunk;
+    private Column<Biome>[] columns; // Guarded by this, dropped once every layer is sampled
+    private WeakReference<ChunkInterpolator>[] adjacent; // Guarded by this, looked up with the first layer
+    private int remaining;
 
     /**
      * Instantiates a 3D ChunkInterpolator3D at a pair of chunk coordinates.
@@ -32,28 +65,55 @@ public class ChunkInterpolator {
      * @param provider Biome Provider to use for biome fetching.
      * @param min
      * @param max
+     * @param neighbours Lookup of interpolators for adjacent chunks of the same world, to share grid points with.
      */
+    @SuppressWarnings("unchecked")
     public ChunkInterpolator(long seed, int chunkX, int chunkZ, BiomeProvider provider, int min, int max,
-                             PropertyKey<BiomeNoiseProperties> noisePropertiesKey, int maxBlend) {
+                             PropertyKey<BiomeNoiseProperties> noisePropertiesKey, int maxBlend, Neighbours neighbours) {
         this.min = min;
         this.max = max;
+        this.seed = seed;
+        this.provider = provider;
+        this.noisePropertiesKey = noisePropertiesKey;
+        this.maxBlend = maxBlend;
+        this.neighbours = neighbours;
 
-        int xOrigin = chunkX << 4;
-        int zOrigin = chunkZ << 4;
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+        this.xOrigin = chunkX << 4;
+        this.zOrigin = chunkZ << 4;
 
         int range = this.max - this.min + 1;
 
-        int size = range >> 2;
+        this.size = range >> 2;
+        this.remaining = size;
 
-        interpGrid = new Interpolator3[4][size][4];
+        this.noise = new double[LAYER * (size + 1)];
+        this.sampled = new AtomicIntegerArray(size);
 
-        double[][][] noiseStorage = new double[5][5][size + 1];
+        this.maxBlendAndChunk = 17 + 2 * maxBlend;
 
-        int maxBlendAndChunk = 17 + 2 * maxBlend;
+        this.columns = new Column[maxBlendAndChunk * maxBlendAndChunk];
+    }
 
-        @SuppressWarnings("unchecked")
-        Column<Biome>[] columns = new Column[maxBlendAndChunk * maxBlendAndChunk];
+    private static int reRange(int value, int high) {
+        return Math.max(Math.min(value, high), 0);
+    }
 
+    private void ensureSampled(int y) {
+        int layer = Math.min(y, size - 1); // The top layer is filled along with the one below it
+        if(sampled.get(layer) == 0) sample(layer);
+    }
+
+    private synchronized void sample(int y) {
+        if(sampled.get(y) != 0) return;
+        int scaledY = (y << 2) + min;
+        if(adjacent == null) adjacent = findAdjacent();
+        ChunkInterpolator[] sharing = new ChunkInterpolator[9];
+        for(int i = 0; i < 9; i++) {
+            ChunkInterpolator neighbour = adjacent[i] == null ? null : adjacent[i].get();
+            if(neighbour != null && neighbour.sampled.get(y) != 0) sharing[i] = neighbour;
+        }
         for(int x = 0; x < 5; x++) {
             int scaledX = x << 2;
             int absoluteX = xOrigin + scaledX;
@@ -61,78 +121,108 @@ public class ChunkInterpolator {
                 int scaledZ = z << 2;
                 int absoluteZ = zOrigin + scaledZ;
 
-                int index = (scaledX + maxBlend) + maxBlendAndChunk * (scaledZ + maxBlend);
-                Column<Biome> biomeColumn = columns[index];
-
-                if(biomeColumn == null) {
-                    biomeColumn = provider.getColumn(absoluteX, absoluteZ, seed, min, max);
-                    columns[index] = biomeColumn;
+                double shared = shared(sharing, y, x, z);
+                if(!Double.isNaN(shared)) {
+                    store(y, x, z, shared);
+                    continue;
                 }
 
-                for(int y = 0; y < size; y++) {
-                    int scaledY = (y << 2) + min;
-                    BiomeNoiseProperties generationSettings = biomeColumn.get(scaledY)
-                        .getContext()
-                        .get(noisePropertiesKey);
-
-                    int step = generationSettings.blendStep();
-                    int blend = generationSettings.blendDistance();
-
-                    double runningNoise = 0;
-                    double runningDiv = 0;
-
-                    for(int xi = -blend; xi <= blend; xi++) {
-                        for(int zi = -blend; zi <= blend; zi++) {
-                            int blendX = (xi * step);
-                            int blendZ = (zi * step);
-
-                            int localIndex = (scaledX + maxBlend + blendX) + maxBlendAndChunk * (scaledZ + maxBlend + blendZ);
-                            Column<Biome> column = columns[localIndex];
-
-                            if(column == null) {
-                                column = provider.getColumn(absoluteX + blendX, absoluteZ + blendZ, seed, min, max);
-                                columns[localIndex] = column;
-                            }
-
-                            BiomeNoiseProperties properties = column
-                                .get(scaledY)
-                                .getContext()
-                                .get(noisePropertiesKey);
-                            double sample = properties.noiseHolder().getNoise(properties.base(), absoluteX, scaledY, absoluteZ, seed);
-                            runningNoise += sample * properties.blendWeight();
-                            runningDiv += properties.blendWeight();
-                        }
-                    }
+                BiomeNoiseProperties generationSettings = getColumn(scaledX, scaledZ)
+                    .get(scaledY)
+                    .getContext()
+                    .get(noisePropertiesKey);
 
-                    double noise = runningNoise / runningDiv;
+                int step = generationSettings.blendStep();
+                int blend = generationSettings.blendDistance();
 
-                    noiseStorage[x][z][y] = noise;
-                    if(y == size - 1) {
-                        noiseStorage[x][z][size] = noise;
+                double runningNoise = 0;
+                double runningDiv = 0;
+
+                for(int xi = -blend; xi <= blend; xi++) {
+                    for(int zi = -blend; zi <= blend; zi++) {
+                        int blendX = (xi * step);
+                        int blendZ = (zi * step);
+
+                        BiomeNoiseProperties properties = getColumn(scaledX + blendX, scaledZ + blendZ)
+                            .get(scaledY)
+                            .getContext()
+                            .get(noisePropertiesKey);
+                        double sample = properties.noiseHolder().getNoise(properties.base(), absoluteX, scaledY, absoluteZ, seed);
+                        runningNoise += sample * properties.blendWeight();
+                        runningDiv += properties.blendWeight();
                     }
                 }
+
+                store(y, x, z, runningNoise / runningDiv);
+            }
+        }
+        sampled.set(y, 1);
+        if(--remaining == 0) {
+            columns = null;
+            adjacent = null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private WeakReference<ChunkInterpolator>[] findAdjacent() {
+        WeakReference<ChunkInterpolator>[] found = new WeakReference[9];
+        for(int nx = -1; nx <= 1; nx++) {
+            for(int nz = -1; nz <= 1; nz++) {
+                if(nx == 0 && nz == 0) continue;
+                ChunkInterpolator neighbour = neighbours.get(chunkX + nx, chunkZ + nz);
+                if(neighbour != null) found[(nx + 1) * 3 + nz + 1] = new WeakReference<>(neighbour);
             }
         }
+        return found;
+    }
 
-        for(int x = 0; x < 4; x++) {
-            for(int z = 0; z < 4; z++) {
-                for(int y = 0; y < size; y++) {
-                    interpGrid[x][y][z] = new Interpolator3(
-                        noiseStorage[x][z][y],
-                        noiseStorage[x + 1][z][y],
-                        noiseStorage[x][z][y + 1],
-                        noiseStorage[x + 1][z][y + 1],
-                        noiseStorage[x][z + 1][y],
-                        noiseStorage[x + 1][z + 1][y],
-                        noiseStorage[x][z + 1][y + 1],
-                        noiseStorage[x + 1][z + 1][y + 1]);
+    private void store(int y, int x, int z, double value) {
+        noise[y * LAYER + x * 5 + z] = value;
+        if(y == size - 1) {
+            noise[size * LAYER + x * 5 + z] = value;
+        }
+    }
+
+    /*
+     * Value of a point on the edge of the grid from a neighbour that has sampled it, or NaN if none has.
+     */
+    private static double shared(ChunkInterpolator[] adjacent, int y, int x, int z) {
+        for(int nx = x == 0 ? -1 : 0; nx <= (x == 4 ? 1 : 0); nx++) {
+            for(int nz = z == 0 ? -1 : 0; nz <= (z == 4 ? 1 : 0); nz++) {
+                ChunkInterpolator neighbour = adjacent[(nx + 1) * 3 + nz + 1];
+                if(neighbour != null) {
+                    return neighbour.noise[y * LAYER + (x - (nx << 2)) * 5 + z - (nz << 2)];
                 }
             }
         }
+        return Double.NaN;
     }
 
-    private static int reRange(int value, int high) {
-        return Math.max(Math.min(value, high), 0);
+    private Column<Biome> getColumn(int localX, int localZ) {
+        int index = (localX + maxBlend) + maxBlendAndChunk * (localZ + maxBlend);
+        Column<Biome> column = columns[index];
+        if(column == null) {
+            column = provider.getColumn(xOrigin + localX, zOrigin + localZ, seed, min, max);
+            columns[index] = column;
+        }
+        return column;
+    }
+
+    /*
+     * Same operation order as a trilinear interpolation through Interpolator3, so results are bit for bit identical.
+     */
+    private double trilerp(int cellX, int cellY, int cellZ, double tx, double ty, double tz) {
+        ensureSampled(cellY);
+        ensureSampled(cellY + 1);
+        int lower = cellY * LAYER + cellX * 5 + cellZ;
+        int upper = lower + LAYER;
+        double top = MathUtil.lerp(tz,
+            MathUtil.lerp(ty, noise[lower], noise[upper]),
+            MathUtil.lerp(ty, noise[lower + 1], noise[upper + 1]));
+        double bottom = MathUtil.lerp(tz,
+            MathUtil.lerp(ty, noise[lower + 5], noise[upper + 5]),
+            MathUtil.lerp(ty, noise[lower + 6], noise[upper + 6]));
+        return MathUtil.lerp(tx, top, bottom);
     }
 
     /**
@@ -144,16 +234,23 @@ public class ChunkInterpolator {
      * @return double - The interpolated noise at the coordinates.
      */
     public double getNoise(double x, double y, double z) {
-        return interpGrid[reRange(((int) x) / 4, 3)][(Math.max(Math.min(((int) y), max), min) - min) / 4][reRange(((int) z) / 4,
-            3)].trilerp(
+        return trilerp(reRange(((int) x) / 4, 3), (Math.max(Math.min(((int) y), max), min) - min) / 4, reRange(((int) z) / 4, 3),
             (x % 4) / 4, (y % 4) / 4, (z % 4) / 4);
     }
 
     public double getNoise(int x, int y, int z) {
-        return interpGrid[x / 4][(y - min) / 4][z / 4].trilerp(
+        return trilerp(x / 4, (y - min) / 4, z / 4,
             (double) (x & 3) / 4, // x & 3 == x % 4
             (double) (y & 3) / 4, // x & 3 == x % 4
             (double) (z & 3) / 4  // x & 3 == x % 4
         );
     }
+
+    @FunctionalInterface
+    public interface Neighbours {
+        /**
+         * @return The interpolator of a chunk, or {@code null} if there is none at hand.
+         */
+        ChunkInterpolator get(int chunkX, int chunkZ);
+    }
 }
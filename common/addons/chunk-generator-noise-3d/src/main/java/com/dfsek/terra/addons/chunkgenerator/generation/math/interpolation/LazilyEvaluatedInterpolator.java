@@ -1,51 +1,75 @@
 package com.dfsek.terra.addons.chunkgenerator.generation.math.interpolation;
 
+import java.util.Arrays;
+
 import com.dfsek.terra.addons.chunkgenerator.config.noise.BiomeNoiseProperties;
 import com.dfsek.terra.api.properties.PropertyKey;
 import com.dfsek.terra.api.util.MathUtil;
 import com.dfsek.terra.api.world.biome.generation.BiomeProvider;
 
 
+/**
+ * Carver noise sampled on a coarse grid and interpolated between the samples, which are only computed when first read.
+ * <p>
+ * Instances are meant to be reused for chunk after chunk by one thread, {@link #reset} points it at a new chunk without
+ * reallocating the sample grid.
+ */
 public class LazilyEvaluatedInterpolator {
-    private final Double[] samples; //
+    private double[] samples = new double[0]; // NaN where not yet sampled
 
-    private final int chunkX;
-    private final int chunkZ;
+    private int chunkX;
+    private int chunkZ;
 
     private final int horizontalRes;
     private final int verticalRes;
 
-    private final BiomeProvider biomeProvider;
+    private BiomeProvider biomeProvider;
     private final PropertyKey<BiomeNoiseProperties> noisePropertiesKey;
 
-    private final long seed;
-    private final int min, max;
+    private long seed;
+    private int min, max;
 
     private final int zMul, yMul;
 
-    public LazilyEvaluatedInterpolator(BiomeProvider biomeProvider, int cx, int cz, int max,
-                                       PropertyKey<BiomeNoiseProperties> noisePropertiesKey, int min, int horizontalRes, int verticalRes,
-                                       long seed) {
+    public LazilyEvaluatedInterpolator(PropertyKey<BiomeNoiseProperties> noisePropertiesKey, int horizontalRes, int verticalRes) {
         this.noisePropertiesKey = noisePropertiesKey;
         int hSamples = (int) Math.ceil(16.0 / horizontalRes);
-        int vSamples = (int) Math.ceil((double) (max - min) / verticalRes);
         this.zMul = (hSamples + 1);
         this.yMul = zMul * zMul;
-        samples = new Double[yMul * (vSamples + 1)];
-        this.chunkX = cx << 4;
-        this.chunkZ = cz << 4;
         this.horizontalRes = horizontalRes;
         this.verticalRes = verticalRes;
+    }
+
+    /**
+     * Discard all samples and start interpolating a different chunk.
+     */
+    public void reset(BiomeProvider biomeProvider, int cx, int cz, int max, int min, long seed) {
+        int vSamples = (int) Math.ceil((double) (max - min) / verticalRes);
+        int length = yMul * (vSamples + 1);
+        if(samples.length != length) {
+            samples = new double[length];
+        }
+        Arrays.fill(samples, Double.NaN);
+        this.chunkX = cx << 4;
+        this.chunkZ = cz << 4;
         this.biomeProvider = biomeProvider;
         this.seed = seed;
         this.min = min;
         this.max = max - 1;
     }
 
+    /**
+     * Drop the reference to the biome provider of the last chunk. The interpolator can't be sampled again until it is
+     * {@link #reset}.
+     */
+    public void release() {
+        this.biomeProvider = null;
+    }
+
     private double sample(int xIndex, int yIndex, int zIndex, int ox, int oy, int oz) {
         int index = xIndex + (zIndex * zMul) + (yIndex * yMul);
-        Double sample = samples[index];
-        if(sample == null) {
+        double sample = samples[index];
+        if(Double.isNaN(sample)) {
             int xi = ox + chunkX;
             int zi = oz + chunkZ;
 
@@ -19,9 +19,9 @@ public class Sampler3D {
     private final ElevationInterpolator elevationInterpolator;
 
     public Sampler3D(int x, int z, long seed, int minHeight, int maxHeight, BiomeProvider provider, int elevationSmooth,
-                     PropertyKey<BiomeNoiseProperties> noisePropertiesKey, int maxBlend) {
+                     PropertyKey<BiomeNoiseProperties> noisePropertiesKey, int maxBlend, ChunkInterpolator.Neighbours neighbours) {
         this.interpolator = new ChunkInterpolator(seed, x, z, provider,
-            minHeight, maxHeight, noisePropertiesKey, maxBlend);
+            minHeight, maxHeight, noisePropertiesKey, maxBlend, neighbours);
         this.elevationInterpolator = new ElevationInterpolator(seed, x, z, provider, elevationSmooth, noisePropertiesKey);
     }
 
@@ -32,4 +32,8 @@ public class Sampler3D {
     public double sample(int x, int y, int z) {
         return interpolator.getNoise(x, y, z) + elevationInterpolator.getElevation(x, z);
     }
+
+    ChunkInterpolator interpolator() {
+        return interpolator;
+    }
 }
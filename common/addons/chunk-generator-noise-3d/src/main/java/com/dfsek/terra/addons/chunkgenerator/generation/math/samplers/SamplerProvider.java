@@ -20,6 +20,11 @@ package com.dfsek.terra.addons.chunkgenerator.generation.math.samplers;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import com.dfsek.terra.addons.chunkgenerator.config.noise.BiomeNoiseProperties;
 import com.dfsek.terra.api.Platform;
 import com.dfsek.terra.api.properties.PropertyKey;
@@ -27,8 +32,23 @@ import com.dfsek.terra.api.world.biome.generation.BiomeProvider;
 import com.dfsek.terra.api.world.info.WorldProperties;
 
 
+/**
+ * Cache of {@link Sampler3D}s, one per chunk, shared by every world generated with the pack.
+ * <p>
+ * Samplers are keyed by their chunk coordinates packed into a long, together with a small id given to each seed and
+ * height range the first time it is seen, rather than by a record of the whole world built for every lookup. Each
+ * thread also remembers the last sampler it looked up, as most lookups hit the same chunk as the one before. The
+ * sampler is only weakly held, so it is never kept beyond its eviction from the cache, nor after a pack reload.
+ * Samplers fetch their neighbours from the same cache to share the grid points on their common edges.
+ */
 public class SamplerProvider {
-    private final Cache<WorldContext, Sampler3D> cache;
+    private static final int COORDINATE_BITS = 22; // Enough for the 30 million block world border of every platform
+    private static final long COORDINATE_MASK = (1L << COORDINATE_BITS) - 1;
+
+    private final Cache<Long, Sampler3D> cache;
+    private final Map<WorldContext, Integer> worldIds = new ConcurrentHashMap<>();
+    private final AtomicInteger nextWorldId = new AtomicInteger();
+    private final ThreadLocal<LastSampler> lastSampler = ThreadLocal.withInitial(LastSampler::new);
     private final int elevationSmooth;
     private final PropertyKey<BiomeNoiseProperties> noisePropertiesKey;
     private final int maxBlend;
@@ -43,6 +63,10 @@ public class SamplerProvider {
         this.maxBlend = maxBlend;
     }
 
+    private static long key(int worldId, int cx, int cz) {
+        return ((long) worldId << (COORDINATE_BITS * 2)) | ((cx & COORDINATE_MASK) << COORDINATE_BITS) | (cz & COORDINATE_MASK);
+    }
+
     public Sampler3D get(int x, int z, WorldProperties world, BiomeProvider provider) {
         int cx = Math.floorDiv(x, 16);
         int cz = Math.floorDiv(z, 16);
@@ -50,11 +74,45 @@ public class SamplerProvider {
     }
 
     public Sampler3D getChunk(int cx, int cz, WorldProperties world, BiomeProvider provider) {
-        WorldContext context = new WorldContext(cx, cz, world.getSeed(), world.getMinHeight(), world.getMaxHeight());
-        return cache.get(context, c -> new Sampler3D(c.cx, c.cz, c.seed, c.minHeight, c.maxHeight, provider,
-            elevationSmooth, noisePropertiesKey, maxBlend));
+        long seed = world.getSeed();
+        int minHeight = world.getMinHeight();
+        int maxHeight = world.getMaxHeight();
+
+        LastSampler last = lastSampler.get();
+        if(last.worldId < 0 || last.seed != seed || last.minHeight != minHeight || last.maxHeight != maxHeight) {
+            last.worldId = worldIds.computeIfAbsent(new WorldContext(seed, minHeight, maxHeight), c -> nextWorldId.getAndIncrement());
+            last.seed = seed;
+            last.minHeight = minHeight;
+            last.maxHeight = maxHeight;
+            last.sampler = new WeakReference<>(null);
+        } else if(last.cx == cx && last.cz == cz) {
+            Sampler3D sampler = last.sampler.get();
+            if(sampler != null) return sampler;
+        }
+
+        int worldId = last.worldId;
+        Sampler3D sampler = cache.get(key(worldId, cx, cz), key -> new Sampler3D(cx, cz, seed, minHeight, maxHeight, provider,
+            elevationSmooth, noisePropertiesKey, maxBlend, (x, z) -> {
+                Sampler3D neighbour = cache.getIfPresent(key(worldId, x, z));
+                return neighbour == null ? null : neighbour.interpolator();
+            }));
+        last.cx = cx;
+        last.cz = cz;
+        last.sampler = new WeakReference<>(sampler);
+        return sampler;
     }
 
-    private record WorldContext(int cx, int cz, long seed, int minHeight, int maxHeight) {
+    private record WorldContext(long seed, int minHeight, int maxHeight) {
+    }
+
+
+    private static final class LastSampler {
+        private int worldId = -1; // No world looked up yet
+        private int cx;
+        private int cz;
+        private long seed;
+        private int minHeight;
+        private int maxHeight;
+        private WeakReference<Sampler3D> sampler = new WeakReference<>(null);
     }
 }
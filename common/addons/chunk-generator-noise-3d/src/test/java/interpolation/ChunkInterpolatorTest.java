@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2020-2025 Polyhedral Development
+ *
+ * The Terra Core Addons are licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in this module's root directory.
+ */
+
+package interpolation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import com.dfsek.terra.addons.chunkgenerator.config.noise.BiomeNoiseProperties;
+import com.dfsek.terra.addons.chunkgenerator.generation.math.interpolation.ChunkInterpolator;
+import com.dfsek.terra.addons.chunkgenerator.generation.math.interpolation.Interpolator3;
+import com.dfsek.terra.api.properties.PropertyKey;
+import com.dfsek.terra.api.util.Column;
+import com.dfsek.terra.api.world.biome.Biome;
+import com.dfsek.terra.api.world.biome.generation.BiomeProvider;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+public class ChunkInterpolatorTest {
+    private static final long SEED = 5;
+    private static final int MIN = -64;
+    private static final int MAX = 319;
+    private static final int MAX_BLEND = TestBiomeProvider.MAX_BLEND;
+    private static final PropertyKey<BiomeNoiseProperties> KEY = TestBiomeProvider.KEY;
+    private static final BiomeProvider PROVIDER = new TestBiomeProvider();
+
+    @Test
+    public void matchesEagerGrid() {
+        for(int chunkX = -1; chunkX <= 1; chunkX++) {
+            for(int chunkZ = -1; chunkZ <= 1; chunkZ++) {
+                ChunkInterpolator lazy = new ChunkInterpolator(SEED, chunkX, chunkZ, PROVIDER, MIN, MAX, KEY, MAX_BLEND, (x, z) -> null);
+                EagerInterpolator eager = new EagerInterpolator(chunkX, chunkZ);
+                // Top down, so the repeated topmost layer is read before the layer it repeats is sampled
+                for(int y = MAX; y >= MIN; y--) {
+                    for(int x = 0; x < 16; x++) {
+                        for(int z = 0; z < 16; z++) {
+                            assertEquals(eager.getNoise(x, y, z), lazy.getNoise(x, y, z),
+                                "chunk " + chunkX + ", " + chunkZ + " at " + x + ", " + y + ", " + z);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void matchesEagerGridAtFractionalPositions() {
+        Random random = new Random(0);
+        ChunkInterpolator lazy = new ChunkInterpolator(SEED, 2, -3, PROVIDER, MIN, MAX, KEY, MAX_BLEND, (x, z) -> null);
+        EagerInterpolator eager = new EagerInterpolator(2, -3);
+        // Layers are sampled in random order, and positions outside the chunk are clamped to its edge cells
+        for(int i = 0; i < 100000; i++) {
+            double x = random.nextDouble(-4, 20);
+            double y = random.nextDouble(MIN - 16, MAX + 16);
+            double z = random.nextDouble(-4, 20);
+            assertEquals(eager.getNoise(x, y, z), lazy.getNoise(x, y, z), "at " + x + ", " + y + ", " + z);
+        }
+    }
+
+    /*
+     * The interpolator as it was before layers were sampled lazily, every cell of the chunk sampled up front into a
+     * grid of Interpolator3s.
+     */
+    private static final class EagerInterpolator {
+        private final Interpolator3[][][] interpGrid;
+
+        private EagerInterpolator(int chunkX, int chunkZ) {
+            int xOrigin = chunkX << 4;
+            int zOrigin = chunkZ << 4;
+
+            int size = (MAX - MIN + 1) >> 2;
+
+            interpGrid = new Interpolator3[4][size][4];
+
+            double[][][] noiseStorage = new double[5][5][size + 1];
+
+            for(int x = 0; x < 5; x++) {
+                int scaledX = x << 2;
+                int absoluteX = xOrigin + scaledX;
+                for(int z = 0; z < 5; z++) {
+                    int scaledZ = z << 2;
+                    int absoluteZ = zOrigin + scaledZ;
+
+                    Column<Biome> biomeColumn = PROVIDER.getColumn(absoluteX, absoluteZ, SEED, MIN, MAX);
+
+                    for(int y = 0; y < size; y++) {
+                        int scaledY = (y << 2) + MIN;
+                        BiomeNoiseProperties generationSettings = biomeColumn.get(scaledY)
+                            .getContext()
+                            .get(KEY);
+
+                        int step = generationSettings.blendStep();
+                        int blend = generationSettings.blendDistance();
+
+                        double runningNoise = 0;
+                        double runningDiv = 0;
+
+                        for(int xi = -blend; xi <= blend; xi++) {
+                            for(int zi = -blend; zi <= blend; zi++) {
+                                int blendX = (xi * step);
+                                int blendZ = (zi * step);
+
+                                BiomeNoiseProperties properties = PROVIDER.getColumn(absoluteX + blendX, absoluteZ + blendZ, SEED, MIN, MAX)
+                                    .get(scaledY)
+                                    .getContext()
+                                    .get(KEY);
+                                double sample = properties.noiseHolder().getNoise(properties.base(), absoluteX, scaledY, absoluteZ, SEED);
+                                runningNoise += sample * properties.blendWeight();
+                                runningDiv += properties.blendWeight();
+                            }
+                        }
+
+                        double noise = runningNoise / runningDiv;
+
+                        noiseStorage[x][z][y] = noise;
+                        if(y == size - 1) {
+                            noiseStorage[x][z][size] = noise;
+                        }
+                    }
+                }
+            }
+
+            for(int x = 0; x < 4; x++) {
+                for(int z = 0; z < 4; z++) {
+                    for(int y = 0; y < size; y++) {
+                        interpGrid[x][y][z] = new Interpolator3(
+                            noiseStorage[x][z][y],
+                            noiseStorage[x + 1][z][y],
+                            noiseStorage[x][z][y + 1],
+                            noiseStorage[x + 1][z][y + 1],
+                            noiseStorage[x][z + 1][y],
+                            noiseStorage[x + 1][z + 1][y],
+                            noiseStorage[x][z + 1][y + 1],
+                            noiseStorage[x + 1][z + 1][y + 1]);
+                    }
+                }
+            }
+        }
+
+        private static int reRange(int value, int high) {
+            return Math.max(Math.min(value, high), 0);
+        }
+
+        private double getNoise(double x, double y, double z) {
+            return interpGrid[reRange(((int) x) / 4, 3)][(Math.max(Math.min(((int) y), MAX), MIN) - MIN) / 4][reRange(((int) z) / 4,
+                3)].trilerp(
+                (x % 4) / 4, (y % 4) / 4, (z % 4) / 4);
+        }
+
+        private double getNoise(int x, int y, int z) {
+            return interpGrid[x / 4][(y - MIN) / 4][z / 4].trilerp(
+                (double) (x & 3) / 4,
+                (double) (y & 3) / 4,
+                (double) (z & 3) / 4
+            );
+        }
+    }
+}
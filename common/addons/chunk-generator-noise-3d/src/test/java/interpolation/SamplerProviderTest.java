@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2020-2025 Polyhedral Development
+ *
+ * The Terra Core Addons are licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in this module's root directory.
+ */
+
+package interpolation;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.dfsek.terra.addons.chunkgenerator.generation.math.samplers.Sampler3D;
+import com.dfsek.terra.addons.chunkgenerator.generation.math.samplers.SamplerProvider;
+import com.dfsek.terra.api.Platform;
+import com.dfsek.terra.api.config.PluginConfig;
+import com.dfsek.terra.api.world.biome.generation.BiomeProvider;
+import com.dfsek.terra.api.world.info.WorldProperties;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+
+public class SamplerProviderTest {
+    private static final int MIN = -64;
+    private static final int MAX = 320;
+    private static final int ELEVATION_SMOOTH = 2;
+    private static final int SIZE = 5; // Chunks along each side of the generated block
+    private static final BiomeProvider PROVIDER = new TestBiomeProvider();
+
+    @Test
+    public void neighbouringSamplersMatchIsolatedSamplers() throws Exception {
+        List<Chunk> chunks = new ArrayList<>();
+        // Two worlds that only differ by seed share the provider, and so its cache
+        for(long seed : new long[]{ 5, 6 }) {
+            for(int x = -SIZE / 2; x < SIZE - SIZE / 2; x++) {
+                for(int z = -SIZE / 2; z < SIZE - SIZE / 2; z++) {
+                    chunks.add(new Chunk(seed, x, z));
+                }
+            }
+        }
+
+        Map<Chunk, double[]> expected = new ConcurrentHashMap<>();
+        for(Chunk chunk : chunks) {
+            Sampler3D isolated = new Sampler3D(chunk.x, chunk.z, chunk.seed, MIN, MAX, PROVIDER, ELEVATION_SMOOTH, TestBiomeProvider.KEY,
+                TestBiomeProvider.MAX_BLEND, (x, z) -> null);
+            read(isolated, chunk, 0, 1, false, expected);
+        }
+
+        List<Chunk> reversed = new ArrayList<>(chunks);
+        Collections.reverse(reversed);
+        List<Chunk> shuffled = new ArrayList<>(chunks);
+        Collections.shuffle(shuffled, new Random(0));
+
+        // In order, each chunk read bottom up
+        assertMatches(expected, generate(chunks, 1024, 1, 1, false));
+        // In reverse, each chunk read top down
+        assertMatches(expected, generate(reversed, 1024, 1, 1, true));
+        // Half of every chunk's layers read before the other half, so neighbours have only sampled some layers
+        assertMatches(expected, generate(shuffled, 1024, 1, 2, false));
+        // From several threads at once, racing to sample the same layers of neighbouring chunks
+        assertMatches(expected, generate(shuffled, 1024, 8, 2, true));
+        // With a cache too small to hold every neighbour, so samplers are evicted and created again mid generation
+        assertMatches(expected, generate(shuffled, 8, 8, 3, false));
+    }
+
+    private static void assertMatches(Map<Chunk, double[]> expected, Map<Chunk, double[]> actual) {
+        expected.forEach((chunk, values) -> assertArrayEquals(values, actual.get(chunk), chunk.toString()));
+    }
+
+    /*
+     * Reads every chunk in a number of passes, each pass reading its share of every chunk's layers before the next starts.
+     */
+    private static Map<Chunk, double[]> generate(List<Chunk> chunks, int cacheSize, int threads, int passes, boolean topDown)
+        throws Exception {
+        PluginConfig config = proxy(PluginConfig.class, "getSamplerCache", cacheSize);
+        SamplerProvider samplers = new SamplerProvider(proxy(Platform.class, "getTerraConfig", config), ELEVATION_SMOOTH,
+            TestBiomeProvider.KEY, TestBiomeProvider.MAX_BLEND);
+
+        Map<Chunk, double[]> results = new ConcurrentHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for(int pass = 0; pass < passes; pass++) {
+                List<Future<?>> futures = new ArrayList<>();
+                for(Chunk chunk : chunks) {
+                    int current = pass;
+                    futures.add(executor.submit(() -> read(samplers.getChunk(chunk.x, chunk.z, chunk.world(), PROVIDER), chunk, current,
+                        passes, topDown, results)));
+                }
+                for(Future<?> future : futures) future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        return results;
+    }
+
+    /*
+     * Samples every block of the layers of a chunk that belong to a pass, every layer when there is only one pass.
+     */
+    private static void read(Sampler3D sampler, Chunk chunk, int pass, int passes, boolean topDown, Map<Chunk, double[]> results) {
+        double[] values = results.computeIfAbsent(chunk, c -> new double[16 * 16 * (MAX - MIN)]);
+        for(int i = 0; i < MAX - MIN; i++) {
+            int y = topDown ? MAX - 1 - i : MIN + i;
+            if(((y - MIN) >> 2) % passes != pass) continue;
+            for(int x = 0; x < 16; x++) {
+                for(int z = 0; z < 16; z++) {
+                    values[((y - MIN) << 8) | (x << 4) | z] = sampler.sample(x, y, z);
+                }
+            }
+        }
+    }
+
+    private static <T> T proxy(Class<T> type, String method, Object value) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{ type }, (proxy, called, args) -> {
+            if(called.getName().equals(method)) return value;
+            throw new UnsupportedOperationException(called.getName());
+        }));
+    }
+
+    private record Chunk(long seed, int x, int z) {
+        private WorldProperties world() {
+            return (WorldProperties) Proxy.newProxyInstance(WorldProperties.class.getClassLoader(), new Class<?>[]{ WorldProperties.class },
+                (proxy, method, args) -> switch(method.getName()) {
+                    case "getSeed" -> seed;
+                    case "getMinHeight" -> MIN;
+                    case "getMaxHeight" -> MAX;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2020-2025 Polyhedral Development
+ *
+ * The Terra Core Addons are licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in this module's root directory.
+ */
+
+package interpolation;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+import com.dfsek.terra.addons.chunkgenerator.config.noise.BiomeNoiseProperties;
+import com.dfsek.terra.addons.chunkgenerator.config.noise.ThreadLocalNoiseHolder;
+import com.dfsek.terra.api.noise.NoiseSampler;
+import com.dfsek.terra.api.properties.Context;
+import com.dfsek.terra.api.properties.PropertyKey;
+import com.dfsek.terra.api.world.biome.Biome;
+import com.dfsek.terra.api.world.biome.generation.BiomeProvider;
+
+
+/**
+ * Biomes that change every few blocks in all three directions, each with its own noise and blending.
+ */
+final class TestBiomeProvider implements BiomeProvider {
+    static final PropertyKey<BiomeNoiseProperties> KEY = Context.create(BiomeNoiseProperties.class);
+    static final int MAX_BLEND = 12; // The furthest any biome below blends
+
+    private final List<Biome> biomes = List.of(biome(0, 0, 1, 1), biome(1, 2, 3, 1.7), biome(2, 3, 4, 2.4));
+
+    private static Biome biome(int offset, int blendDistance, int blendStep, double blendWeight) {
+        Context context = new Context().put(KEY, new BiomeNoiseProperties(sampler(offset), sampler(offset + 7), sampler(offset + 13),
+            blendDistance, blendStep, blendWeight, 1, new ThreadLocalNoiseHolder()));
+        return (Biome) Proxy.newProxyInstance(Biome.class.getClassLoader(), new Class<?>[]{ Biome.class }, (proxy, method, args) -> {
+            return switch(method.getName()) {
+                case "getContext" -> context;
+                case "getID" -> "biome_" + offset;
+                case "toString" -> "Biome " + offset;
+                default -> throw new UnsupportedOperationException(method.getName());
+            };
+        });
+    }
+
+    private static NoiseSampler sampler(int offset) {
+        return new NoiseSampler() {
+            @Override
+            public double noise(long seed, double x, double y) {
+                return Math.sin(x * 0.13 + offset) * Math.cos(y * 0.07 + seed);
+            }
+
+            @Override
+            public double noise(long seed, double x, double y, double z) {
+                return Math.sin(x * 0.13 + offset) + Math.cos(y * 0.071) * Math.sin(z * 0.09 + seed);
+            }
+        };
+    }
+
+    @Override
+    public Biome getBiome(int x, int y, int z, long seed) {
+        return biomes.get(Math.floorMod(Math.floorDiv(x, 3) * 7 + Math.floorDiv(z, 5) * 3 + (y >> 4), biomes.size()));
+    }
+
+    @Override
+    public Iterable<Biome> getBiomes() {
+        return biomes;
+    }
+}
@@ -17,6 +17,7 @@ import com.dfsek.terra.api.block.state.properties.enums.Direction;
 import com.dfsek.terra.api.noise.NoiseSampler;
 import com.dfsek.terra.api.structure.Structure;
 import com.dfsek.terra.api.util.Rotation;
+import com.dfsek.terra.api.util.collection.MaterialBitSet;
 import com.dfsek.terra.api.util.collection.MaterialSet;
 import com.dfsek.terra.api.util.collection.ProbabilityCollection;
 import com.dfsek.terra.api.util.vector.Vector3Int;
@@ -28,7 +29,7 @@ public class TerraFlora implements Structure {
     private final boolean physics;
     private final boolean ceiling;
 
-    private final MaterialSet testRotation;
+    private final MaterialBitSet testRotation;
 
     private final NoiseSampler distribution;
 
@@ -38,7 +39,7 @@ public class TerraFlora implements Structure {
                       MaterialSet testRotation,
                       NoiseSampler distribution, String id) {
         this.physics = physics;
-        this.testRotation = testRotation;
+        this.testRotation = MaterialBitSet.of(testRotation);
         this.ceiling = ceiling;
         this.distribution = distribution;
         this.id = id;
@@ -72,7 +73,7 @@ public class TerraFlora implements Structure {
 
     @Override
     public boolean generate(Vector3Int location, WritableWorld world, Random random, Rotation rotation) {
-        boolean doRotation = testRotation.size() > 0;
+        boolean doRotation = !testRotation.isEmpty();
         int size = layers.size();
         int c = ceiling ? -1 : 1;
 
@@ -14,6 +14,7 @@ import com.dfsek.terra.addons.feature.locator.patterns.MatchPattern;
 import com.dfsek.terra.addons.feature.locator.patterns.Pattern;
 import com.dfsek.terra.api.config.meta.Meta;
 import com.dfsek.terra.api.util.Range;
+import com.dfsek.terra.api.util.collection.MaterialBitSet;
 import com.dfsek.terra.api.util.collection.MaterialSet;
 
 
@@ -26,6 +27,7 @@ public class BlockSetMatchPatternTemplate implements ObjectTemplate<Pattern> {
 
     @Override
     public Pattern get() {
-        return new MatchPattern(offset, blockState -> blocks.contains(blockState.getBlockType()));
+        MaterialBitSet types = MaterialBitSet.of(blocks);
+        return new MatchPattern(offset, blockState -> types.contains(blockState.getBlockType()));
     }
 }
@@ -3,4 +3,5 @@ version = version("1.2.0")
 dependencies {
     compileOnlyApi(project(":common:addons:manifest-addon-loader"))
     api("com.dfsek", "paralithic", Versions.Libraries.paralithic)
+    implementation("org.ow2.asm", "asm", Versions.Libraries.Internal.asm)
 }
@@ -15,6 +15,7 @@ import java.util.Map;
 import java.util.function.Supplier;
 
 import com.dfsek.terra.addons.manifest.api.AddonInitializer;
+import com.dfsek.terra.addons.noise.compiler.CompilingSamplerLoader;
 import com.dfsek.terra.addons.noise.config.CubicSplinePointTemplate;
 import com.dfsek.terra.addons.noise.config.DimensionApplicableNoiseSampler;
 import com.dfsek.terra.addons.noise.config.templates.BinaryArithmeticTemplate;
@@ -156,6 +157,11 @@ public class NoiseAddon implements AddonInitializer {
 
                 noiseRegistry.register(addon.key("CACHE"), CacheSamplerTemplate::new);
 
+                NoiseCompilerConfigTemplate compilerTemplate = event.loadTemplate(new NoiseCompilerConfigTemplate());
+                if(compilerTemplate.isEnabled()) {
+                    event.getPack().applyLoader(NoiseSampler.class, new CompilingSamplerLoader(noiseRegistry));
+                }
+
 
                 Map<String, DimensionApplicableNoiseSampler> packSamplers = new LinkedHashMap<>();
                 Map<String, FunctionTemplate> packFunctions = new LinkedHashMap<>();
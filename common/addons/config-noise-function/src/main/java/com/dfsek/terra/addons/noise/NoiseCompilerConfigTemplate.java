@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) 2020-2025 Polyhedral Development
+ *
+ * The Terra Core Addons are licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in this module's root directory.
+ */
+
+package com.dfsek.terra.addons.noise;
+
+import com.dfsek.tectonic.api.config.template.ConfigTemplate;
+import com.dfsek.tectonic.api.config.template.annotations.Default;
+import com.dfsek.tectonic.api.config.template.annotations.Value;
+
+
+@SuppressWarnings("FieldMayBeFinal")
+public class NoiseCompilerConfigTemplate implements ConfigTemplate {
+    @Value("noise.compile.enable")
+    @Default
+    private boolean enabled = false;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2020-2025 Polyhedral Development
+ *
+ * The Terra Core Addons are licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in this module's root directory.
+ */
+
+package com.dfsek.terra.addons.noise.compiler;
+
+import com.dfsek.terra.api.noise.NoiseSampler;
+
+
+/**
+ * Base class of the hidden classes emitted by {@link SamplerCompiler}.
+ * <p>
+ * Keeps a reference to the interpreted sampler tree it was compiled from, so that compiled samplers nested in
+ * other trees can be unwrapped and inlined again.
+ */
+public abstract class CompiledNoiseSampler implements NoiseSampler {
+    private final NoiseSampler source;
+
+    protected CompiledNoiseSampler(NoiseSampler source) {
+        this.source = source;
+    }
+
+    public NoiseSampler getSource() {
+        return source;
+    }
+
+    @Override
+    public String toString() {
+        return "Compiled[" + source + "]";
+    }
+}
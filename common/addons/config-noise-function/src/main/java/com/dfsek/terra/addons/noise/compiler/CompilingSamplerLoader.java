@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2020-2025 Polyhedral Development
+ *
+ * The Terra Core Addons are licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in this module's root directory.
+ */
+
+package com.dfsek.terra.addons.noise.compiler;
+
+import com.dfsek.tectonic.api.config.template.object.ObjectTemplate;
+import com.dfsek.tectonic.api.depth.DepthTracker;
+import com.dfsek.tectonic.api.exception.LoadException;
+import com.dfsek.tectonic.api.loader.ConfigLoader;
+import com.dfsek.tectonic.api.loader.type.TypeLoader;
+import com.dfsek.tectonic.impl.MapConfiguration;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.AnnotatedType;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import com.dfsek.terra.api.noise.NoiseSampler;
+import com.dfsek.terra.api.registry.Registry;
+
+
+/**
+ * Loads samplers from the noise registry, compiling each outermost sampler tree with {@link SamplerCompiler}.
+ * <p>
+ * Nested samplers are loaded as part of their parent and are left interpreted, so that the whole tree ends up in a
+ * single generated class. Every compiled tree is checked against the interpreted one before it is used, and the
+ * interpreted tree is kept if they differ at all.
+ */
+public class CompilingSamplerLoader implements TypeLoader<NoiseSampler> {
+    private static final Logger logger = LoggerFactory.getLogger(CompilingSamplerLoader.class);
+    private static final int VALIDATION_POINTS = 256;
+
+    private final Registry<Supplier<ObjectTemplate<NoiseSampler>>> registry;
+    private final ThreadLocal<int[]> depth = ThreadLocal.withInitial(() -> new int[1]);
+
+    public CompilingSamplerLoader(Registry<Supplier<ObjectTemplate<NoiseSampler>>> registry) {
+        this.registry = registry;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public NoiseSampler load(@NotNull AnnotatedType t, @NotNull Object c, @NotNull ConfigLoader loader, DepthTracker depthTracker)
+    throws LoadException {
+        Map<String, Object> map = (Map<String, Object>) c;
+        String type = (String) map.get("type");
+
+        int[] depth = this.depth.get();
+        NoiseSampler sampler;
+        depth[0]++;
+        try {
+            sampler = loader
+                .load(registry.getByID(type)
+                    .orElseThrow(() -> new LoadException("No such entry: " + type, depthTracker))
+                    .get(), new MapConfiguration(map), depthTracker.intrinsic("With type \"" + type + "\"")).get();
+        } finally {
+            depth[0]--;
+        }
+
+        if(depth[0] != 0 || !SamplerCompiler.isCompilable(sampler)) return sampler;
+        return compile(sampler, type);
+    }
+
+    private NoiseSampler compile(NoiseSampler sampler, String type) {
+        NoiseSampler compiled;
+        try {
+            compiled = SamplerCompiler.compile(sampler);
+        } catch(RuntimeException e) {
+            logger.warn("Failed to compile sampler of type {}, it will be interpreted.", type, e);
+            return sampler;
+        }
+        boolean valid;
+        try {
+            valid = SamplerCompiler.validate(sampler, compiled, type.hashCode(), VALIDATION_POINTS);
+        } catch(RuntimeException e) {
+            logger.error("Compiled sampler of type {} failed during validation, it will be interpreted.", type, e);
+            return sampler;
+        }
+        if(!valid) {
+            logger.error("Compiled sampler of type {} does not match its interpreted output, it will be interpreted.", type);
+            return sampler;
+        }
+        return compiled;
+    }
+}
@@ -0,0 +1,437 @@
+/*
+ * Copyright (c) 2020-2025 Polyhedral Development
+ *
+ * The Terra Core Addons are licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in this module's root directory.
+ */
+
+package com.dfsek.terra.addons.noise.compiler;
+
+import com.dfsek.paralithic.Expression;
+import com.dfsek.paralithic.functions.dynamic.Context;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import com.dfsek.terra.addons.noise.normalizer.ClampNormalizer;
+import com.dfsek.terra.addons.noise.normalizer.LinearNormalizer;
+import com.dfsek.terra.addons.noise.normalizer.Normalizer;
+import com.dfsek.terra.addons.noise.normalizer.ScaleNormalizer;
+import com.dfsek.terra.addons.noise.paralithic.noise.SeedContext;
+import com.dfsek.terra.addons.noise.samplers.TranslateSampler;
+import com.dfsek.terra.addons.noise.samplers.arithmetic.AdditionSampler;
+import com.dfsek.terra.addons.noise.samplers.arithmetic.BinaryArithmeticSampler;
+import com.dfsek.terra.addons.noise.samplers.arithmetic.DivisionSampler;
+import com.dfsek.terra.addons.noise.samplers.arithmetic.MaxSampler;
+import com.dfsek.terra.addons.noise.samplers.arithmetic.MinSampler;
+import com.dfsek.terra.addons.noise.samplers.arithmetic.MultiplicationSampler;
+import com.dfsek.terra.addons.noise.samplers.arithmetic.SubtractionSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.ConstantSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.ExpressionFunction;
+import com.dfsek.terra.addons.noise.samplers.noise.NoiseFunction;
+import com.dfsek.terra.api.noise.DerivativeNoiseSampler;
+import com.dfsek.terra.api.noise.NoiseSampler;
+
+import static org.objectweb.asm.Opcodes.AALOAD;
+import static org.objectweb.asm.Opcodes.ACC_FINAL;
+import static org.objectweb.asm.Opcodes.ACC_PRIVATE;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.ACC_STATIC;
+import static org.objectweb.asm.Opcodes.ACC_SUPER;
+import static org.objectweb.asm.Opcodes.ALOAD;
+import static org.objectweb.asm.Opcodes.ASTORE;
+import static org.objectweb.asm.Opcodes.BIPUSH;
+import static org.objectweb.asm.Opcodes.CHECKCAST;
+import static org.objectweb.asm.Opcodes.DADD;
+import static org.objectweb.asm.Opcodes.DCONST_0;
+import static org.objectweb.asm.Opcodes.DCONST_1;
+import static org.objectweb.asm.Opcodes.DDIV;
+import static org.objectweb.asm.Opcodes.DLOAD;
+import static org.objectweb.asm.Opcodes.DMUL;
+import static org.objectweb.asm.Opcodes.DRETURN;
+import static org.objectweb.asm.Opcodes.DSTORE;
+import static org.objectweb.asm.Opcodes.DSUB;
+import static org.objectweb.asm.Opcodes.DUP;
+import static org.objectweb.asm.Opcodes.GETSTATIC;
+import static org.objectweb.asm.Opcodes.ICONST_0;
+import static org.objectweb.asm.Opcodes.INVOKEINTERFACE;
+import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
+import static org.objectweb.asm.Opcodes.INVOKESTATIC;
+import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
+import static org.objectweb.asm.Opcodes.LADD;
+import static org.objectweb.asm.Opcodes.LLOAD;
+import static org.objectweb.asm.Opcodes.PUTSTATIC;
+import static org.objectweb.asm.Opcodes.RETURN;
+import static org.objectweb.asm.Opcodes.SIPUSH;
+import static org.objectweb.asm.Opcodes.V17;
+
+
+/**
+ * Compiles a tree of {@link NoiseSampler}s into a single hidden class.
+ * <p>
+ * Arithmetic samplers, translations and simple normalizers are inlined as bytecode. Leaf noise functions are invoked
+ * through their raw implementation on a call site owned by the generated class, with salt and frequency folded into
+ * constants, so every call site in the generated method sees exactly one receiver type. Anything the compiler does not
+ * understand is invoked as an opaque sampler.
+ */
+public final class SamplerCompiler {
+    private static final Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final String CLASS_NAME = "com/dfsek/terra/addons/noise/compiler/GeneratedSampler";
+    private static final String SUPER_NAME = Type.getInternalName(CompiledNoiseSampler.class);
+    private static final String MATH = Type.getInternalName(Math.class);
+
+    private static final String NOISE_2D = "(JDD)D";
+    private static final String NOISE_3D = "(JDDD)D";
+
+    private static final int SEED = 1;
+    private static final int X = 3;
+    private static final int Y = 5;
+    private static final int Z = 7;
+
+    private SamplerCompiler() { }
+
+    public static NoiseSampler unwrap(NoiseSampler sampler) {
+        while(sampler instanceof CompiledNoiseSampler compiled) {
+            sampler = compiled.getSource();
+        }
+        return sampler;
+    }
+
+    /**
+     * Only trees with something to inline are worth a class. Differentiable samplers are left alone, since callers
+     * check for {@link DerivativeNoiseSampler} to compute slant.
+     */
+    public static boolean isCompilable(NoiseSampler sampler) {
+        NoiseSampler source = unwrap(sampler);
+        if(DerivativeNoiseSampler.isDifferentiable(source)) return false;
+        return source instanceof BinaryArithmeticSampler || source instanceof Normalizer || source instanceof TranslateSampler ||
+               source instanceof ExpressionFunction;
+    }
+
+    public static CompiledNoiseSampler compile(NoiseSampler sampler) {
+        NoiseSampler source = unwrap(sampler);
+        ClassEmitter emitter = new ClassEmitter();
+        byte[] bytes = emitter.emit(source);
+        try {
+            Lookup lookup = LOOKUP.defineHiddenClassWithClassData(bytes, emitter.constants.toArray(), true);
+            return (CompiledNoiseSampler) lookup
+                .findConstructor(lookup.lookupClass(), MethodType.methodType(void.class, NoiseSampler.class))
+                .invoke(source);
+        } catch(Throwable e) {
+            throw new IllegalStateException("Failed to define compiled sampler for " + source, e);
+        }
+    }
+
+    /**
+     * Compares compiled and interpreted output on random points. The compiled tree performs the same floating point
+     * operations in the same order, so anything but a bit for bit match means it was miscompiled.
+     *
+     * @return Whether all points matched.
+     */
+    public static boolean validate(NoiseSampler interpreted, NoiseSampler compiled, long seed, int points) {
+        Random random = new Random(seed);
+        for(int i = 0; i < points; i++) {
+            long sampleSeed = random.nextLong();
+            double x = (random.nextDouble() - 0.5) * 65536;
+            double y = (random.nextDouble() - 0.5) * 65536;
+            double z = (random.nextDouble() - 0.5) * 65536;
+
+            double expected2D, expected3D;
+            try {
+                expected2D = interpreted.noise(sampleSeed, x, z);
+                expected3D = interpreted.noise(sampleSeed, x, y, z);
+            } catch(RuntimeException e) {
+                continue; // Out of the sampler's domain, nothing to compare.
+            }
+            if(!matches(expected2D, compiled.noise(sampleSeed, x, z)) ||
+               !matches(expected3D, compiled.noise(sampleSeed, x, y, z))) return false;
+        }
+        return true;
+    }
+
+    private static boolean matches(double expected, double actual) {
+        return Double.doubleToRawLongBits(expected) == Double.doubleToRawLongBits(actual);
+    }
+
+    private static boolean overridesNoise(Class<?> type, Class<?> base, int dimensions) {
+        try {
+            Class<?>[] parameters = dimensions == 2
+                                    ? new Class<?>[]{ long.class, double.class, double.class }
+                                    : new Class<?>[]{ long.class, double.class, double.class, double.class };
+            return type.getMethod("noise", parameters).getDeclaringClass() != base;
+        } catch(NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The generated class lives in this addon's class loader, so it may only link against public classes that loader
+     * can see. Everything else is referenced through {@code fallback}.
+     */
+    private static Class<?> accessible(Class<?> type, Class<?> fallback) {
+        if(!Modifier.isPublic(type.getModifiers()) || type.isHidden()) return fallback;
+        try {
+            return Class.forName(type.getName(), false, SamplerCompiler.class.getClassLoader()) == type ? type : fallback;
+        } catch(ClassNotFoundException e) {
+            return fallback;
+        }
+    }
+
+
+    private static final class ClassEmitter {
+        private final List<Object> constants = new ArrayList<>();
+        private final List<Class<?>> constantTypes = new ArrayList<>();
+        private final Map<Object, Integer> indices = new IdentityHashMap<>();
+
+        private byte[] emit(NoiseSampler source) {
+            ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+            writer.visit(V17, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, CLASS_NAME, null, SUPER_NAME, null);
+
+            MethodVisitor constructor = writer.visitMethod(ACC_PUBLIC, "<init>", "(" + Type.getDescriptor(NoiseSampler.class) + ")V",
+                null, null);
+            constructor.visitCode();
+            constructor.visitVarInsn(ALOAD, 0);
+            constructor.visitVarInsn(ALOAD, 1);
+            constructor.visitMethodInsn(INVOKESPECIAL, SUPER_NAME, "<init>", "(" + Type.getDescriptor(NoiseSampler.class) + ")V", false);
+            constructor.visitInsn(RETURN);
+            constructor.visitMaxs(0, 0);
+            constructor.visitEnd();
+
+            emitNoise(writer, source, new int[]{ X, Y }, NOISE_2D, Z);
+            emitNoise(writer, source, new int[]{ X, Y, Z }, NOISE_3D, Z + 2);
+
+            emitConstants(writer);
+
+            writer.visitEnd();
+            return writer.toByteArray();
+        }
+
+        private void emitNoise(ClassWriter writer, NoiseSampler source, int[] coordinates, String descriptor, int firstLocal) {
+            MethodVisitor method = writer.visitMethod(ACC_PUBLIC | ACC_FINAL, "noise", descriptor, null, null);
+            method.visitCode();
+            new MethodEmitter(method, firstLocal).emit(source, coordinates);
+            method.visitInsn(DRETURN);
+            method.visitMaxs(0, 0);
+            method.visitEnd();
+        }
+
+        private void emitConstants(ClassWriter writer) {
+            for(int i = 0; i < constants.size(); i++) {
+                writer.visitField(ACC_PRIVATE | ACC_STATIC | ACC_FINAL, "c" + i, Type.getDescriptor(constantTypes.get(i)), null, null)
+                    .visitEnd();
+            }
+
+            MethodVisitor initializer = writer.visitMethod(ACC_STATIC, "<clinit>", "()V", null, null);
+            initializer.visitCode();
+            initializer.visitMethodInsn(INVOKESTATIC, Type.getInternalName(MethodHandles.class), "lookup",
+                "()" + Type.getDescriptor(Lookup.class), false);
+            initializer.visitLdcInsn("_");
+            initializer.visitLdcInsn(Type.getType(Object[].class));
+            initializer.visitMethodInsn(INVOKESTATIC, Type.getInternalName(MethodHandles.class), "classData",
+                "(" + Type.getDescriptor(Lookup.class) + "Ljava/lang/String;Ljava/lang/Class;)Ljava/lang/Object;", false);
+            initializer.visitTypeInsn(CHECKCAST, Type.getInternalName(Object[].class));
+            initializer.visitVarInsn(ASTORE, 0);
+            for(int i = 0; i < constants.size(); i++) {
+                initializer.visitVarInsn(ALOAD, 0);
+                pushInt(initializer, i);
+                initializer.visitInsn(AALOAD);
+                initializer.visitTypeInsn(CHECKCAST, Type.getInternalName(constantTypes.get(i)));
+                initializer.visitFieldInsn(PUTSTATIC, CLASS_NAME, "c" + i, Type.getDescriptor(constantTypes.get(i)));
+            }
+            initializer.visitInsn(RETURN);
+            initializer.visitMaxs(0, 0);
+            initializer.visitEnd();
+        }
+
+        private int constant(Object value, Class<?> type) {
+            Integer index = indices.get(value);
+            if(index == null || constantTypes.get(index) != type) {
+                index = constants.size();
+                constants.add(value);
+                constantTypes.add(type);
+                indices.put(value, index);
+            }
+            return index;
+        }
+
+        private static void pushInt(MethodVisitor method, int value) {
+            if(value >= -1 && value <= 5) method.visitInsn(ICONST_0 + value);
+            else if(value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) method.visitIntInsn(BIPUSH, value);
+            else if(value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) method.visitIntInsn(SIPUSH, value);
+            else method.visitLdcInsn(value);
+        }
+
+
+        private final class MethodEmitter {
+            private final MethodVisitor method;
+            private int nextLocal;
+
+            private MethodEmitter(MethodVisitor method, int firstLocal) {
+                this.method = method;
+                this.nextLocal = firstLocal;
+            }
+
+            private void emit(NoiseSampler sampler, int[] coordinates) {
+                sampler = unwrap(sampler);
+                Class<?> type = sampler.getClass();
+                int dimensions = coordinates.length;
+
+                if(sampler instanceof BinaryArithmeticSampler arithmetic && emitArithmetic(arithmetic, coordinates)) return;
+                if(sampler instanceof Normalizer normalizer && !overridesNoise(type, Normalizer.class, dimensions)) {
+                    emitNormalizer(normalizer, coordinates);
+                } else if(type == TranslateSampler.class) {
+                    emitTranslate((TranslateSampler) sampler, coordinates);
+                } else if(sampler instanceof NoiseFunction function && !overridesNoise(type, NoiseFunction.class, dimensions)) {
+                    emitNoiseFunction(function, coordinates);
+                } else {
+                    Class<?> owner = accessible(type, NoiseSampler.class);
+                    getConstant(sampler, owner);
+                    method.visitVarInsn(LLOAD, SEED);
+                    for(int coordinate : coordinates) {
+                        method.visitVarInsn(DLOAD, coordinate);
+                    }
+                    invoke(owner, "noise", dimensions == 2 ? NOISE_2D : NOISE_3D);
+                }
+            }
+
+            private boolean emitArithmetic(BinaryArithmeticSampler arithmetic, int[] coordinates) {
+                Class<?> type = arithmetic.getClass();
+                int opcode = 0;
+                String function = null;
+                if(type == AdditionSampler.class) opcode = DADD;
+                else if(type == SubtractionSampler.class) opcode = DSUB;
+                else if(type == MultiplicationSampler.class) opcode = DMUL;
+                else if(type == DivisionSampler.class) opcode = DDIV;
+                else if(type == MaxSampler.class) function = "max";
+                else if(type == MinSampler.class) function = "min";
+                else return false;
+
+                emit(arithmetic.getLeft(), coordinates);
+                emit(arithmetic.getRight(), coordinates);
+                if(function == null) method.visitInsn(opcode);
+                else method.visitMethodInsn(INVOKESTATIC, MATH, function, "(DD)D", false);
+                return true;
+            }
+
+            private void emitNormalizer(Normalizer normalizer, int[] coordinates) {
+                Class<?> type = normalizer.getClass();
+                if(type == LinearNormalizer.class) {
+                    LinearNormalizer linear = (LinearNormalizer) normalizer;
+                    emit(linear.getSampler(), coordinates);
+                    method.visitLdcInsn(linear.getMin());
+                    method.visitInsn(DSUB);
+                    method.visitLdcInsn(2 / (linear.getMax() - linear.getMin()));
+                    method.visitInsn(DMUL);
+                    method.visitInsn(DCONST_1);
+                    method.visitInsn(DSUB);
+                } else if(type == ClampNormalizer.class) {
+                    ClampNormalizer clamp = (ClampNormalizer) normalizer;
+                    emit(clamp.getSampler(), coordinates);
+                    method.visitLdcInsn(clamp.getMax());
+                    method.visitMethodInsn(INVOKESTATIC, MATH, "min", "(DD)D", false);
+                    method.visitLdcInsn(clamp.getMin());
+                    method.visitMethodInsn(INVOKESTATIC, MATH, "max", "(DD)D", false);
+                } else if(type == ScaleNormalizer.class) {
+                    ScaleNormalizer scale = (ScaleNormalizer) normalizer;
+                    emit(scale.getSampler(), coordinates);
+                    method.visitLdcInsn(scale.getScale());
+                    method.visitInsn(DMUL);
+                } else {
+                    Class<?> owner = accessible(type, Normalizer.class);
+                    getConstant(normalizer, owner);
+                    emit(normalizer.getSampler(), coordinates);
+                    invoke(owner, "normalize", "(D)D");
+                }
+            }
+
+            private void emitTranslate(TranslateSampler translate, int[] coordinates) {
+                double[] offsets = coordinates.length == 2
+                                   ? new double[]{ translate.getDx(), translate.getDz() }
+                                   : new double[]{ translate.getDx(), translate.getDy(), translate.getDz() };
+                int[] translated = new int[coordinates.length];
+                for(int i = 0; i < coordinates.length; i++) {
+                    translated[i] = nextLocal;
+                    nextLocal += 2;
+                    method.visitVarInsn(DLOAD, coordinates[i]);
+                    method.visitLdcInsn(offsets[i]);
+                    method.visitInsn(DSUB);
+                    method.visitVarInsn(DSTORE, translated[i]);
+                }
+                emit(translate.getSampler(), translated);
+            }
+
+            private void emitNoiseFunction(NoiseFunction function, int[] coordinates) {
+                Class<?> type = function.getClass();
+                if(type == ConstantSampler.class) {
+                    method.visitLdcInsn(((ConstantSampler) function).getConstant());
+                } else if(type == ExpressionFunction.class) {
+                    emitExpression((ExpressionFunction) function, coordinates);
+                } else {
+                    Class<?> owner = accessible(type, NoiseFunction.class);
+                    getConstant(function, owner);
+                    emitSeed(function.getSalt());
+                    for(int coordinate : coordinates) {
+                        emitCoordinate(coordinate, function.getFrequency());
+                    }
+                    invoke(owner, "getNoiseRaw", coordinates.length == 2 ? NOISE_2D : NOISE_3D);
+                }
+            }
+
+            /**
+             * Calls the Paralithic expression directly, giving every compiled sampler its own call site for it.
+             */
+            private void emitExpression(ExpressionFunction function, int[] coordinates) {
+                getConstant(function.getExpression(), Expression.class);
+
+                getConstant(function, ExpressionFunction.class);
+                emitSeed(function.getSalt());
+                for(int i = 0; i < 3; i++) {
+                    if(coordinates.length == 2 && i == 1) method.visitInsn(DCONST_0); // 2D expressions are evaluated on the XZ plane.
+                    else emitCoordinate(coordinates[coordinates.length == 2 && i == 2 ? 1 : i], function.getFrequency());
+                }
+                String context = Type.getInternalName(SeedContext.class);
+                method.visitMethodInsn(INVOKEVIRTUAL, Type.getInternalName(ExpressionFunction.class), "context",
+                    "(JDDD)" + Type.getDescriptor(SeedContext.class), false);
+                method.visitInsn(DUP);
+                method.visitMethodInsn(INVOKEVIRTUAL, context, "getArguments", "()[D", false);
+                invoke(Expression.class, "evaluate", "(" + Type.getDescriptor(Context.class) + "[D)D");
+            }
+
+            private void emitSeed(long salt) {
+                method.visitVarInsn(LLOAD, SEED);
+                if(salt != 0) {
+                    method.visitLdcInsn(salt);
+                    method.visitInsn(LADD);
+                }
+            }
+
+            private void emitCoordinate(int coordinate, double frequency) {
+                method.visitVarInsn(DLOAD, coordinate);
+                if(frequency != 1) {
+                    method.visitLdcInsn(frequency);
+                    method.visitInsn(DMUL);
+                }
+            }
+
+            private void getConstant(Object value, Class<?> type) {
+                method.visitFieldInsn(GETSTATIC, CLASS_NAME, "c" + constant(value, type), Type.getDescriptor(type));
+            }
+
+            private void invoke(Class<?> owner, String name, String descriptor) {
+                method.visitMethodInsn(owner.isInterface() ? INVOKEINTERFACE : INVOKEVIRTUAL, Type.getInternalName(owner), name,
+                    descriptor, owner.isInterface());
+            }
+        }
+    }
+}
@@ -24,4 +24,12 @@ public class ClampNormalizer extends Normalizer {
     public double normalize(double in) {
         return Math.max(Math.min(in, max), min);
     }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
 }
@@ -27,4 +27,12 @@ public class LinearNormalizer extends Normalizer {
     public double normalize(double in) {
         return (in - min) * (2 / (max - min)) - 1;
     }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
 }
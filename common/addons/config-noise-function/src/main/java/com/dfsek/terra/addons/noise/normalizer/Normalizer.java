@@ -19,6 +19,10 @@ public abstract class Normalizer implements NoiseSampler {
 
     public abstract double normalize(double in);
 
+    public NoiseSampler getSampler() {
+        return sampler;
+    }
+
     @Override
     public double noise(long seed, double x, double y) {
         return normalize(sampler.noise(seed, x, y));
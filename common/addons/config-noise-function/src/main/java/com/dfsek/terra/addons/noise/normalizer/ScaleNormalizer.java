@@ -15,4 +15,8 @@ public class ScaleNormalizer extends Normalizer {
     public double normalize(double in) {
         return in * scale;
     }
+
+    public double getScale() {
+        return scale;
+    }
 }
@@ -10,8 +10,19 @@ package com.dfsek.terra.addons.noise.paralithic.noise;
 import com.dfsek.paralithic.functions.dynamic.Context;
 
 
+/**
+ * Passes the seed of an evaluation down to noise functions called from an expression.
+ * <p>
+ * Contexts are mutable so that expression samplers can keep one per thread and reuse it, along with its
+ * invocation argument array, for every evaluation.
+ */
 public class SeedContext implements Context {
-    private final long seed;
+    private final double[] arguments = new double[3];
+    private long seed;
+
+    public SeedContext() {
+        this(0);
+    }
 
     public SeedContext(long seed) {
         this.seed = seed;
@@ -20,4 +31,15 @@ public class SeedContext implements Context {
     public long getSeed() {
         return seed;
     }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * @return The reusable x, y, z argument array of this context.
+     */
+    public double[] getArguments() {
+        return arguments;
+    }
 }
@@ -15,6 +15,22 @@ public class TranslateSampler implements NoiseSampler {
         this.dz = dz;
     }
 
+    public NoiseSampler getSampler() {
+        return sampler;
+    }
+
+    public double getDx() {
+        return dx;
+    }
+
+    public double getDy() {
+        return dy;
+    }
+
+    public double getDz() {
+        return dz;
+    }
+
     @Override
     public double noise(long seed, double x, double y) {
         return sampler.noise(seed, x - dx, y - dz);
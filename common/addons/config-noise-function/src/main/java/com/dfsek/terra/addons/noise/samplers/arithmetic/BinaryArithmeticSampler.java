@@ -38,6 +38,14 @@ public abstract class BinaryArithmeticSampler implements DerivativeNoiseSampler
         return operateDerivative(((DerivativeNoiseSampler)left).noised(seed, x, y, z), ((DerivativeNoiseSampler)right).noised(seed, x, y, z));
     }
 
+    public NoiseSampler getLeft() {
+        return left;
+    }
+
+    public NoiseSampler getRight() {
+        return right;
+    }
+
     public abstract double operate(double left, double right);
 
     public abstract double[] operateDerivative(double[] left, double[] right);
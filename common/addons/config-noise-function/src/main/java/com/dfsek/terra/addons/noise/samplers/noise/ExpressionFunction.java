@@ -24,6 +24,7 @@ import com.dfsek.terra.addons.noise.paralithic.noise.SeedContext;
  */
 public class ExpressionFunction extends NoiseFunction {
     private final Expression expression;
+    private final ThreadLocal<SeedContext> context = ThreadLocal.withInitial(SeedContext::new);
 
     public ExpressionFunction(Map<String, Function> functions, String eq, Map<String, Double> vars, ParseOptions parseOptions) throws ParseException {
         Parser p = new Parser(parseOptions);
@@ -41,13 +42,33 @@ public class ExpressionFunction extends NoiseFunction {
         frequency = 1;
     }
 
+    public Expression getExpression() {
+        return expression;
+    }
+
+    /**
+     * Prepares this thread's context for an evaluation. Each instance has its own context, so nested expression
+     * samplers never overwrite the seed or arguments of an evaluation in progress.
+     */
+    public SeedContext context(long seed, double x, double y, double z) {
+        SeedContext context = this.context.get();
+        context.setSeed(seed);
+        double[] arguments = context.getArguments();
+        arguments[0] = x;
+        arguments[1] = y;
+        arguments[2] = z;
+        return context;
+    }
+
     @Override
     public double getNoiseRaw(long seed, double x, double y) {
-        return expression.evaluate(new SeedContext(seed), x, 0, y);
+        SeedContext context = context(seed, x, 0, y);
+        return expression.evaluate(context, context.getArguments());
     }
 
     @Override
     public double getNoiseRaw(long seed, double x, double y, double z) {
-        return expression.evaluate(new SeedContext(seed), x, y, z);
+        SeedContext context = context(seed, x, y, z);
+        return expression.evaluate(context, context.getArguments());
     }
 }
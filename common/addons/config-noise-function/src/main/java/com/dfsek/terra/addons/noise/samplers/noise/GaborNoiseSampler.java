@@ -12,7 +12,10 @@ import com.dfsek.terra.api.util.MathUtil;
 
 
 public class GaborNoiseSampler extends NoiseFunction {
+    private static final int CELL_CACHE_BITS = 8;
+
     private final WhiteNoiseSampler rand;
+    private final ThreadLocal<Cell[]> cells = ThreadLocal.withInitial(() -> new Cell[1 << CELL_CACHE_BITS]);
     private double k = 1.0;
     private double a = 0.1;
     private double f0 = 0.625;
@@ -43,16 +46,46 @@ public class GaborNoiseSampler extends NoiseFunction {
         int yi = (int) Math.floor(y);
         double xf = x - xi;
         double yf = y - yi;
+        Cell[] cells = this.cells.get();
         double noise = 0;
         for(int dx = -1; dx <= 1; dx++) {
             for(int dz = -1; dz <= 1; dz++) {
-                noise += calculateCell(seed, xi + dx, yi + dz, xf - dx, yf - dz);
+                noise += calculateCell(cell(cells, seed, xi + dx, yi + dz), xf - dx, yf - dz);
             }
         }
         return noise;
     }
 
-    private double calculateCell(long seed, int xi, int yi, double x, double y) {
+    private double calculateCell(Cell cell, double x, double y) {
+        if(cell.impulses == 0) return 0;
+        x *= kernelRadius;
+        y *= kernelRadius;
+        double envelope = Math.exp(-Math.PI * (a * a) * (x * x + y * y));
+        double noise = 0;
+        for(int i = 0; i < cell.impulses; i++) {
+            noise += cell.weights[i] * (k * (envelope * MathUtil.cos(2 * Math.PI * f0 * (x * cell.cosines[i] + y * cell.sines[i]))));
+        }
+        return noise;
+    }
+
+    /**
+     * Looks up the impulses of a lattice cell in this thread's cache, generating them on a miss. Neighbouring samples
+     * share most of their 9 cells, so the random draws for a cell are usually only made once per chunk.
+     */
+    private Cell cell(Cell[] cells, long seed, int xi, int yi) {
+        int index = hash((int) (seed ^ (seed >>> 32)), xi * PRIME_X, yi * PRIME_Y) >>> (32 - CELL_CACHE_BITS);
+        Cell cell = cells[index];
+        if(cell == null) {
+            cell = new Cell();
+            cells[index] = cell;
+        } else if(cell.seed == seed && cell.x == xi && cell.y == yi) {
+            return cell;
+        }
+
+        cell.seed = seed;
+        cell.x = xi;
+        cell.y = yi;
+
         long mashedSeed = MathUtil.murmur64(31L * xi + yi) + seed;
 
         double gaussianSource = (rand.getNoiseRaw(mashedSeed++) + 1) / 2;
@@ -62,18 +95,15 @@ public class GaborNoiseSampler extends NoiseFunction {
             gaussianSource *= (rand.getNoiseRaw(mashedSeed++) + 1) / 2;
         }
 
-        double noise = 0;
+        cell.ensureCapacity(impulses);
+        cell.impulses = impulses;
         for(int i = 0; i < impulses; i++) {
-            noise += rand.getNoiseRaw(mashedSeed++) * gabor(isotropic ? (rand.getNoiseRaw(mashedSeed++) + 1) * Math.PI : omega0,
-                x * kernelRadius, y * kernelRadius);
+            cell.weights[i] = rand.getNoiseRaw(mashedSeed++);
+            double omega = isotropic ? (rand.getNoiseRaw(mashedSeed++) + 1) * Math.PI : omega0;
+            cell.cosines[i] = MathUtil.cos(omega);
+            cell.sines[i] = MathUtil.sin(omega);
         }
-        return noise;
-    }
-
-    private double gabor(double omega_0, double x, double y) {
-        return k * (Math.exp(-Math.PI * (a * a) * (x * x + y * y)) * MathUtil.cos(2 * Math.PI * f0 * (x * MathUtil.cos(omega_0) +
-                                                                                                      y * MathUtil.sin(
-                                                                                                          omega_0))));
+        return cell;
     }
 
     public void setA(double a) {
@@ -111,4 +141,24 @@ public class GaborNoiseSampler extends NoiseFunction {
     public double getNoiseRaw(long seed, double x, double y, double z) {
         return gaborNoise(seed, x, z);
     }
+
+
+    private static final class Cell {
+        private long seed;
+        private int x;
+        private int y;
+        private int impulses;
+        private double[] weights = new double[0];
+        private double[] cosines = new double[0];
+        private double[] sines = new double[0];
+
+        private void ensureCapacity(int impulses) {
+            if(weights.length < impulses) {
+                int capacity = Math.max(impulses, weights.length * 2);
+                weights = new double[capacity];
+                cosines = new double[capacity];
+                sines = new double[capacity];
+            }
+        }
+    }
 }
@@ -37,6 +37,10 @@ public abstract class NoiseFunction implements NoiseSampler {
         return hash;
     }
 
+    public long getSalt() {
+        return salt;
+    }
+
     public void setSalt(long salt) {
         this.salt = salt;
     }
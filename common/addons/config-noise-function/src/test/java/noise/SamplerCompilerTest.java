@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2020-2025 Polyhedral Development
+ *
+ * The Terra Core Addons are licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in this module's root directory.
+ */
+
+package noise;
+
+import com.dfsek.paralithic.eval.parser.Parser.ParseOptions;
+import com.dfsek.paralithic.eval.tokenizer.ParseException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import com.dfsek.terra.addons.noise.compiler.CompiledNoiseSampler;
+import com.dfsek.terra.addons.noise.compiler.SamplerCompiler;
+import com.dfsek.terra.addons.noise.normalizer.ClampNormalizer;
+import com.dfsek.terra.addons.noise.normalizer.ExpressionNormalizer;
+import com.dfsek.terra.addons.noise.normalizer.LinearMapNormalizer;
+import com.dfsek.terra.addons.noise.normalizer.LinearNormalizer;
+import com.dfsek.terra.addons.noise.normalizer.NormalNormalizer;
+import com.dfsek.terra.addons.noise.normalizer.PosterizationNormalizer;
+import com.dfsek.terra.addons.noise.normalizer.ProbabilityNormalizer;
+import com.dfsek.terra.addons.noise.normalizer.ScaleNormalizer;
+import com.dfsek.terra.addons.noise.samplers.DomainWarpedSampler;
+import com.dfsek.terra.addons.noise.samplers.TranslateSampler;
+import com.dfsek.terra.addons.noise.samplers.arithmetic.AdditionSampler;
+import com.dfsek.terra.addons.noise.samplers.arithmetic.DivisionSampler;
+import com.dfsek.terra.addons.noise.samplers.arithmetic.MaxSampler;
+import com.dfsek.terra.addons.noise.samplers.arithmetic.MinSampler;
+import com.dfsek.terra.addons.noise.samplers.arithmetic.MultiplicationSampler;
+import com.dfsek.terra.addons.noise.samplers.arithmetic.SubtractionSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.CellularSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.ConstantSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.ExpressionFunction;
+import com.dfsek.terra.addons.noise.samplers.noise.NoiseFunction;
+import com.dfsek.terra.addons.noise.samplers.noise.random.WhiteNoiseSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.simplex.OpenSimplex2Sampler;
+import com.dfsek.terra.addons.noise.samplers.noise.simplex.PerlinSampler;
+import com.dfsek.terra.addons.noise.samplers.noise.value.ValueSampler;
+import com.dfsek.terra.api.noise.NoiseSampler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Compiled samplers must produce exactly the same bits as the interpreted tree they were compiled from.
+ */
+public class SamplerCompilerTest {
+    private static final int POINTS = 4096;
+
+    private static <T extends NoiseFunction> T configure(T function, long salt, double frequency) {
+        function.setSalt(salt);
+        function.setFrequency(frequency);
+        return function;
+    }
+
+    private static NoiseSampler perlin() {
+        return configure(new PerlinSampler(), 17, 0.013);
+    }
+
+    private static NoiseSampler cellular() {
+        return configure(new CellularSampler(), -4, 0.05);
+    }
+
+    private static NoiseSampler white() {
+        return configure(new WhiteNoiseSampler(), 0, 1);
+    }
+
+    private static NoiseSampler expression(String equation) throws ParseException {
+        return new ExpressionFunction(Map.of(), equation, Map.of("a", 3.5), new ParseOptions());
+    }
+
+    /*
+     * A sampler the compiler doesn't know, which has to be called as an opaque leaf.
+     */
+    private static NoiseSampler opaque() {
+        return new NoiseSampler() {
+            @Override
+            public double noise(long seed, double x, double y) {
+                return Math.sin(x * 0.1 + seed) * y;
+            }
+
+            @Override
+            public double noise(long seed, double x, double y, double z) {
+                return Math.cos(y * 0.1 - seed) * x - z;
+            }
+        };
+    }
+
+    private static void assertCompiledIdentical(NoiseSampler interpreted) {
+        NoiseSampler compiled = SamplerCompiler.compile(interpreted);
+        assertInstanceOf(CompiledNoiseSampler.class, compiled);
+        assertIdentical(interpreted, compiled);
+    }
+
+    private static void assertIdentical(NoiseSampler interpreted, NoiseSampler compiled) {
+        Random random = new Random(2403);
+        for(int i = 0; i < POINTS; i++) {
+            long seed = random.nextLong();
+            // Mix small coordinates with large ones, where rounding differences would show up first
+            double scale = i % 2 == 0 ? 64 : 1 << 24;
+            double x = (random.nextDouble() - 0.5) * scale;
+            double y = (random.nextDouble() - 0.5) * scale;
+            double z = (random.nextDouble() - 0.5) * scale;
+
+            assertEquals(Double.doubleToRawLongBits(interpreted.noise(seed, x, z)), Double.doubleToRawLongBits(compiled.noise(seed, x, z)),
+                "2D mismatch at seed " + seed + ", " + x + ", " + z);
+            assertEquals(Double.doubleToRawLongBits(interpreted.noise(seed, x, y, z)),
+                Double.doubleToRawLongBits(compiled.noise(seed, x, y, z)),
+                "3D mismatch at seed " + seed + ", " + x + ", " + y + ", " + z);
+        }
+        assertTrue(SamplerCompiler.validate(interpreted, compiled, 0, POINTS));
+    }
+
+    @Test
+    public void arithmetic() {
+        List<NoiseSampler> trees = List.of(
+            new AdditionSampler(perlin(), cellular()),
+            new SubtractionSampler(perlin(), cellular()),
+            new MultiplicationSampler(perlin(), white()),
+            new DivisionSampler(perlin(), new AdditionSampler(white(), new ConstantSampler(2))),
+            new MaxSampler(perlin(), cellular()),
+            new MinSampler(perlin(), cellular())
+        );
+        for(NoiseSampler tree : trees) {
+            assertTrue(SamplerCompiler.isCompilable(tree));
+            assertCompiledIdentical(tree);
+        }
+    }
+
+    @Test
+    public void inlinedNormalizers() {
+        assertCompiledIdentical(new LinearNormalizer(perlin(), -0.7, 1.3));
+        assertCompiledIdentical(new ClampNormalizer(cellular(), -0.25, 0.5));
+        assertCompiledIdentical(new ScaleNormalizer(perlin(), 3.7));
+    }
+
+    @Test
+    public void otherNormalizers() throws ParseException {
+        assertCompiledIdentical(new PosterizationNormalizer(perlin(), 5));
+        assertCompiledIdentical(new LinearMapNormalizer(perlin(), -1, 1, 10, 20));
+        assertCompiledIdentical(new ProbabilityNormalizer(perlin()));
+        assertCompiledIdentical(new NormalNormalizer(perlin(), 64, 0, 0.5));
+        ParseOptions options = new ParseOptions();
+        String input = options.useLetExpressions() ? "input" : "in";
+        assertCompiledIdentical(new ExpressionNormalizer(perlin(), Map.of(), input + " * " + input + " - a", Map.of("a", 0.25), options));
+    }
+
+    @Test
+    public void translate() {
+        assertCompiledIdentical(new TranslateSampler(perlin(), 12.5, -3, 1e6));
+        assertCompiledIdentical(new TranslateSampler(new TranslateSampler(cellular(), 1, 2, 3), -0.1, 0.2, -0.3));
+        assertCompiledIdentical(new TranslateSampler(opaque(), 7, 8, 9));
+    }
+
+    @Test
+    public void leaves() throws ParseException {
+        assertCompiledIdentical(new AdditionSampler(configure(new ValueSampler(), 99, 0.2), configure(new OpenSimplex2Sampler(), 3, 1)));
+        assertCompiledIdentical(new AdditionSampler(new ConstantSampler(-1.5), opaque()));
+        assertCompiledIdentical(new AdditionSampler(new DomainWarpedSampler(perlin(), cellular(), 4), white()));
+        assertCompiledIdentical(expression("x * a + z - y"));
+        assertCompiledIdentical(new AdditionSampler(expression("x / 3"), expression("z * a")));
+    }
+
+    @Test
+    public void nested() throws ParseException {
+        NoiseSampler tree = new LinearNormalizer(
+            new ClampNormalizer(
+                new AdditionSampler(
+                    new MaxSampler(perlin(), white()),
+                    new TranslateSampler(new MultiplicationSampler(new ScaleNormalizer(opaque(), 3), new DivisionSampler(new ConstantSampler(2),
+                        cellular())), 5, 6, 7)),
+                -0.5, 0.5),
+            -1, 1);
+        NoiseSampler outer = new SubtractionSampler(tree, new MinSampler(expression("x * 0.01 + y - z * 0.02"), tree));
+        assertCompiledIdentical(outer);
+
+        // Compiled trees nested in other trees are unwrapped and compiled again as part of the outer tree
+        NoiseSampler compiled = SamplerCompiler.compile(outer);
+        NoiseSampler wrapping = new AdditionSampler(compiled, new ScaleNormalizer(compiled, -2));
+        assertCompiledIdentical(wrapping);
+        assertIdentical(new AdditionSampler(outer, new ScaleNormalizer(outer, -2)), SamplerCompiler.compile(wrapping));
+    }
+
+    @Test
+    public void differentiable() {
+        NoiseSampler simplex = configure(new OpenSimplex2Sampler(), 5, 0.01);
+        NoiseSampler differentiable = new AdditionSampler(simplex, new MultiplicationSampler(simplex, simplex));
+        // Left interpreted so callers can still compute derivatives
+        assertFalse(SamplerCompiler.isCompilable(simplex));
+        assertFalse(SamplerCompiler.isCompilable(differentiable));
+
+        // Compiling them anyway must still be exact, as must trees that merely contain them
+        assertCompiledIdentical(differentiable);
+        NoiseSampler mixed = new AdditionSampler(differentiable, cellular());
+        assertTrue(SamplerCompiler.isCompilable(mixed));
+        assertCompiledIdentical(mixed);
+    }
+
+    @Test
+    public void validationRejectsMismatch() {
+        NoiseSampler tree = new AdditionSampler(perlin(), cellular());
+        NoiseSampler other = SamplerCompiler.compile(new AdditionSampler(perlin(), new ScaleNormalizer(cellular(), 1 + 1e-15)));
+        assertFalse(SamplerCompiler.validate(tree, other, 0, POINTS));
+    }
+}
@@ -7,7 +7,7 @@
 
 package com.dfsek.terra.addons.ore.ores;
 
-import java.util.BitSet;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Random;
 
@@ -16,14 +16,16 @@ import com.dfsek.terra.api.block.state.BlockState;
 import com.dfsek.terra.api.structure.Structure;
 import com.dfsek.terra.api.util.MathUtil;
 import com.dfsek.terra.api.util.Rotation;
+import com.dfsek.terra.api.util.collection.MaterialBitSet;
 import com.dfsek.terra.api.util.collection.MaterialSet;
 import com.dfsek.terra.api.util.vector.Vector3Int;
 import com.dfsek.terra.api.world.WritableWorld;
 
-import static com.dfsek.terra.addons.ore.utils.VanillaOreUtils.shouldPlace;
+import static com.dfsek.terra.addons.ore.utils.VanillaOreUtils.shouldExpose;
 
 
 public class VanillaOre implements Structure {
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
 
     protected final BlockState material;
 
@@ -32,6 +34,8 @@ public class VanillaOre implements Structure {
     protected final boolean applyGravity;
     protected final double exposed;
     protected final Map<BlockType, BlockState> materials;
+    protected final MaterialBitSet replaceableTypes;
+    private final BlockState[] materialsById;
 
     public VanillaOre(BlockState material, double size, MaterialSet replaceable, boolean applyGravity,
                       double exposed, Map<BlockType, BlockState> materials) {
@@ -41,6 +45,22 @@ public class VanillaOre implements Structure {
         this.applyGravity = applyGravity;
         this.exposed = exposed;
         this.materials = materials;
+        this.replaceableTypes = MaterialBitSet.of(replaceable);
+        this.materialsById = indexMaterials(materials);
+    }
+
+    /**
+     * @return Replacement materials indexed by {@link BlockType#getId()}, or {@code null} if any key has no id.
+     */
+    private static BlockState[] indexMaterials(Map<BlockType, BlockState> materials) {
+        int max = -1;
+        for(BlockType type : materials.keySet()) {
+            if(type.getId() < 0) return null;
+            max = Math.max(max, type.getId());
+        }
+        BlockState[] byId = new BlockState[max + 1];
+        materials.forEach((type, state) -> byId[type.getId()] = state);
+        return byId;
     }
 
     @Override
@@ -76,11 +96,23 @@ public class VanillaOre implements Structure {
             points[i * 4 + 3] = radius;
         }
 
-        // Compare every point to every other point
+        // Compare every point to every other point that can be close enough to it.
+        // Points are spread evenly along a line whose horizontal length is fixed, so points further apart in the list
+        // than the largest radius difference can't contain one another, and are skipped without changing the result.
+        double maxRadius = Double.NEGATIVE_INFINITY;
+        double minRadius = Double.POSITIVE_INFINITY;
+        for(int i = 0; i < sizeInt; ++i) {
+            maxRadius = Math.max(maxRadius, points[i * 4 + 3]);
+            minRadius = Math.min(minRadius, points[i * 4 + 3]);
+        }
+        double step = Math.sqrt((endX - startX) * (endX - startX) + (endZ - startZ) * (endZ - startZ)) / sizeInt;
+        // Slightly underestimate the spacing so rounding in the interpolation can't exclude an overlapping pair
+        long window = step > 0 ? (long) ((maxRadius - minRadius) / (step * 0.99)) + 1 : sizeInt;
         for(int a = 0; a < sizeInt - 1; ++a) {
             double radiusA = points[a * 4 + 3];
             if(radiusA > 0.0) {
-                for(int b = a + 1; b < sizeInt; ++b) {
+                int last = (int) Math.min(sizeInt - 1, a + window);
+                for(int b = a + 1; b <= last; ++b) {
                     double radiusB = points[b * 4 + 3];
                     if(radiusB > 0.0) {
                         double dxt = points[a * 4] - points[b * 4];
@@ -110,8 +142,11 @@ public class VanillaOre implements Structure {
         int horizontalSize = (int) (2 * (Math.ceil(eighthSize) + outset));
         int verticalSize = 2 * (2 + outset);
 
+        int minHeight = world.getMinHeight();
+        int maxHeight = world.getMaxHeight();
+        Scratch scratch = SCRATCH.get().reset(world, x, y, z, horizontalSize, verticalSize);
+
         int blockCount = 0;
-        BitSet visited = new BitSet(horizontalSize * verticalSize * horizontalSize);
 
         // Generate a sphere at each point
         for(int i = 0; i < sizeInt; ++i) {
@@ -141,14 +176,15 @@ public class VanillaOre implements Structure {
                                     double dz = ((double) zi + 0.5 - zt) / radius;
 
                                     // If position is inside the sphere
-                                    if(dx * dx + dy * dy + dz * dz < 1.0 && !(yi < world.getMinHeight() || yi >= world.getMaxHeight())) {
+                                    if(dx * dx + dy * dy + dz * dz < 1.0 && !(yi < minHeight || yi >= maxHeight)) {
                                         int index = xi - x + (yi - y) * horizontalSize + (zi - z) * horizontalSize * verticalSize;
-                                        if(!visited.get(index)) { // Skip blocks that have already been visited
-
-                                            visited.set(index);
-                                            BlockType block = world.getBlockState(xi, yi, zi).getBlockType();
-                                            if(shouldPlace(getReplaceable(), block, exposed, random, world, xi, yi, zi)) {
-                                                world.setBlockState(xi, yi, zi, getMaterial(block), isApplyGravity());
+                                        if(scratch.visit(index)) { // Skip blocks that have already been visited
+                                            BlockType block = scratch.getBlockState(xi, yi, zi).getBlockType();
+                                            if(replaceableTypes.contains(block) &&
+                                               (shouldExpose(random, exposed) || !scratch.isAdjacentToAir(xi, yi, zi))) {
+                                                BlockState placed = getMaterial(block);
+                                                world.setBlockState(xi, yi, zi, placed, isApplyGravity());
+                                                scratch.setBlockState(xi, yi, zi, placed);
                                                 ++blockCount;
                                             }
                                         }
@@ -161,10 +197,16 @@ public class VanillaOre implements Structure {
             }
         }
 
+        scratch.release();
         return blockCount > 0;
     }
 
     public BlockState getMaterial(BlockType replace) {
+        int id = replace.getId();
+        if(materialsById != null && id >= 0) {
+            BlockState state = id < materialsById.length ? materialsById[id] : null;
+            return state == null ? material : state;
+        }
         return materials.getOrDefault(replace, material);
     }
 
@@ -175,4 +217,96 @@ public class VanillaOre implements Structure {
     public boolean isApplyGravity() {
         return applyGravity;
     }
+
+    /**
+     * Per-thread working memory of a vein: which positions have been visited, and every block state read or written
+     * inside the vein's bounds, so each block is fetched from the world at most once even though neighbour checks
+     * of adjacent blocks overlap. Entries are invalidated by bumping a stamp instead of clearing the arrays.
+     */
+    private static final class Scratch {
+        private WritableWorld world;
+        private int stamp = 0;
+        private int[] visited = new int[0];
+        private int[] cached = new int[0];
+        private BlockState[] states = new BlockState[0];
+        private int originX, originY, originZ;
+        private int width, height;
+
+        private Scratch reset(WritableWorld world, int x, int y, int z, int horizontalSize, int verticalSize) {
+            this.world = world;
+            // Neighbour checks reach one block past the vein bounds on each side
+            this.originX = x - 1;
+            this.originY = y - 1;
+            this.originZ = z - 1;
+            this.width = horizontalSize + 3;
+            this.height = verticalSize + 3;
+
+            // Visited indices use the vein's own layout, whose rows can run one block past the horizontal size
+            int visitedSize = (horizontalSize + 2) * (verticalSize + 2) * (horizontalSize + 2);
+            if(visited.length < visitedSize) visited = new int[visitedSize];
+            int cacheSize = width * height * width;
+            if(cached.length < cacheSize) {
+                cached = new int[cacheSize];
+                states = new BlockState[cacheSize];
+            }
+
+            if(++stamp == 0) {
+                Arrays.fill(visited, 0);
+                Arrays.fill(cached, 0);
+                stamp = 1;
+            }
+            return this;
+        }
+
+        /**
+         * @return Whether the index was not yet visited in this vein.
+         */
+        private boolean visit(int index) {
+            if(index >= visited.length) visited = Arrays.copyOf(visited, Math.max(index + 1, visited.length * 2));
+            if(visited[index] == stamp) return false;
+            visited[index] = stamp;
+            return true;
+        }
+
+        /**
+         * @return Index of a position in the block cache, or -1 if it lies outside the vein bounds.
+         */
+        private int index(int x, int y, int z) {
+            int dx = x - originX;
+            int dy = y - originY;
+            int dz = z - originZ;
+            if(dx < 0 || dy < 0 || dz < 0 || dx >= width || dy >= height || dz >= width) return -1;
+            return dx + dy * width + dz * width * height;
+        }
+
+        private BlockState getBlockState(int x, int y, int z) {
+            int index = index(x, y, z);
+            if(index < 0) return world.getBlockState(x, y, z);
+            if(cached[index] != stamp) {
+                states[index] = world.getBlockState(x, y, z);
+                cached[index] = stamp;
+            }
+            return states[index];
+        }
+
+        private void setBlockState(int x, int y, int z, BlockState state) {
+            int index = index(x, y, z);
+            if(index < 0) return;
+            states[index] = state;
+            cached[index] = stamp;
+        }
+
+        private void release() {
+            world = null;
+        }
+
+        private boolean isAdjacentToAir(int x, int y, int z) {
+            return getBlockState(x, y, z - 1).isAir() ||
+                   getBlockState(x, y, z + 1).isAir() ||
+                   getBlockState(x, y - 1, z).isAir() ||
+                   getBlockState(x, y + 1, z).isAir() ||
+                   getBlockState(x - 1, y, z).isAir() ||
+                   getBlockState(x + 1, y, z).isAir();
+        }
+    }
 }
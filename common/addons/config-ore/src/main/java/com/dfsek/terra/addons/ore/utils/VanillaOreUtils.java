@@ -3,18 +3,18 @@ package com.dfsek.terra.addons.ore.utils;
 import java.util.Random;
 
 import com.dfsek.terra.api.block.BlockType;
-import com.dfsek.terra.api.util.collection.MaterialSet;
+import com.dfsek.terra.api.util.collection.MaterialBitSet;
 import com.dfsek.terra.api.world.WritableWorld;
 
 
 public class VanillaOreUtils {
-    private static boolean shouldExpose(Random random, double exposedChance) {
+    public static boolean shouldExpose(Random random, double exposedChance) {
         if(exposedChance >= 1.0F) return true;
         if(exposedChance <= 0.0F) return false;
         return random.nextFloat() < exposedChance;
     }
 
-    public static boolean shouldPlace(MaterialSet replaceable, BlockType type, Double exposedChance, Random random, WritableWorld world,
+    public static boolean shouldPlace(MaterialBitSet replaceable, BlockType type, Double exposedChance, Random random, WritableWorld world,
                                       int x,
                                       int y, int z) {
         if(!replaceable.contains(type)) return false;
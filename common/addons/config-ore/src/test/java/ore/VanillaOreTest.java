@@ -0,0 +1,354 @@
+/*
+ * Copyright (c) 2020-2025 Polyhedral Development
+ *
+ * The Terra Core Addons are licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in this module's root directory.
+ */
+
+package ore;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import com.dfsek.terra.addons.ore.ores.VanillaOre;
+import com.dfsek.terra.api.block.BlockType;
+import com.dfsek.terra.api.block.state.BlockState;
+import com.dfsek.terra.api.block.state.properties.Property;
+import com.dfsek.terra.api.util.MathUtil;
+import com.dfsek.terra.api.util.Rotation;
+import com.dfsek.terra.api.util.collection.MaterialSet;
+import com.dfsek.terra.api.util.vector.Vector3Int;
+import com.dfsek.terra.api.world.WritableWorld;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+/**
+ * {@link VanillaOre} must place exactly what the original all-pairs, uncached algorithm placed for the same seed.
+ */
+public class VanillaOreTest {
+    private static final int MIN_HEIGHT = -64;
+    private static final int MAX_HEIGHT = 320;
+
+    private static final TestState AIR = new TestState("air", 0, true);
+    private static final TestState STONE = new TestState("stone", 1, false);
+    private static final TestState DEEPSLATE = new TestState("deepslate", 2, false);
+    private static final TestState DIRT = new TestState("dirt", 3, false);
+    private static final TestState MODDED = new TestState("modded", -1, false); // No numeric id
+    private static final TestState ORE = new TestState("ore", 4, false);
+    private static final TestState DEEPSLATE_ORE = new TestState("deepslate_ore", 5, false);
+    private static final TestState MODDED_ORE = new TestState("modded_ore", -1, false);
+
+    private static final TestState[] TERRAIN = { STONE, STONE, STONE, DEEPSLATE, DEEPSLATE, DIRT, AIR, MODDED };
+
+    private static MaterialSet replaceable() {
+        return MaterialSet.get(STONE.type, DEEPSLATE.type, MODDED.type);
+    }
+
+    private static Map<BlockType, BlockState> materials() {
+        return Map.of(DEEPSLATE.type, DEEPSLATE_ORE, MODDED.type, MODDED_ORE);
+    }
+
+    @Test
+    public void matchesAllPairsUncachedPlacement() {
+        Random veins = new Random(2025);
+        for(int vein = 0; vein < 3000; vein++) {
+            double size = 1 + veins.nextInt(70) + (veins.nextBoolean() ? 0 : veins.nextDouble());
+            double exposed = new double[]{ 0, 0.3, 0.7, 1 }[veins.nextInt(4)];
+            boolean gravity = veins.nextBoolean();
+            // Air veins change which later blocks count as exposed, so placed blocks must be read back correctly
+            BlockState material = veins.nextInt(8) == 0 ? AIR : ORE;
+            // Some veins reach past the bottom or top of the world
+            Vector3Int location = Vector3Int.of(veins.nextInt(2000) - 1000, MIN_HEIGHT + veins.nextInt(MAX_HEIGHT - MIN_HEIGHT),
+                veins.nextInt(2000) - 1000);
+            long terrainSeed = veins.nextLong();
+            long seed = veins.nextLong();
+
+            RecordingWorld expectedWorld = new RecordingWorld(terrainSeed);
+            Random expectedRandom = new Random(seed);
+            boolean expected = Baseline.generate(location, expectedWorld.world, expectedRandom, material, size, replaceable(), gravity,
+                exposed, materials());
+
+            RecordingWorld actualWorld = new RecordingWorld(terrainSeed);
+            Random actualRandom = new Random(seed);
+            boolean actual = new VanillaOre(material, size, replaceable(), gravity, exposed, materials())
+                .generate(location, actualWorld.world, actualRandom, Rotation.NONE);
+
+            String description = "vein " + vein + " of size " + size + " at " + location.getX() + ", " + location.getY() + ", " +
+                                 location.getZ();
+            assertEquals(expected, actual, description);
+            assertEquals(expectedWorld.writes, actualWorld.writes, description);
+            assertEquals(expectedRandom.nextLong(), actualRandom.nextLong(), description);
+        }
+    }
+
+
+    /*
+     * VanillaOre#generate as it was before reads were cached and the overlap pass was windowed.
+     */
+    private static final class Baseline {
+        private static boolean generate(Vector3Int location, WritableWorld world, Random random, BlockState material, double size,
+                                        MaterialSet replaceable, boolean applyGravity, double exposed,
+                                        Map<BlockType, BlockState> materials) {
+            float randomRadian = random.nextFloat() * (float) Math.PI;
+            double eighthSize = size / 8.0F;
+
+            double startX = (double) location.getX() + MathUtil.sin(randomRadian) * eighthSize;
+            double endX = (double) location.getX() - MathUtil.sin(randomRadian) * eighthSize;
+
+            double startZ = (double) location.getZ() + MathUtil.cos(randomRadian) * eighthSize;
+            double endZ = (double) location.getZ() - MathUtil.cos(randomRadian) * eighthSize;
+
+            double startY = location.getY() + random.nextInt(3) - 2;
+            double endY = location.getY() + random.nextInt(3) - 2;
+
+            int sizeInt = (int) size;
+            double[] points = new double[sizeInt * 4];
+
+            for(int i = 0; i < sizeInt; ++i) {
+                float t = (float) i / (float) sizeInt;
+                double xt = MathUtil.lerp(t, startX, endX);
+                double yt = MathUtil.lerp(t, startY, endY);
+                double zt = MathUtil.lerp(t, startZ, endZ);
+                double roll = random.nextDouble() * size / 16.0;
+                double radius = ((MathUtil.sin((float) Math.PI * t) + 1.0F) * roll + 1.0) / 2.0;
+                points[i * 4] = xt;
+                points[i * 4 + 1] = yt;
+                points[i * 4 + 2] = zt;
+                points[i * 4 + 3] = radius;
+            }
+
+            for(int a = 0; a < sizeInt - 1; ++a) {
+                double radiusA = points[a * 4 + 3];
+                if(radiusA > 0.0) {
+                    for(int b = a + 1; b < sizeInt; ++b) {
+                        double radiusB = points[b * 4 + 3];
+                        if(radiusB > 0.0) {
+                            double dxt = points[a * 4] - points[b * 4];
+                            double dyt = points[a * 4 + 1] - points[b * 4 + 1];
+                            double dzt = points[a * 4 + 2] - points[b * 4 + 2];
+                            double dRadius = radiusA - radiusB;
+
+                            if(dRadius * dRadius > dxt * dxt + dyt * dyt + dzt * dzt) {
+                                if(dRadius > 0.0) {
+                                    points[b * 4 + 3] = -1.0;
+                                } else {
+                                    points[a * 4 + 3] = -1.0;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+
+            int outset = (int) Math.ceil((size / 16.0F * 2.0F + 1.0F) / 2.0F);
+            int x = (int) (location.getX() - Math.ceil(eighthSize) - outset);
+            int y = location.getY() - 2 - outset;
+            int z = (int) (location.getZ() - Math.ceil(eighthSize) - outset);
+
+            int horizontalSize = (int) (2 * (Math.ceil(eighthSize) + outset));
+            int verticalSize = 2 * (2 + outset);
+
+            int blockCount = 0;
+            BitSet visited = new BitSet(horizontalSize * verticalSize * horizontalSize);
+
+            for(int i = 0; i < sizeInt; ++i) {
+                double radius = points[i * 4 + 3];
+                if(radius > 0.0) {
+                    double xt = points[i * 4];
+                    double yt = points[i * 4 + 1];
+                    double zt = points[i * 4 + 2];
+
+                    int xLowerBound = (int) Math.max(Math.floor(xt - radius), x);
+                    int xUpperBound = (int) Math.max(Math.floor(xt + radius), xLowerBound);
+
+                    int yLowerBound = (int) Math.max(Math.floor(yt - radius), y);
+                    int yUpperBound = (int) Math.max(Math.floor(yt + radius), yLowerBound);
+
+                    int zLowerBound = (int) Math.max(Math.floor(zt - radius), z);
+                    int zUpperBound = (int) Math.max(Math.floor(zt + radius), zLowerBound);
+
+                    for(int xi = xLowerBound; xi <= xUpperBound; ++xi) {
+                        double dx = ((double) xi + 0.5 - xt) / radius;
+                        if(dx * dx < 1.0) {
+                            for(int yi = yLowerBound; yi <= yUpperBound; ++yi) {
+                                double dy = ((double) yi + 0.5 - yt) / radius;
+                                if(dx * dx + dy * dy < 1.0) {
+                                    for(int zi = zLowerBound; zi <= zUpperBound; ++zi) {
+                                        double dz = ((double) zi + 0.5 - zt) / radius;
+
+                                        if(dx * dx + dy * dy + dz * dz < 1.0 &&
+                                           !(yi < world.getMinHeight() || yi >= world.getMaxHeight())) {
+                                            int index = xi - x + (yi - y) * horizontalSize + (zi - z) * horizontalSize * verticalSize;
+                                            if(!visited.get(index)) {
+                                                visited.set(index);
+                                                BlockType block = world.getBlockState(xi, yi, zi).getBlockType();
+                                                if(shouldPlace(replaceable, block, exposed, random, world, xi, yi, zi)) {
+                                                    world.setBlockState(xi, yi, zi, materials.getOrDefault(block, material), applyGravity);
+                                                    ++blockCount;
+                                                }
+                                            }
+                                        }
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+
+            return blockCount > 0;
+        }
+
+        private static boolean shouldPlace(MaterialSet replaceable, BlockType type, double exposedChance, Random random,
+                                           WritableWorld world, int x, int y, int z) {
+            if(!replaceable.contains(type)) return false;
+            if(shouldExpose(random, exposedChance)) return true;
+            boolean adjacentAir = world.getBlockState(x, y, z - 1).isAir() ||
+                                  world.getBlockState(x, y, z + 1).isAir() ||
+                                  world.getBlockState(x, y - 1, z).isAir() ||
+                                  world.getBlockState(x, y + 1, z).isAir() ||
+                                  world.getBlockState(x - 1, y, z).isAir() ||
+                                  world.getBlockState(x + 1, y, z).isAir();
+            return !adjacentAir;
+        }
+
+        private static boolean shouldExpose(Random random, double exposedChance) {
+            if(exposedChance >= 1.0F) return true;
+            if(exposedChance <= 0.0F) return false;
+            return random.nextFloat() < exposedChance;
+        }
+    }
+
+
+    /*
+     * World of pseudo-random terrain that records every block set in it, and reads back what was set.
+     */
+    private static final class RecordingWorld {
+        private final long seed;
+        private final Map<Position, BlockState> placed = new HashMap<>();
+        private final List<String> writes = new ArrayList<>();
+        private final WritableWorld world;
+
+        private RecordingWorld(long seed) {
+            this.seed = seed;
+            this.world = (WritableWorld) Proxy.newProxyInstance(WritableWorld.class.getClassLoader(), new Class<?>[]{ WritableWorld.class },
+                (proxy, method, args) -> switch(method.getName()) {
+                    case "getMinHeight" -> MIN_HEIGHT;
+                    case "getMaxHeight" -> MAX_HEIGHT;
+                    case "getBlockState" -> {
+                        if(args.length != 3) throw new UnsupportedOperationException("getBlockState by vector");
+                        yield getBlockState((int) args[0], (int) args[1], (int) args[2]);
+                    }
+                    case "setBlockState" -> {
+                        if(args.length != 5) throw new UnsupportedOperationException("setBlockState by vector");
+                        setBlockState((int) args[0], (int) args[1], (int) args[2], (BlockState) args[3], (boolean) args[4]);
+                        yield null;
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        }
+
+        private BlockState getBlockState(int x, int y, int z) {
+            BlockState state = placed.get(new Position(x, y, z));
+            if(state != null) return state;
+            long hash = seed ^ (x * 0x9E3779B97F4A7C15L) ^ (y * 0xC2B2AE3D27D4EB4FL) ^ (z * 0x165667B19E3779F9L);
+            hash = (hash ^ (hash >>> 29)) * 0xBF58476D1CE4E5B9L;
+            return TERRAIN[(int) ((hash ^ (hash >>> 32)) & 0x7FFFFFFF) % TERRAIN.length];
+        }
+
+        private void setBlockState(int x, int y, int z, BlockState state, boolean physics) {
+            placed.put(new Position(x, y, z), state);
+            writes.add(x + "," + y + "," + z + "=" + state.getAsString() + (physics ? " with physics" : ""));
+        }
+    }
+
+
+    private record Position(int x, int y, int z) {
+    }
+
+
+    private static final class TestState implements BlockState {
+        private final String id;
+        private final boolean air;
+        private final BlockType type;
+
+        private TestState(String id, int numericId, boolean air) {
+            this.id = id;
+            this.air = air;
+            this.type = new BlockType() {
+                @Override
+                public BlockState getDefaultState() {
+                    return TestState.this;
+                }
+
+                @Override
+                public boolean isSolid() {
+                    return !air;
+                }
+
+                @Override
+                public boolean isWater() {
+                    return false;
+                }
+
+                @Override
+                public int getId() {
+                    return numericId;
+                }
+
+                @Override
+                public Object getHandle() {
+                    return this;
+                }
+            };
+        }
+
+        @Override
+        public boolean matches(BlockState other) {
+            return other == this;
+        }
+
+        @Override
+        public <T extends Comparable<T>> boolean has(Property<T> property) {
+            return false;
+        }
+
+        @Override
+        public <T extends Comparable<T>> T get(Property<T> property) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T extends Comparable<T>> BlockState set(Property<T> property, T value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public BlockType getBlockType() {
+            return type;
+        }
+
+        @Override
+        public String getAsString(boolean properties) {
+            return id;
+        }
+
+        @Override
+        public boolean isAir() {
+            return air;
+        }
+
+        @Override
+        public Object getHandle() {
+            return this;
+        }
+    }
+}
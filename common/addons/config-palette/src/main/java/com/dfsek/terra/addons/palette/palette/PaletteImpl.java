@@ -46,13 +46,16 @@ public class PaletteImpl implements Palette {
     static class PaletteLayer {
         private final NoiseSampler sampler;
         private final ProbabilityCollection<BlockState> collection;
+        private final BlockState constant; // Set when every sample would pick the same block
 
         public PaletteLayer(ProbabilityCollection<BlockState> type, NoiseSampler sampler) {
             this.sampler = sampler;
             this.collection = type;
+            this.constant = type.size() == 1 ? type.iterator().next() : null;
         }
 
         public BlockState get(double x, double y, double z, long seed) {
+            if(constant != null) return constant;
             return this.collection.get(sampler, x, y, z, seed);
         }
     }
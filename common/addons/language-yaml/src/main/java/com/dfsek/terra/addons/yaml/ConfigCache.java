@@ -0,0 +1,337 @@
+/*
+ * Copyright (c) 2020-2025 Polyhedral Development
+ *
+ * The Terra Core Addons are licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in this module's root directory.
+ */
+
+package com.dfsek.terra.addons.yaml;
+
+import com.dfsek.tectonic.api.config.Configuration;
+import com.dfsek.tectonic.impl.MapConfiguration;
+import com.dfsek.tectonic.yaml.YamlConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * Parsed configuration trees of one pack, stored on disk in a compact binary form so unchanged files don't have to be
+ * parsed again on the next start. Entries are keyed by file name and only used while the SHA-256 of the file matches.
+ * <p>
+ * Trees are taken from the {@link YamlConfiguration} an uncached load would use, so a cached file configures exactly
+ * what the file itself would.
+ */
+public class ConfigCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConfigCache.class);
+
+    private static final int MAGIC = 0x54434647; // TCFG
+    private static final int FORMAT_VERSION = 1;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte BOOLEAN = 2;
+    private static final byte INTEGER = 3;
+    private static final byte LONG = 4;
+    private static final byte DOUBLE = 5;
+    private static final byte BIG_INTEGER = 6;
+    private static final byte BYTES = 7;
+    private static final byte LIST = 8;
+    private static final byte SET = 9;
+    private static final byte MAP = 10;
+
+    private final Path file;
+    private final Map<String, Entry> stored;
+    private final Map<String, Entry> current = new LinkedHashMap<>();
+    private int hits;
+
+    private ConfigCache(Path file, Map<String, Entry> stored) {
+        this.file = file;
+        this.stored = stored;
+    }
+
+    /**
+     * Open the cache stored in a file. A missing, outdated or unreadable file gives an empty cache.
+     */
+    public static ConfigCache open(Path file) {
+        Map<String, Entry> stored = new LinkedHashMap<>();
+        try(DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if(in.readInt() == MAGIC && in.readInt() == FORMAT_VERSION) {
+                int count = in.readInt();
+                for(int i = 0; i < count; i++) {
+                    String name = readString(in);
+                    byte[] hash = readBytes(in);
+                    byte[] data = readBytes(in);
+                    stored.put(name, new Entry(hash, data));
+                }
+            } else {
+                LOGGER.info("Config cache {} is from a different version, it will be rebuilt.", file);
+            }
+        } catch(NoSuchFileException e) {
+            LOGGER.debug("No config cache at {}", file);
+        } catch(IOException | RuntimeException e) {
+            LOGGER.warn("Config cache {} is unreadable, it will be rebuilt.", file, e);
+            stored.clear();
+        }
+        return new ConfigCache(file, stored);
+    }
+
+    public static byte[] hash(byte[] contents) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(contents);
+        } catch(NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Parse a file the same way as when the cache is off.
+     */
+    public static Configuration parse(String name, byte[] contents) {
+        return new YamlConfiguration(new ByteArrayInputStream(contents), name);
+    }
+
+    /**
+     * @return Configuration of a file, decoded from the cache if the file is unchanged and parsed otherwise.
+     */
+    public Configuration load(String name, byte[] contents) {
+        byte[] hash = hash(contents);
+        Map<String, Object> cached = get(name, hash);
+        if(cached != null) {
+            hits++;
+            return new MapConfiguration(cached, name);
+        }
+        Configuration configuration = parse(name, contents);
+        Map<String, Object> tree = tree(configuration, contents);
+        if(tree != null) put(name, hash, tree);
+        return configuration;
+    }
+
+    /**
+     * @return Number of files {@link #load(String, byte[])} decoded from the cache.
+     */
+    public int getHits() {
+        return hits;
+    }
+
+    /*
+     * Read the tree back out of the parsed configuration. Configurations can't list their keys, so the top level keys
+     * come from a second, plain parse. Files with keys that can't be read back unambiguously are left uncached.
+     */
+    private static Map<String, Object> tree(Configuration configuration, byte[] contents) {
+        Object parsed;
+        try {
+            parsed = new Yaml().load(new ByteArrayInputStream(contents));
+        } catch(RuntimeException e) {
+            return null;
+        }
+        if(!(parsed instanceof Map<?, ?> map)) return null;
+        Map<String, Object> tree = new LinkedHashMap<>();
+        for(Object key : map.keySet()) {
+            // Dots separate path segments in configuration lookups
+            if(!(key instanceof String string) || string.contains(".") || !configuration.contains(string)) return null;
+            tree.put(string, configuration.get(string));
+        }
+        return tree;
+    }
+
+    /**
+     * @return The cached tree of a file, or {@code null} if it isn't cached or has changed since.
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> get(String name, byte[] hash) {
+        Entry entry = stored.get(name);
+        if(entry == null || !Arrays.equals(entry.hash(), hash)) return null;
+        try(DataInputStream in = new DataInputStream(new ByteArrayInputStream(entry.data()))) {
+            Object tree = read(in);
+            current.put(name, entry);
+            return (Map<String, Object>) tree;
+        } catch(IOException | RuntimeException e) {
+            LOGGER.warn("Cached config {} is corrupt, it will be parsed again.", name, e);
+            return null;
+        }
+    }
+
+    /**
+     * Cache the tree of a file. Trees holding values the cache can't represent are skipped, and parsed every time.
+     */
+    public void put(String name, byte[] hash, Map<String, Object> tree) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try(DataOutputStream out = new DataOutputStream(bytes)) {
+            write(out, tree);
+        } catch(IOException | IllegalArgumentException e) {
+            LOGGER.debug("Not caching config {}: {}", name, e.getMessage());
+            return;
+        }
+        current.put(name, new Entry(hash, bytes.toByteArray()));
+    }
+
+    /**
+     * Write the cache back to disk if anything was added or removed since it was opened.
+     */
+    public void save() {
+        if(current.keySet().equals(stored.keySet()) &&
+           current.entrySet().stream().allMatch(entry -> stored.get(entry.getKey()) == entry.getValue())) return;
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try {
+                try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(FORMAT_VERSION);
+                    out.writeInt(current.size());
+                    for(Map.Entry<String, Entry> entry : current.entrySet()) {
+                        writeString(out, entry.getKey());
+                        out.writeInt(entry.getValue().hash().length);
+                        out.write(entry.getValue().hash());
+                        out.writeInt(entry.getValue().data().length);
+                        out.write(entry.getValue().data());
+                    }
+                }
+                try {
+                    Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch(AtomicMoveNotSupportedException e) {
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            LOGGER.debug("Saved {} configs to cache {}", current.size(), file);
+        } catch(IOException e) {
+            LOGGER.warn("Failed to save config cache {}", file, e);
+        }
+    }
+
+    private static void write(DataOutputStream out, Object value) throws IOException {
+        switch(value) {
+            case null -> out.writeByte(NULL);
+            case String string -> {
+                out.writeByte(STRING);
+                writeString(out, string);
+            }
+            case Boolean bool -> {
+                out.writeByte(BOOLEAN);
+                out.writeBoolean(bool);
+            }
+            case Integer integer -> {
+                out.writeByte(INTEGER);
+                out.writeInt(integer);
+            }
+            case Long number -> {
+                out.writeByte(LONG);
+                out.writeLong(number);
+            }
+            case Double number -> {
+                out.writeByte(DOUBLE);
+                out.writeDouble(number);
+            }
+            case BigInteger number -> {
+                out.writeByte(BIG_INTEGER);
+                writeString(out, number.toString());
+            }
+            case byte[] bytes -> {
+                out.writeByte(BYTES);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            case List<?> list -> {
+                out.writeByte(LIST);
+                out.writeInt(list.size());
+                for(Object element : list) write(out, element);
+            }
+            case Set<?> set -> {
+                out.writeByte(SET);
+                out.writeInt(set.size());
+                for(Object element : set) write(out, element);
+            }
+            case Map<?, ?> map -> {
+                out.writeByte(MAP);
+                out.writeInt(map.size());
+                for(Map.Entry<?, ?> entry : map.entrySet()) {
+                    write(out, entry.getKey());
+                    write(out, entry.getValue());
+                }
+            }
+            default -> throw new IllegalArgumentException("Unsupported value type " + value.getClass().getCanonicalName());
+        }
+    }
+
+    private static Object read(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        return switch(type) {
+            case NULL -> null;
+            case STRING -> readString(in);
+            case BOOLEAN -> in.readBoolean();
+            case INTEGER -> in.readInt();
+            case LONG -> in.readLong();
+            case DOUBLE -> in.readDouble();
+            case BIG_INTEGER -> new BigInteger(readString(in));
+            case BYTES -> readBytes(in);
+            case LIST -> {
+                int size = in.readInt();
+                List<Object> list = new ArrayList<>(size);
+                for(int i = 0; i < size; i++) list.add(read(in));
+                yield list;
+            }
+            case SET -> {
+                int size = in.readInt();
+                Set<Object> set = new LinkedHashSet<>();
+                for(int i = 0; i < size; i++) set.add(read(in));
+                yield set;
+            }
+            case MAP -> {
+                int size = in.readInt();
+                Map<Object, Object> map = new LinkedHashMap<>();
+                for(int i = 0; i < size; i++) map.put(read(in), read(in));
+                yield map;
+            }
+            default -> throw new IOException("Unknown value type " + type);
+        };
+    }
+
+    // Strings are length-prefixed UTF-8 rather than modified UTF-8, which can't hold strings over 64KiB
+    private static void writeString(DataOutputStream out, String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return new String(readBytes(in), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if(length < 0) throw new IOException("Negative length " + length);
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private record Entry(byte[] hash, byte[] data) {
+    }
+}
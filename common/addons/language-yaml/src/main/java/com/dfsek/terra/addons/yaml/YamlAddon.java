@@ -7,10 +7,16 @@
 
 package com.dfsek.terra.addons.yaml;
 
+import com.dfsek.tectonic.api.config.Configuration;
 import com.dfsek.tectonic.yaml.YamlConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import com.dfsek.terra.addons.manifest.api.AddonInitializer;
 import com.dfsek.terra.api.Platform;
 import com.dfsek.terra.api.addon.BaseAddon;
@@ -33,10 +39,57 @@ public class YamlAddon implements AddonInitializer {
         platform.getEventManager()
             .getHandler(FunctionalEventHandler.class)
             .register(addon, ConfigurationDiscoveryEvent.class)
-            .then(event -> event.getLoader().open("", ".yml").thenEntries(entries -> entries.forEach(entry -> {
-                LOGGER.debug("Discovered config {}", entry.getKey());
-                event.register(entry.getKey(), new YamlConfiguration(entry.getValue(), entry.getKey()));
-            })).close())
+            .then(event -> {
+                if(platform.getTerraConfig().isConfigCache()) {
+                    discoverCached(event);
+                    return;
+                }
+                event.getLoader().open("", ".yml").thenEntries(entries -> entries.forEach(entry -> {
+                    LOGGER.debug("Discovered config {}", entry.getKey());
+                    event.register(entry.getKey(), new YamlConfiguration(entry.getValue(), entry.getKey()));
+                })).close();
+            })
             .failThrough();
     }
+
+    /*
+     * Reuses parsed trees from packs/<id>.terracache for files that haven't changed since the last load. The pack ID
+     * isn't known until pack.yml is parsed, so the manifest itself is always parsed.
+     */
+    private void discoverCached(ConfigurationDiscoveryEvent event) {
+        Map<String, byte[]> files = new LinkedHashMap<>();
+        event.getLoader().open("", ".yml").thenEntries(entries -> entries.forEach(entry -> {
+            try {
+                files.put(entry.getKey(), entry.getValue().readAllBytes());
+            } catch(IOException e) {
+                throw new UncheckedIOException("Failed to read config " + entry.getKey(), e);
+            }
+        })).close();
+
+        ConfigCache cache = null;
+        Configuration manifest = files.containsKey("pack.yml") ? ConfigCache.parse("pack.yml", files.get("pack.yml")) : null;
+        if(manifest != null && manifest.contains("id") && manifest.get("id") instanceof String id) {
+            cache = ConfigCache.open(platform.getDataFolder().toPath().resolve("packs").resolve(id.replace(':', '_') + ".terracache"));
+        } else {
+            LOGGER.warn("Pack has no ID in pack.yml, configs will not be cached.");
+        }
+
+        for(Map.Entry<String, byte[]> entry : files.entrySet()) {
+            LOGGER.debug("Discovered config {}", entry.getKey());
+            Configuration configuration;
+            if(entry.getKey().equals("pack.yml")) {
+                configuration = manifest;
+            } else if(cache == null) {
+                configuration = ConfigCache.parse(entry.getKey(), entry.getValue());
+            } else {
+                configuration = cache.load(entry.getKey(), entry.getValue());
+            }
+            event.register(entry.getKey(), configuration);
+        }
+
+        if(cache != null) {
+            LOGGER.info("Loaded {} of {} configs from cache.", cache.getHits(), files.size() - 1);
+            cache.save();
+        }
+    }
 }
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2020-2025 Polyhedral Development
+ *
+ * The Terra Core Addons are licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in this module's root directory.
+ */
+
+package yaml;
+
+import com.dfsek.tectonic.api.config.Configuration;
+import org.junit.jupiter.api.Test;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.dfsek.terra.addons.yaml.ConfigCache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+public class ConfigCacheTest {
+    private static final List<String> PACK = List.of("pack.yml", "biomes/plains.yml", "biomes/types.yml", "uncacheable.yml");
+    private static final List<String> PATHS = List.of("terrain.sampler.type", "terrain.sampler.samplers.noise.salt",
+        "terrain.sampler-2d.frequency", "terrain.sampler-2d.salt", "carving.update", "nested");
+
+    private static Map<String, byte[]> pack() {
+        Map<String, byte[]> files = new LinkedHashMap<>();
+        for(String name : PACK) {
+            try(InputStream in = ConfigCacheTest.class.getResourceAsStream("/pack/" + name)) {
+                files.put(name, in.readAllBytes());
+            } catch(IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return files;
+    }
+
+    /*
+     * Compares every top level key and a few nested paths of the configurations, down to the types of the values.
+     */
+    private static void assertSameConfiguration(byte[] contents, Configuration expected, Configuration actual) {
+        assertEquals(expected.getName(), actual.getName());
+        Map<?, ?> parsed = new Yaml().load(new ByteArrayInputStream(contents));
+        for(Object key : parsed.keySet()) {
+            String path = String.valueOf(key);
+            assertEquals(expected.contains(path), actual.contains(path), path);
+            if(expected.contains(path)) assertTreeEquals(expected.get(path), actual.get(path), path);
+        }
+        for(String path : PATHS) {
+            assertEquals(expected.contains(path), actual.contains(path), path);
+            if(expected.contains(path)) assertTreeEquals(expected.get(path), actual.get(path), path);
+        }
+    }
+
+    private static void assertTreeEquals(Object expected, Object actual, String path) {
+        if(expected == null) {
+            assertNull(actual, path);
+        } else if(expected instanceof Map<?, ?> map) {
+            assertTrue(actual instanceof Map<?, ?>, path);
+            Map<?, ?> other = (Map<?, ?>) actual;
+            assertEquals(new ArrayList<>(map.keySet()), new ArrayList<>(other.keySet()), path);
+            map.forEach((key, value) -> assertTreeEquals(value, other.get(key), path + "." + key));
+        } else if(expected instanceof List<?> list) {
+            assertTrue(actual instanceof List<?>, path);
+            List<?> other = (List<?>) actual;
+            assertEquals(list.size(), other.size(), path);
+            for(int i = 0; i < list.size(); i++) assertTreeEquals(list.get(i), other.get(i), path + "[" + i + "]");
+        } else if(expected instanceof Set<?> set) {
+            assertTrue(actual instanceof Set<?>, path);
+            assertEquals(new ArrayList<>(set), new ArrayList<>((Set<?>) actual), path);
+        } else if(expected instanceof byte[] bytes) {
+            assertArrayEquals(bytes, (byte[]) actual, path);
+        } else {
+            assertEquals(expected.getClass(), actual.getClass(), path);
+            if(expected instanceof Double number) {
+                assertEquals(Double.doubleToRawLongBits(number), Double.doubleToRawLongBits((Double) actual), path);
+            } else {
+                assertEquals(expected, actual, path);
+            }
+        }
+    }
+
+    @Test
+    public void cachedPackMatchesUncached() throws IOException {
+        Path file = Files.createTempDirectory("terra-config-cache").resolve("CACHE_TEST.terracache");
+        Map<String, byte[]> files = pack();
+
+        // Cold cache, every file is parsed
+        ConfigCache cache = ConfigCache.open(file);
+        for(Map.Entry<String, byte[]> entry : files.entrySet()) {
+            Configuration uncached = ConfigCache.parse(entry.getKey(), entry.getValue());
+            assertSameConfiguration(entry.getValue(), uncached, cache.load(entry.getKey(), entry.getValue()));
+        }
+        assertEquals(0, cache.getHits());
+        cache.save();
+
+        // Warm cache, files are decoded unless they can't be cached
+        cache = ConfigCache.open(file);
+        for(Map.Entry<String, byte[]> entry : files.entrySet()) {
+            Configuration uncached = ConfigCache.parse(entry.getKey(), entry.getValue());
+            assertSameConfiguration(entry.getValue(), uncached, cache.load(entry.getKey(), entry.getValue()));
+        }
+        assertEquals(3, cache.getHits());
+        cache.save();
+
+        // Changed files are parsed again
+        byte[] changed = (new String(files.get("biomes/plains.yml"), StandardCharsets.UTF_8) + "extra: 1\n").getBytes(
+            StandardCharsets.UTF_8);
+        cache = ConfigCache.open(file);
+        assertSameConfiguration(changed, ConfigCache.parse("biomes/plains.yml", changed), cache.load("biomes/plains.yml", changed));
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    public void roundTrip() throws IOException {
+        Path file = Files.createTempDirectory("terra-config-cache").resolve("ROUND_TRIP.terracache");
+
+        Map<String, Object> nested = new LinkedHashMap<>();
+        nested.put("null", null);
+        nested.put("list", List.of(1, 2L, List.of(), List.of("a", "b")));
+        Set<Object> set = new LinkedHashSet<>(List.of("z", "a", "m"));
+
+        Map<String, Object> tree = new LinkedHashMap<>();
+        tree.put("string", "text ✓ \u0000 😀");
+        tree.put("long-string", "x".repeat(70000));
+        tree.put("empty", "");
+        tree.put("true", true);
+        tree.put("false", false);
+        tree.put("int", Integer.MIN_VALUE);
+        tree.put("long", Long.MAX_VALUE);
+        tree.put("double", 0.1);
+        tree.put("negative-zero", -0.0);
+        tree.put("nan", Double.NaN);
+        tree.put("infinity", Double.NEGATIVE_INFINITY);
+        tree.put("big-integer", new BigInteger("-123456789012345678901234567890"));
+        tree.put("bytes", new byte[]{ 0, -1, 127, -128 });
+        tree.put("set", set);
+        tree.put("nested", nested);
+        tree.put("map-list", List.of(Map.of("a", 1), new LinkedHashMap<>()));
+
+        byte[] hash = ConfigCache.hash("contents".getBytes(StandardCharsets.UTF_8));
+        ConfigCache cache = ConfigCache.open(file);
+        cache.put("tree.yml", hash, tree);
+        cache.save();
+
+        ConfigCache reopened = ConfigCache.open(file);
+        Map<String, Object> decoded = reopened.get("tree.yml", hash);
+        assertNotNull(decoded);
+        assertTreeEquals(tree, decoded, "");
+
+        // Entries are only valid for the contents they were cached from
+        assertNull(reopened.get("tree.yml", ConfigCache.hash("other".getBytes(StandardCharsets.UTF_8))));
+        assertNull(reopened.get("missing.yml", hash));
+    }
+
+    @Test
+    public void unreadableCacheIsEmpty() throws IOException {
+        Path file = Files.createTempDirectory("terra-config-cache").resolve("BROKEN.terracache");
+        byte[] hash = ConfigCache.hash(new byte[0]);
+
+        ConfigCache cache = ConfigCache.open(file);
+        cache.put("a.yml", hash, Map.of("key", "value"));
+        cache.save();
+        byte[] valid = Files.readAllBytes(file);
+
+        // Truncated
+        Files.write(file, Arrays.copyOf(valid, valid.length - 3));
+        assertNull(ConfigCache.open(file).get("a.yml", hash));
+
+        // Another format
+        byte[] other = valid.clone();
+        other[7]++;
+        Files.write(file, other);
+        assertNull(ConfigCache.open(file).get("a.yml", hash));
+
+        // Garbage
+        Files.write(file, "not a cache".getBytes(StandardCharsets.UTF_8));
+        assertNull(ConfigCache.open(file).get("a.yml", hash));
+    }
+
+    @Test
+    public void unsupportedValuesAreNotCached() throws IOException {
+        Path file = Files.createTempDirectory("terra-config-cache").resolve("UNSUPPORTED.terracache");
+        byte[] hash = ConfigCache.hash(new byte[0]);
+
+        ConfigCache cache = ConfigCache.open(file);
+        cache.put("date.yml", hash, Map.of("date", new Date(0)));
+        cache.put("ok.yml", hash, Map.of("key", "value"));
+        cache.save();
+
+        ConfigCache reopened = ConfigCache.open(file);
+        assertNull(reopened.get("date.yml", hash));
+        Iterator<Map.Entry<String, Object>> entries = reopened.get("ok.yml", hash).entrySet().iterator();
+        assertEquals(Map.entry("key", "value"), entries.next());
+    }
+}
@@ -2,6 +2,7 @@ package com.dfsek.terra.addons.image;
 
 import com.dfsek.tectonic.api.config.template.object.ObjectTemplate;
 
+import java.nio.file.Path;
 import java.util.function.Supplier;
 
 import com.dfsek.terra.addons.image.colorsampler.ColorSampler;
@@ -14,7 +15,9 @@ import com.dfsek.terra.addons.image.config.colorsampler.image.TileImageColorSamp
 import com.dfsek.terra.addons.image.config.colorsampler.mutate.RotateColorSamplerTemplate;
 import com.dfsek.terra.addons.image.config.colorsampler.mutate.TranslateColorSamplerTemplate;
 import com.dfsek.terra.addons.image.config.image.ImageTemplate;
+import com.dfsek.terra.addons.image.config.image.MappedImageTemplate;
 import com.dfsek.terra.addons.image.config.image.StitchedImageTemplate;
+import com.dfsek.terra.addons.image.config.image.StitchedMappedImageTemplate;
 import com.dfsek.terra.addons.image.config.noisesampler.ChannelNoiseSamplerTemplate;
 import com.dfsek.terra.addons.image.config.noisesampler.DistanceTransformNoiseSamplerTemplate;
 import com.dfsek.terra.addons.image.image.Image;
@@ -62,6 +65,11 @@ public class ImageLibraryAddon implements AddonInitializer {
                 CheckedRegistry<Supplier<ObjectTemplate<Image>>> imageRegistry = pack.getOrCreateRegistry(IMAGE_REGISTRY_KEY);
                 imageRegistry.register(addon.key("BITMAP"), () -> new ImageTemplate(pack.getLoader(), pack));
                 imageRegistry.register(addon.key("STITCHED_BITMAP"), () -> new StitchedImageTemplate(pack.getLoader(), pack));
+
+                Path rasterCache = platform.getDataFolder().toPath().resolve("cache").resolve("images");
+                imageRegistry.register(addon.key("MAPPED_BITMAP"), () -> new MappedImageTemplate(pack.getLoader(), pack, rasterCache));
+                imageRegistry.register(addon.key("STITCHED_MAPPED_BITMAP"),
+                    () -> new StitchedMappedImageTemplate(pack.getLoader(), pack, rasterCache));
             })
             .then(event -> {
                 event.getPack()
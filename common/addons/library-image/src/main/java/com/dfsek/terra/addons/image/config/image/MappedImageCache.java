@@ -0,0 +1,236 @@
+package com.dfsek.terra.addons.image.config.image;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.dfsek.terra.addons.image.image.MappedImage;
+import com.dfsek.terra.api.config.ConfigPack;
+import com.dfsek.terra.api.config.Loader;
+import com.dfsek.terra.api.properties.Properties;
+
+
+/*
+ * Converts grids of source images into tiled rasters on disk once, and reuses the raster on later loads for as long
+ * as the source images are unchanged.
+ */
+record MappedImageCache(Path folder, Map<String, MappedImage> images) implements Properties {
+    private static final Logger logger = LoggerFactory.getLogger(MappedImageCache.class);
+
+    /*
+     * Upper bound on the number of pixels decoded at once while converting, large images are read in horizontal strips.
+     */
+    private static final int STRIP_PIXELS = 1 << 24;
+
+    public static MappedImage load(String[][] paths, ConfigPack pack, Loader files, Path cacheFolder) throws IOException {
+        MappedImageCache cache;
+        if(!pack.getContext().has(MappedImageCache.class)) {
+            cache = new MappedImageCache(cacheFolder.resolve(pack.getID()), new ConcurrentHashMap<>());
+            pack.getContext().put(cache);
+        } else cache = pack.getContext().get(MappedImageCache.class);
+
+        String key = Arrays.deepToString(paths);
+        try {
+            return cache.images.computeIfAbsent(key, k -> {
+                try {
+                    return cache.loadImage(paths, files);
+                } catch(IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch(UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private MappedImage loadImage(String[][] paths, Loader files) throws IOException {
+        byte[] digest = hash(paths, files);
+        long hash = ByteBuffer.wrap(digest).getLong();
+        Path file = folder.resolve(HexFormat.of().formatHex(digest, 0, 16) + ".raster");
+
+        if(Files.exists(file)) {
+            MappedImage image = MappedImage.open(file, hash);
+            if(image != null) return image;
+            logger.warn("Image raster {} is invalid, it will be regenerated.", file);
+        }
+
+        logger.info("Converting {} to a memory-mapped raster, this only happens when the image changes.", describe(paths));
+        Files.createDirectories(folder);
+        Path temp = Files.createTempFile(folder, "raster", ".tmp");
+        try {
+            convert(paths, files, temp, hash);
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch(AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        MappedImage image = MappedImage.open(file, hash);
+        if(image == null) throw new IOException("Failed to write image raster " + file);
+        return image;
+    }
+
+    private static String describe(String[][] paths) {
+        if(paths.length == 1 && paths[0].length == 1) return paths[0][0];
+        return paths.length + "x" + paths[0].length + " stitched image starting at " + paths[0][0];
+    }
+
+    private static byte[] hash(String[][] paths, Loader files) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch(NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update(ByteBuffer.allocate(12).putInt(MappedImage.FORMAT_VERSION).putInt(paths.length).putInt(paths[0].length).flip());
+        byte[] buffer = new byte[1 << 16];
+        for(String[] row : paths) {
+            for(String path : row) {
+                try(InputStream in = open(path, files)) {
+                    int read;
+                    while((read = in.read(buffer)) >= 0) digest.update(buffer, 0, read);
+                }
+            }
+        }
+        return digest.digest();
+    }
+
+    private static InputStream open(String path, Loader files) throws IOException {
+        try {
+            return files.get(path);
+        } catch(FileNotFoundException e) {
+            throw new IOException("Unable to load image: No such file or directory: " + path, e);
+        }
+    }
+
+    private static ImageReader reader(ImageInputStream stream, String path) throws IOException {
+        if(stream == null) throw new IOException("Unable to load image: " + path);
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(stream);
+        if(!readers.hasNext()) throw new IOException("Unable to load image: Unsupported format: " + path);
+        ImageReader reader = readers.next();
+        reader.setInput(stream, true, true);
+        return reader;
+    }
+
+    private static void convert(String[][] paths, Loader files, Path out, long hash) throws IOException {
+        int rows = paths.length;
+        int columns = paths[0].length;
+        int[] heights = new int[rows];
+        int[] widths = new int[columns];
+        for(int i = 0; i < rows; i++) {
+            for(int j = 0; j < columns; j++) {
+                try(InputStream in = open(paths[i][j], files); ImageInputStream stream = ImageIO.createImageInputStream(in)) {
+                    ImageReader reader = reader(stream, paths[i][j]);
+                    try {
+                        int height = reader.getHeight(0);
+                        int width = reader.getWidth(0);
+                        if(j == 0) heights[i] = height;
+                        else if(heights[i] != height)
+                            throw new IllegalArgumentException("Image heights in row " + i + " do not match");
+                        if(i == 0) widths[j] = width;
+                        else if(widths[j] != width)
+                            throw new IllegalArgumentException("Image widths in column " + j + " do not match");
+                    } finally {
+                        reader.dispose();
+                    }
+                }
+            }
+        }
+
+        long width = Arrays.stream(widths).asLongStream().sum();
+        long height = Arrays.stream(heights).asLongStream().sum();
+        if(width > Integer.MAX_VALUE || height > Integer.MAX_VALUE) throw new IllegalArgumentException("Image is too large");
+
+        try(FileChannel channel = FileChannel.open(out, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(channel, MappedImage.header((int) width, (int) height, hash), 0);
+            // Pad the file to its full size up front so partially covered edge tiles exist
+            writeFully(channel, ByteBuffer.allocate(1), MappedImage.fileSize((int) width, (int) height, MappedImage.TILE_SHIFT) - 1);
+
+            ByteBuffer segment = ByteBuffer.allocateDirect(4 << MappedImage.TILE_SHIFT).order(ByteOrder.LITTLE_ENDIAN);
+            int yOffset = 0;
+            for(int i = 0; i < rows; i++) {
+                int xOffset = 0;
+                for(int j = 0; j < columns; j++) {
+                    writeImage(paths[i][j], files, channel, segment, xOffset, yOffset, (int) width);
+                    xOffset += widths[j];
+                }
+                yOffset += heights[i];
+            }
+            channel.force(false);
+        }
+    }
+
+    private static void writeImage(String path, Loader files, FileChannel channel, ByteBuffer segment, int xOffset, int yOffset,
+                                   int totalWidth) throws IOException {
+        int tileSize = 1 << MappedImage.TILE_SHIFT;
+        try(InputStream in = open(path, files); ImageInputStream stream = ImageIO.createImageInputStream(in)) {
+            ImageReader reader = reader(stream, path);
+            try {
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                int stripHeight = Math.max(1, Math.min(height, STRIP_PIXELS / width));
+                int[] pixels = new int[width * stripHeight];
+                ImageReadParam param = reader.getDefaultReadParam();
+                IntBuffer segmentInts = segment.clear().asIntBuffer();
+                for(int y = 0; y < height; y += stripHeight) {
+                    int strip = Math.min(stripHeight, height - y);
+                    param.setSourceRegion(new Rectangle(0, y, width, strip));
+                    BufferedImage image = reader.read(0, param);
+                    image.getRGB(0, 0, width, strip, pixels, 0, width);
+                    for(int row = 0; row < strip; row++) {
+                        int globalY = yOffset + y + row;
+                        // Each run of pixels that stays inside one tile is contiguous in the file
+                        for(int x = 0; x < width; ) {
+                            int globalX = xOffset + x;
+                            int run = Math.min(width - x, tileSize - (globalX & (tileSize - 1)));
+                            segmentInts.clear();
+                            segmentInts.put(pixels, row * width + x, run);
+                            segment.clear().limit(run << 2);
+                            writeFully(channel, segment, MappedImage.offset(globalX, globalY, totalWidth, MappedImage.TILE_SHIFT));
+                            x += run;
+                        }
+                    }
+                }
+            } catch(IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unable to load image " + path, e);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while(buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
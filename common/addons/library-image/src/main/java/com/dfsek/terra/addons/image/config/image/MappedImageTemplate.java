@@ -0,0 +1,36 @@
+package com.dfsek.terra.addons.image.config.image;
+
+import com.dfsek.tectonic.api.config.template.annotations.Value;
+import com.dfsek.tectonic.api.config.template.object.ObjectTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import com.dfsek.terra.addons.image.image.Image;
+import com.dfsek.terra.api.config.ConfigPack;
+import com.dfsek.terra.api.config.Loader;
+
+
+public class MappedImageTemplate implements ObjectTemplate<Image> {
+
+    private final Loader files;
+    private final ConfigPack pack;
+    private final Path cacheFolder;
+    @Value("path")
+    private String path;
+
+    public MappedImageTemplate(Loader files, ConfigPack pack, Path cacheFolder) {
+        this.files = files;
+        this.pack = pack;
+        this.cacheFolder = cacheFolder;
+    }
+
+    @Override
+    public Image get() {
+        try {
+            return MappedImageCache.load(new String[][]{ { path } }, pack, files, cacheFolder);
+        } catch(IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -39,7 +39,7 @@ public class StitchedImageTemplate implements ObjectTemplate<Image>, ValidatedCo
         for(int i = 0; i < rows; i++) {
             for(int j = 0; j < cols; j++) {
                 try {
-                    grid[i][j] = ImageCache.load(getFormattedPath(i, j), pack, files);
+                    grid[i][j] = ImageCache.load(formatPath(path, i, j, zeroIndexed), pack, files);
                 } catch(IOException e) {
                     throw new RuntimeException(e);
                 }
@@ -48,7 +48,7 @@ public class StitchedImageTemplate implements ObjectTemplate<Image>, ValidatedCo
         return new StitchedImage(grid, zeroIndexed);
     }
 
-    private String getFormattedPath(int row, int column) {
+    static String formatPath(String path, int row, int column, boolean zeroIndexed) {
         if(!zeroIndexed) {
             row++;
             column++;
@@ -58,6 +58,10 @@ public class StitchedImageTemplate implements ObjectTemplate<Image>, ValidatedCo
 
     @Override
     public boolean validate() throws ValidationException {
+        return validate(path, rows, cols);
+    }
+
+    static boolean validate(String path, int rows, int cols) throws ValidationException {
         if(!path.contains("{row}"))
             throw new ValidationException("Path format does not contain sequence '{row}'");
         if(!path.contains("{column}"))
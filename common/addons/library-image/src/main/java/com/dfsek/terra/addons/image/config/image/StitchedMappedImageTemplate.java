@@ -0,0 +1,60 @@
+package com.dfsek.terra.addons.image.config.image;
+
+import com.dfsek.tectonic.api.config.template.ValidatedConfigTemplate;
+import com.dfsek.tectonic.api.config.template.annotations.Default;
+import com.dfsek.tectonic.api.config.template.annotations.Value;
+import com.dfsek.tectonic.api.config.template.object.ObjectTemplate;
+import com.dfsek.tectonic.api.exception.ValidationException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import com.dfsek.terra.addons.image.image.Image;
+import com.dfsek.terra.api.config.ConfigPack;
+import com.dfsek.terra.api.config.Loader;
+
+
+/*
+ * Stitches the images into a single raster when converting, so lookups need no per-pixel search for the source image
+ */
+public class StitchedMappedImageTemplate implements ObjectTemplate<Image>, ValidatedConfigTemplate {
+
+    private final Loader files;
+    private final ConfigPack pack;
+    private final Path cacheFolder;
+    @Value("path-format")
+    private String path;
+    @Value("rows")
+    private int rows;
+    @Value("columns")
+    private int cols;
+    @Value("zero-indexed")
+    @Default
+    private boolean zeroIndexed = false;
+
+    public StitchedMappedImageTemplate(Loader files, ConfigPack pack, Path cacheFolder) {
+        this.files = files;
+        this.pack = pack;
+        this.cacheFolder = cacheFolder;
+    }
+
+    @Override
+    public Image get() {
+        String[][] paths = new String[rows][cols];
+        for(int i = 0; i < rows; i++) {
+            for(int j = 0; j < cols; j++) {
+                paths[i][j] = StitchedImageTemplate.formatPath(path, i, j, zeroIndexed);
+            }
+        }
+        try {
+            return MappedImageCache.load(paths, pack, files, cacheFolder);
+        } catch(IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public boolean validate() throws ValidationException {
+        return StitchedImageTemplate.validate(path, rows, cols);
+    }
+}
@@ -3,35 +3,108 @@ package com.dfsek.terra.addons.image.converter;
 import java.util.Map;
 
 import com.dfsek.terra.addons.image.util.ColorUtil;
+import com.dfsek.terra.addons.image.util.IntIndexMap;
 
 
+/**
+ * Maps colors to the entry with the nearest RGB value.
+ * <p>
+ * The RGB cube is split into buckets, and each bucket stores the few mapped colors that can be nearest to any color
+ * inside it, so a lookup only compares against those instead of the whole palette. Candidates keep their original
+ * order, so ties resolve exactly as a full scan would.
+ */
 public class ClosestMatchColorConverter<T> implements ColorConverter<T> {
+    private static final int BUCKET_BITS = 4;
+    private static final int BUCKET_SHIFT = 8 - BUCKET_BITS;
+    private static final int BUCKET_WIDTH = 1 << BUCKET_SHIFT;
 
     private final Map<Integer, T> map;
 
-    private final Integer[] colors;
+    private final int[] colors;
 
+    private final T[] values;
+
+    private final IntIndexMap exact;
+
+    private final int[][] candidates;
+
+    @SuppressWarnings("unchecked")
     public ClosestMatchColorConverter(Map<Integer, T> map) {
         this.map = map;
-        this.colors = map.keySet().toArray(new Integer[0]);
+        this.colors = map.keySet().stream().mapToInt(Integer::intValue).toArray();
+        this.values = (T[]) new Object[colors.length];
+        this.exact = new IntIndexMap(colors.length);
+        for(int i = 0; i < colors.length; i++) {
+            values[i] = map.get(colors[i]);
+            exact.put(colors[i], i);
+        }
+
+        this.candidates = new int[1 << (BUCKET_BITS * 3)][];
+        for(int r = 0; r < 1 << BUCKET_BITS; r++) {
+            for(int g = 0; g < 1 << BUCKET_BITS; g++) {
+                for(int b = 0; b < 1 << BUCKET_BITS; b++) {
+                    candidates[bucket(r, g, b)] = findCandidates(r << BUCKET_SHIFT, g << BUCKET_SHIFT, b << BUCKET_SHIFT);
+                }
+            }
+        }
+    }
+
+    private static int bucket(int r, int g, int b) {
+        return (r << (BUCKET_BITS * 2)) | (g << BUCKET_BITS) | b;
+    }
+
+    private static int minDistance(int value, int low) {
+        if(value < low) return low - value;
+        return Math.max(value - (low + BUCKET_WIDTH - 1), 0);
+    }
+
+    private static int maxDistance(int value, int low) {
+        return Math.max(Math.abs(value - low), Math.abs(value - (low + BUCKET_WIDTH - 1)));
+    }
+
+    /**
+     * Every color in the bucket is at most {@code bound} away from some mapped color, so only mapped colors that can
+     * come within {@code bound} of the bucket are ever nearest.
+     */
+    private int[] findCandidates(int r, int g, int b) {
+        int bound = Integer.MAX_VALUE;
+        for(int color : colors) {
+            bound = Math.min(bound, maxDistance(ColorUtil.getRed(color), r) +
+                                    maxDistance(ColorUtil.getGreen(color), g) +
+                                    maxDistance(ColorUtil.getBlue(color), b));
+        }
+        int[] found = new int[colors.length];
+        int count = 0;
+        for(int i = 0; i < colors.length; i++) {
+            int color = colors[i];
+            int distance = minDistance(ColorUtil.getRed(color), r) +
+                           minDistance(ColorUtil.getGreen(color), g) +
+                           minDistance(ColorUtil.getBlue(color), b);
+            if(distance <= bound) found[count++] = i;
+        }
+        int[] result = new int[count];
+        System.arraycopy(found, 0, result, 0, count);
+        return result;
     }
 
     @Override
     public T apply(int color) {
-        int closest = 0;
-        int smallestDistance = Integer.MAX_VALUE;
-        for(int compare : colors) {
-            if(color == compare) {
-                closest = compare;
-                break;
-            }
-            int distance = ColorUtil.distance(color, compare);
-            if(distance < smallestDistance) {
-                smallestDistance = distance;
-                closest = compare;
+        if(colors.length == 0) return null;
+        int index = exact.get(color);
+        if(index == IntIndexMap.MISSING) {
+            int[] bucket = candidates[bucket(ColorUtil.getRed(color) >> BUCKET_SHIFT,
+                ColorUtil.getGreen(color) >> BUCKET_SHIFT,
+                ColorUtil.getBlue(color) >> BUCKET_SHIFT)];
+            int smallestDistance = Integer.MAX_VALUE;
+            for(int candidate : bucket) {
+                int distance = ColorUtil.distance(color, colors[candidate]);
+                if(distance < smallestDistance) {
+                    smallestDistance = distance;
+                    index = candidate;
+                }
             }
         }
-        return map.get(closest);
+        return values[index];
     }
 
     @Override
@@ -5,16 +5,22 @@ import java.util.Map;
 import java.util.Set;
 
 import com.dfsek.terra.addons.image.util.ColorUtil;
+import com.dfsek.terra.addons.image.util.IntIndexMap;
 import com.dfsek.terra.addons.image.util.MapUtil;
 
 
 public class ExactColorConverter<T> implements ColorConverter<T> {
     private final Map<Integer, T> map;
 
+    private final IntIndexMap indices;
+
+    private final T[] values;
+
     private final T fallback;
 
     private final boolean ignoreAlpha;
 
+    @SuppressWarnings("unchecked")
     public ExactColorConverter(Map<Integer, T> map, T fallback, boolean ignoreAlpha) {
         if(ignoreAlpha) {
             map = MapUtil.mapKeys(map, ColorUtil::zeroAlpha);
@@ -22,6 +28,14 @@ public class ExactColorConverter<T> implements ColorConverter<T> {
         this.map = map;
         this.fallback = fallback;
         this.ignoreAlpha = ignoreAlpha;
+
+        this.indices = new IntIndexMap(map.size());
+        this.values = (T[]) new Object[map.size()];
+        int i = 0;
+        for(Map.Entry<Integer, T> entry : map.entrySet()) {
+            indices.put(entry.getKey(), i);
+            values[i++] = entry.getValue();
+        }
     }
 
     @Override
@@ -29,7 +43,9 @@ public class ExactColorConverter<T> implements ColorConverter<T> {
         if(ignoreAlpha) {
             color = ColorUtil.zeroAlpha(color);
         }
-        T lookup = map.get(color);
+        int index = indices.get(color);
+        if(index == IntIndexMap.MISSING) return fallback;
+        T lookup = values[index];
         return lookup != null ? lookup : fallback;
     }
 
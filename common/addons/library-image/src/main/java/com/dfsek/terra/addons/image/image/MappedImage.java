@@ -0,0 +1,140 @@
+package com.dfsek.terra.addons.image.image;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+
+/**
+ * Image backed by a tiled raster file on disk.
+ * <p>
+ * The file holds a fixed size header followed by square tiles of ARGB ints, stored row by row. Each row of tiles is
+ * memory-mapped the first time a pixel inside it is read, so only the parts of the image that are actually sampled
+ * are paged in, and none of it lives on the heap.
+ */
+public class MappedImage implements Image {
+    public static final int MAGIC = 0x54524153; // TRAS
+    public static final int FORMAT_VERSION = 1;
+    public static final int HEADER_SIZE = 32;
+    public static final int TILE_SHIFT = 8;
+
+    private final Path file;
+    private final int width, height;
+    private final int tileShift, tileMask;
+    private final long tileRowBytes;
+    private final AtomicReferenceArray<IntBuffer> tileRows;
+
+    private MappedImage(Path file, int width, int height, int tileShift) {
+        this.file = file;
+        this.width = width;
+        this.height = height;
+        this.tileShift = tileShift;
+        this.tileMask = (1 << tileShift) - 1;
+        this.tileRowBytes = tileRowBytes(width, tileShift);
+        this.tileRows = new AtomicReferenceArray<>(tileCount(height, tileShift));
+    }
+
+    /**
+     * Open a raster written in this format, validating its header.
+     *
+     * @param file Raster file
+     * @param hash Hash of the source images the raster is expected to have been converted from
+     *
+     * @return The image, or {@code null} if the file is not a raster of the current format for the given source.
+     */
+    public static MappedImage open(Path file, long hash) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if(channel.size() < HEADER_SIZE) return null;
+            while(header.hasRemaining()) {
+                if(channel.read(header, header.position()) < 0) return null;
+            }
+            header.flip();
+            if(header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION) return null;
+            int width = header.getInt();
+            int height = header.getInt();
+            int tileShift = header.getInt();
+            if(header.getLong() != hash) return null;
+            if(width < 1 || height < 1 || tileShift < 1 || tileShift > 15) return null;
+            if(channel.size() != fileSize(width, height, tileShift)) return null;
+            return new MappedImage(file, width, height, tileShift);
+        }
+    }
+
+    public static ByteBuffer header(int width, int height, long hash) {
+        return ByteBuffer.allocate(HEADER_SIZE)
+            .order(ByteOrder.LITTLE_ENDIAN)
+            .putInt(MAGIC)
+            .putInt(FORMAT_VERSION)
+            .putInt(width)
+            .putInt(height)
+            .putInt(TILE_SHIFT)
+            .putLong(hash)
+            .flip();
+    }
+
+    public static int tileCount(int size, int tileShift) {
+        return ((size - 1) >> tileShift) + 1;
+    }
+
+    /**
+     * Every row of tiles is mapped as one buffer, so it must fit in a single {@link IntBuffer}.
+     */
+    public static long tileRowBytes(int width, int tileShift) {
+        long bytes = (long) tileCount(width, tileShift) << (tileShift * 2 + 2);
+        if(bytes > Integer.MAX_VALUE) throw new IllegalArgumentException("Image is too wide to be memory-mapped: " + width);
+        return bytes;
+    }
+
+    public static long fileSize(int width, int height, int tileShift) {
+        return HEADER_SIZE + tileRowBytes(width, tileShift) * tileCount(height, tileShift);
+    }
+
+    /**
+     * Byte offset of a pixel within a raster file.
+     */
+    public static long offset(int x, int y, int width, int tileShift) {
+        int tileMask = (1 << tileShift) - 1;
+        long tile = (long) (y >> tileShift) * tileCount(width, tileShift) + (x >> tileShift);
+        return HEADER_SIZE + (((tile << (tileShift * 2)) + ((long) (y & tileMask) << tileShift) + (x & tileMask)) << 2);
+    }
+
+    private IntBuffer tileRow(int row) {
+        IntBuffer buffer = tileRows.get(row);
+        if(buffer == null) {
+            try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + tileRowBytes * row, tileRowBytes)
+                    .order(ByteOrder.LITTLE_ENDIAN)
+                    .asIntBuffer();
+            } catch(IOException e) {
+                throw new UncheckedIOException("Failed to map image raster " + file, e);
+            }
+            // Racing threads map the same region, any of the mappings is as good as another
+            if(!tileRows.compareAndSet(row, null, buffer)) buffer = tileRows.get(row);
+        }
+        return buffer;
+    }
+
+    @Override
+    public int getRGB(int x, int y) {
+        if(x < 0 || y < 0 || x >= width || y >= height) throw new ArrayIndexOutOfBoundsException("Coordinate out of bounds!");
+        int tile = x >> tileShift;
+        return tileRow(y >> tileShift).get((tile << (tileShift * 2)) + ((y & tileMask) << tileShift) + (x & tileMask));
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,51 @@
+package com.dfsek.terra.addons.image.util;
+
+import java.util.Arrays;
+
+
+/**
+ * Open addressing map from int keys to non-negative int indices, for colour lookups that should not box.
+ */
+public class IntIndexMap {
+    public static final int MISSING = -1;
+
+    private final int[] keys;
+    private final int[] indices;
+    private final int mask;
+
+    public IntIndexMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(expectedSize, 1) * 2 - 1) << 1; // Keep load factor at or below 0.5
+        this.keys = new int[capacity];
+        this.indices = new int[capacity];
+        this.mask = capacity - 1;
+        Arrays.fill(indices, MISSING);
+    }
+
+    private static int mix(int key) {
+        int hash = key * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    public void put(int key, int index) {
+        if(index < 0) throw new IllegalArgumentException("Index must not be negative: " + index);
+        int slot = mix(key) & mask;
+        while(indices[slot] != MISSING && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        indices[slot] = index;
+    }
+
+    /**
+     * @return The index mapped to {@code key}, or {@link #MISSING}.
+     */
+    public int get(int key) {
+        int slot = mix(key) & mask;
+        int index;
+        while((index = indices[slot]) != MISSING) {
+            if(keys[slot] == key) return index;
+            slot = (slot + 1) & mask;
+        }
+        return MISSING;
+    }
+}
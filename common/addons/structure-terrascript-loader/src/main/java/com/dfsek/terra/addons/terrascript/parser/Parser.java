@@ -25,6 +25,7 @@ import com.dfsek.terra.addons.terrascript.parser.lang.constants.BooleanConstant;
 import com.dfsek.terra.addons.terrascript.parser.lang.constants.ConstantExpression;
 import com.dfsek.terra.addons.terrascript.parser.lang.constants.NumericConstant;
 import com.dfsek.terra.addons.terrascript.parser.lang.constants.StringConstant;
+import com.dfsek.terra.addons.terrascript.parser.lang.functions.ConstantComparable;
 import com.dfsek.terra.addons.terrascript.parser.lang.functions.Function;
 import com.dfsek.terra.addons.terrascript.parser.lang.functions.FunctionBuilder;
 import com.dfsek.terra.addons.terrascript.parser.lang.keywords.flow.BreakKeyword;
@@ -34,7 +35,6 @@ import com.dfsek.terra.addons.terrascript.parser.lang.keywords.flow.ReturnKeywor
 import com.dfsek.terra.addons.terrascript.parser.lang.keywords.looplike.ForKeyword;
 import com.dfsek.terra.addons.terrascript.parser.lang.keywords.looplike.IfKeyword;
 import com.dfsek.terra.addons.terrascript.parser.lang.keywords.looplike.WhileKeyword;
-import com.dfsek.terra.addons.terrascript.parser.lang.operations.BinaryOperation;
 import com.dfsek.terra.addons.terrascript.parser.lang.operations.BooleanAndOperation;
 import com.dfsek.terra.addons.terrascript.parser.lang.operations.BooleanNotOperation;
 import com.dfsek.terra.addons.terrascript.parser.lang.operations.BooleanOrOperation;
@@ -267,8 +267,8 @@ public class Parser {
         return expression;
     }
 
-    private BinaryOperation<?, ?> parseBinaryOperation(Returnable<?> left, Tokenizer tokens,
-                                                       ScopeBuilder scopeBuilder) {
+    private Returnable<?> parseBinaryOperation(Returnable<?> left, Tokenizer tokens,
+                                               ScopeBuilder scopeBuilder) {
         Token binaryOperator = tokens.consume();
         ParserUtil.checkBinaryOperator(binaryOperator);
 
@@ -283,7 +283,7 @@ public class Parser {
         return assemble(left, right, binaryOperator);
     }
 
-    private BinaryOperation<?, ?> assemble(Returnable<?> left, Returnable<?> right, Token binaryOperator) {
+    private Returnable<?> assemble(Returnable<?> left, Returnable<?> right, Token binaryOperator) {
         if(binaryOperator.isStrictNumericOperator())
             ParserUtil.checkArithmeticOperation(left, right, binaryOperator); // Numeric type checking
         if(binaryOperator.isStrictBooleanOperator()) ParserUtil.checkBooleanOperation(left, right, binaryOperator); // Boolean type checking
@@ -300,8 +300,12 @@ public class Parser {
             case DIVISION_OPERATOR:
                 return new DivisionOperation((Returnable<Number>) left, (Returnable<Number>) right, binaryOperator.getPosition());
             case EQUALS_OPERATOR:
+                Returnable<Boolean> equality = compareConstant(left, right, binaryOperator.getPosition());
+                if(equality != null) return equality;
                 return new EqualsStatement((Returnable<Object>) left, (Returnable<Object>) right, binaryOperator.getPosition());
             case NOT_EQUALS_OPERATOR:
+                Returnable<Boolean> inequality = compareConstant(left, right, binaryOperator.getPosition());
+                if(inequality != null) return new BooleanNotOperation(inequality, binaryOperator.getPosition());
                 return new NotEqualsStatement((Returnable<Object>) left, (Returnable<Object>) right, binaryOperator.getPosition());
             case GREATER_THAN_OPERATOR:
                 return new GreaterThanStatement((Returnable<Number>) left, (Returnable<Number>) right, binaryOperator.getPosition());
@@ -323,6 +327,15 @@ public class Parser {
         }
     }
 
+    private Returnable<Boolean> compareConstant(Returnable<?> left, Returnable<?> right, Position position) {
+        if(left instanceof ConstantComparable comparable && right instanceof ConstantExpression<?> constant) {
+            return comparable.equalTo(constant, position);
+        } else if(right instanceof ConstantComparable comparable && left instanceof ConstantExpression<?> constant) {
+            return comparable.equalTo(constant, position);
+        }
+        return null;
+    }
+
     private VariableAssignmentNode<?> parseVariableDeclaration(Tokenizer tokens, ScopeBuilder scopeBuilder) {
         Token type = tokens.consume();
         ParserUtil.checkType(type, Token.Type.STRING_VARIABLE, Token.Type.BOOLEAN_VARIABLE, Token.Type.NUMBER_VARIABLE);
@@ -0,0 +1,25 @@
+/*
+ * Copyright (c) 2020-2025 Polyhedral Development
+ *
+ * The Terra Core Addons are licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in this module's root directory.
+ */
+
+package com.dfsek.terra.addons.terrascript.parser.lang.functions;
+
+import com.dfsek.terra.addons.terrascript.parser.lang.Returnable;
+import com.dfsek.terra.addons.terrascript.parser.lang.constants.ConstantExpression;
+import com.dfsek.terra.addons.terrascript.tokenizer.Position;
+
+
+/**
+ * A function that can check whether its result equals a constant without computing the result, used by the parser to
+ * compile {@code ==} and {@code !=} against literals.
+ */
+public interface ConstantComparable {
+    /**
+     * @return An expression that is true when this function's result would equal the constant, or {@code null} if the
+     * constant can't be checked that way and the result must be compared normally.
+     */
+    Returnable<Boolean> equalTo(ConstantExpression<?> constant, Position position);
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2020-2025 Polyhedral Development
+ *
+ * The Terra Core Addons are licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in this module's root directory.
+ */
+
+package com.dfsek.terra.addons.terrascript.script;
+
+/**
+ * Open addressing map from block positions packed into longs to marks, so setting and reading marks doesn't box or
+ * allocate a vector per call.
+ * <p>
+ * Positions are packed like Minecraft block positions: 26 bits each for X and Z and 12 for Y, which covers every
+ * coordinate a world can hold.
+ */
+final class MarkMap {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private String[] values = new String[INITIAL_CAPACITY];
+    private int size = 0;
+
+    static long pack(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+
+    private static int slot(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * @param value Mark to set, must not be {@code null}
+     */
+    void put(long key, String value) {
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        while(values[slot] != null) {
+            if(keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if(++size * 2 > keys.length) grow();
+    }
+
+    String get(long key) {
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        String value;
+        while((value = values[slot]) != null) {
+            if(keys[slot] == key) return value;
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        String[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new String[oldValues.length * 2];
+        int mask = keys.length - 1;
+        for(int i = 0; i < oldKeys.length; i++) {
+            if(oldValues[i] == null) continue;
+            int slot = slot(oldKeys[i], mask);
+            while(values[slot] != null) slot = (slot + 1) & mask;
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+}
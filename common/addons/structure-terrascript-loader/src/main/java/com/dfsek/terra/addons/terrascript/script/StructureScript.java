@@ -85,7 +85,7 @@ public class StructureScript implements Structure, Keyed<StructureScript> {
             .registerFunction("loot", new LootFunctionBuilder(platform, lootRegistry, this))
             .registerFunction("entity", new EntityFunctionBuilder(platform))
             .registerFunction("getBiome", new BiomeFunctionBuilder(platform))
-            .registerFunction("getBlock", new CheckBlockFunctionBuilder())
+            .registerFunction("getBlock", new CheckBlockFunctionBuilder(platform))
             .registerFunction("state", new StateFunctionBuilder(platform))
             .registerFunction("setWaterlog", new UnaryBooleanFunctionBuilder((waterlog, args) -> args.setWaterlog(waterlog)))
             .registerFunction("originX", new ZeroArgFunctionBuilder<Number>(arguments -> arguments.getOrigin().getX(),
@@ -7,8 +7,6 @@
 
 package com.dfsek.terra.addons.terrascript.script;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Random;
 
 import com.dfsek.terra.addons.terrascript.parser.lang.ImplementationArguments;
@@ -22,7 +20,7 @@ public class TerraImplementationArguments implements ImplementationArguments {
     private final Rotation rotation;
     private final Random random;
     private final WritableWorld world;
-    private final Map<Vector3, String> marks = new HashMap<>();
+    private MarkMap marks; // Most scripts never set a mark
     private final int recursions;
     private final Vector3Int origin;
     private boolean waterlog = false;
@@ -64,10 +62,20 @@ public class TerraImplementationArguments implements ImplementationArguments {
     }
 
     public void setMark(Vector3 pos, String mark) {
-        marks.put(pos, mark);
+        setMark(pos.getBlockX(), pos.getBlockY(), pos.getBlockZ(), mark);
+    }
+
+    public void setMark(int x, int y, int z, String mark) {
+        if(marks == null) marks = new MarkMap();
+        // The map uses null for empty slots, and a missing mark reads back as empty anyway
+        marks.put(MarkMap.pack(x, y, z), mark == null ? "" : mark);
     }
 
     public String getMark(Vector3 pos) {
-        return marks.get(pos);
+        return getMark(pos.getBlockX(), pos.getBlockY(), pos.getBlockZ());
+    }
+
+    public String getMark(int x, int y, int z) {
+        return marks == null ? null : marks.get(MarkMap.pack(x, y, z));
     }
 }
@@ -11,16 +11,23 @@ import com.dfsek.terra.addons.terrascript.parser.lang.Returnable;
 import com.dfsek.terra.addons.terrascript.parser.lang.functions.FunctionBuilder;
 import com.dfsek.terra.addons.terrascript.script.functions.CheckBlockFunction;
 import com.dfsek.terra.addons.terrascript.tokenizer.Position;
+import com.dfsek.terra.api.Platform;
 
 import java.util.List;
 
 
 public class CheckBlockFunctionBuilder implements FunctionBuilder<CheckBlockFunction> {
+    private final Platform platform;
+
+    public CheckBlockFunctionBuilder(Platform platform) {
+        this.platform = platform;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public CheckBlockFunction build(List<Returnable<?>> argumentList, Position position) {
         return new CheckBlockFunction((Returnable<Number>) argumentList.get(0), (Returnable<Number>) argumentList.get(1),
-            (Returnable<Number>) argumentList.get(2), position);
+            (Returnable<Number>) argumentList.get(2), platform, position);
     }
 
     @Override
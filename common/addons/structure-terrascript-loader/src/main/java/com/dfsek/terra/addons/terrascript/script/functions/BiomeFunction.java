@@ -13,9 +13,9 @@ import com.dfsek.terra.addons.terrascript.parser.lang.Scope;
 import com.dfsek.terra.addons.terrascript.parser.lang.functions.Function;
 import com.dfsek.terra.addons.terrascript.script.TerraImplementationArguments;
 import com.dfsek.terra.addons.terrascript.tokenizer.Position;
+import com.dfsek.terra.api.util.Rotation;
 import com.dfsek.terra.api.util.RotationUtil;
-import com.dfsek.terra.api.util.vector.Vector2;
-import com.dfsek.terra.api.util.vector.Vector3;
+import com.dfsek.terra.api.util.vector.Vector3Int;
 import com.dfsek.terra.api.world.biome.generation.BiomeProvider;
 
 
@@ -36,19 +36,17 @@ public class BiomeFunction implements Function<String> {
     public String apply(ImplementationArguments implementationArguments, Scope scope) {
         TerraImplementationArguments arguments = (TerraImplementationArguments) implementationArguments;
 
-        Vector2 xz = RotationUtil.rotateVector(Vector2.of(x.apply(implementationArguments, scope).doubleValue(),
-                z.apply(implementationArguments, scope).doubleValue()),
-            arguments.getRotation());
-
+        double xValue = x.apply(implementationArguments, scope).doubleValue();
+        double zValue = z.apply(implementationArguments, scope).doubleValue();
+        Rotation rotation = arguments.getRotation();
+        Vector3Int origin = arguments.getOrigin();
 
         BiomeProvider grid = arguments.getWorld().getBiomeProvider();
 
-        return grid.getBiome(arguments.getOrigin()
-            .toVector3()
-            .mutable()
-            .add(Vector3.of((int) Math.round(xz.getX()),
-                y.apply(implementationArguments, scope).intValue(),
-                (int) Math.round(xz.getZ()))).immutable(), arguments.getWorld().getSeed()).getID();
+        return grid.getBiome((int) Math.round(RotationUtil.rotateX(xValue, zValue, rotation)) + origin.getX(),
+            y.apply(implementationArguments, scope).intValue() + origin.getY(),
+            (int) Math.round(RotationUtil.rotateZ(xValue, zValue, rotation)) + origin.getZ(),
+            arguments.getWorld().getSeed()).getID();
     }
 
     @Override
@@ -22,9 +22,9 @@ import com.dfsek.terra.addons.terrascript.script.TerraImplementationArguments;
 import com.dfsek.terra.addons.terrascript.tokenizer.Position;
 import com.dfsek.terra.api.Platform;
 import com.dfsek.terra.api.block.state.BlockState;
+import com.dfsek.terra.api.util.Rotation;
 import com.dfsek.terra.api.util.RotationUtil;
-import com.dfsek.terra.api.util.vector.Vector2;
-import com.dfsek.terra.api.util.vector.Vector3;
+import com.dfsek.terra.api.util.vector.Vector3Int;
 
 
 public class BlockFunction implements Function<Void> {
@@ -69,15 +69,17 @@ public class BlockFunction implements Function<Void> {
 
     void setBlock(ImplementationArguments implementationArguments, Scope scope,
                   TerraImplementationArguments arguments, BlockState rot) {
-        Vector2 xz = RotationUtil.rotateVector(Vector2.of(x.apply(implementationArguments, scope).doubleValue(),
-            z.apply(implementationArguments, scope).doubleValue()), arguments.getRotation());
+        double xValue = x.apply(implementationArguments, scope).doubleValue();
+        double zValue = z.apply(implementationArguments, scope).doubleValue();
+        Rotation rotation = arguments.getRotation();
+        Vector3Int origin = arguments.getOrigin();
         try {
-            Vector3.Mutable set = Vector3.of((int) Math.round(xz.getX()),
-                y.apply(implementationArguments, scope).doubleValue(),
-                (int) Math.round(xz.getZ())).mutable().add(arguments.getOrigin());
-            BlockState current = arguments.getWorld().getBlockState(set);
+            int setX = (int) Math.round(RotationUtil.rotateX(xValue, zValue, rotation)) + origin.getX();
+            int setY = (int) Math.floor(y.apply(implementationArguments, scope).doubleValue() + origin.getY());
+            int setZ = (int) Math.round(RotationUtil.rotateZ(xValue, zValue, rotation)) + origin.getZ();
+            BlockState current = arguments.getWorld().getBlockState(setX, setY, setZ);
             if(overwrite.apply(implementationArguments, scope) || current.isAir()) {
-                arguments.getWorld().setBlockState(set, rot, physics.apply(implementationArguments, scope));
+                arguments.getWorld().setBlockState(setX, setY, setZ, rot, physics.apply(implementationArguments, scope));
             }
         } catch(RuntimeException e) {
             logger.error("Failed to place block at location {}", arguments.getOrigin(), e);
@@ -7,48 +7,82 @@
 
 package com.dfsek.terra.addons.terrascript.script.functions;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.dfsek.terra.addons.terrascript.parser.lang.ImplementationArguments;
 import com.dfsek.terra.addons.terrascript.parser.lang.Returnable;
 import com.dfsek.terra.addons.terrascript.parser.lang.Scope;
+import com.dfsek.terra.addons.terrascript.parser.lang.constants.ConstantExpression;
+import com.dfsek.terra.addons.terrascript.parser.lang.constants.StringConstant;
+import com.dfsek.terra.addons.terrascript.parser.lang.functions.ConstantComparable;
 import com.dfsek.terra.addons.terrascript.parser.lang.functions.Function;
 import com.dfsek.terra.addons.terrascript.script.TerraImplementationArguments;
 import com.dfsek.terra.addons.terrascript.tokenizer.Position;
+import com.dfsek.terra.api.Platform;
+import com.dfsek.terra.api.block.BlockType;
+import com.dfsek.terra.api.block.state.BlockState;
+import com.dfsek.terra.api.util.Rotation;
 import com.dfsek.terra.api.util.RotationUtil;
-import com.dfsek.terra.api.util.vector.Vector2;
-import com.dfsek.terra.api.util.vector.Vector3;
+import com.dfsek.terra.api.util.vector.Vector3Int;
+
 
+public class CheckBlockFunction implements Function<String>, ConstantComparable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CheckBlockFunction.class);
 
-public class CheckBlockFunction implements Function<String> {
     private final Returnable<Number> x, y, z;
+    private final Platform platform;
     private final Position position;
 
-    public CheckBlockFunction(Returnable<Number> x, Returnable<Number> y, Returnable<Number> z, Position position) {
+    public CheckBlockFunction(Returnable<Number> x, Returnable<Number> y, Returnable<Number> z, Platform platform, Position position) {
         this.x = x;
         this.y = y;
         this.z = z;
+        this.platform = platform;
         this.position = position;
     }
 
 
     @Override
     public String apply(ImplementationArguments implementationArguments, Scope scope) {
+        return stripProperties(getBlockState(implementationArguments, scope).getAsString());
+    }
+
+    private static String stripProperties(String data) {
+        if(data.contains("[")) return data.substring(0, data.indexOf('['));
+        else return data;
+    }
+
+    private BlockState getBlockState(ImplementationArguments implementationArguments, Scope scope) {
         TerraImplementationArguments arguments = (TerraImplementationArguments) implementationArguments;
 
-        Vector2 xz = RotationUtil.rotateVector(Vector2.of(x.apply(implementationArguments, scope).doubleValue(),
-                z.apply(implementationArguments, scope).doubleValue()),
-            arguments.getRotation());
+        double xValue = x.apply(implementationArguments, scope).doubleValue();
+        double zValue = z.apply(implementationArguments, scope).doubleValue();
+        Rotation rotation = arguments.getRotation();
+        Vector3Int origin = arguments.getOrigin();
 
+        return arguments.getWorld()
+            .getBlockState((int) Math.round(RotationUtil.rotateX(xValue, zValue, rotation)) + origin.getX(),
+                (int) Math.floor(origin.getY() + y.apply(implementationArguments, scope).doubleValue()),
+                (int) Math.round(RotationUtil.rotateZ(xValue, zValue, rotation)) + origin.getZ());
+    }
 
-        String data = arguments.getWorld()
-            .getBlockState(arguments.getOrigin()
-                .toVector3()
-                .mutable()
-                .add(Vector3.of((int) Math.round(xz.getX()),
-                    y.apply(implementationArguments, scope)
-                        .doubleValue(), (int) Math.round(xz.getZ()))))
-            .getAsString();
-        if(data.contains("[")) return data.substring(0, data.indexOf('[')); // Strip properties
-        else return data;
+    /**
+     * Compiles comparisons against block ID literals into block type checks. Literals that don't name exactly one block
+     * type, such as ones with properties or without a namespace, keep comparing strings.
+     */
+    @Override
+    public Returnable<Boolean> equalTo(ConstantExpression<?> constant, Position position) {
+        if(!(constant instanceof StringConstant string) || string.getConstant().contains("[")) return null;
+        BlockType type;
+        try {
+            type = platform.getWorldHandle().createBlockState(string.getConstant()).getBlockType();
+        } catch(RuntimeException e) {
+            LOGGER.debug("Not compiling comparison with {} to a block type check", string.getConstant(), e);
+            return null;
+        }
+        if(!string.getConstant().equals(stripProperties(type.getDefaultState().getAsString()))) return null;
+        return new TypeCheck(type, position);
     }
 
     @Override
@@ -60,4 +94,38 @@ public class CheckBlockFunction implements Function<String> {
     public ReturnType returnType() {
         return ReturnType.STRING;
     }
+
+    private class TypeCheck implements Returnable<Boolean> {
+        private final BlockType type;
+        private final Position position;
+
+        private TypeCheck(BlockType type, Position position) {
+            this.type = type;
+            this.position = position;
+        }
+
+        @Override
+        public Boolean apply(ImplementationArguments implementationArguments, Scope scope) {
+            return applyBoolean(implementationArguments, scope);
+        }
+
+        @Override
+        public boolean applyBoolean(ImplementationArguments implementationArguments, Scope scope) {
+            BlockType actual = getBlockState(implementationArguments, scope).getBlockType();
+            if(actual == type) return true;
+            int id = type.getId();
+            if(id >= 0 && actual.getId() >= 0) return id == actual.getId();
+            return type.equals(actual);
+        }
+
+        @Override
+        public Position getPosition() {
+            return position;
+        }
+
+        @Override
+        public ReturnType returnType() {
+            return ReturnType.BOOLEAN;
+        }
+    }
 }
@@ -17,9 +17,9 @@ import com.dfsek.terra.addons.terrascript.script.TerraImplementationArguments;
 import com.dfsek.terra.addons.terrascript.tokenizer.Position;
 import com.dfsek.terra.api.Platform;
 import com.dfsek.terra.api.block.state.BlockState;
+import com.dfsek.terra.api.util.Rotation;
 import com.dfsek.terra.api.util.RotationUtil;
-import com.dfsek.terra.api.util.vector.Vector2;
-import com.dfsek.terra.api.util.vector.Vector3;
+import com.dfsek.terra.api.util.vector.Vector3Int;
 
 
 public class PullFunction implements Function<Void> {
@@ -41,17 +41,19 @@ public class PullFunction implements Function<Void> {
     @Override
     public Void apply(ImplementationArguments implementationArguments, Scope scope) {
         TerraImplementationArguments arguments = (TerraImplementationArguments) implementationArguments;
-        Vector2 xz = RotationUtil.rotateVector(Vector2.of(x.apply(implementationArguments, scope).doubleValue(),
-            z.apply(implementationArguments, scope).doubleValue()), arguments.getRotation());
+        double xValue = x.apply(implementationArguments, scope).doubleValue();
+        double zValue = z.apply(implementationArguments, scope).doubleValue();
+        Rotation rotation = arguments.getRotation();
+        Vector3Int origin = arguments.getOrigin();
 
-        Vector3.Mutable mutable = Vector3.of((int) Math.round(xz.getX()), y.apply(implementationArguments, scope).intValue(),
-            (int) Math.round(xz.getZ())).mutable().add(arguments.getOrigin());
-        while(mutable.getY() > arguments.getWorld().getMinHeight()) {
-            if(!arguments.getWorld().getBlockState(mutable).isAir()) {
-                arguments.getWorld().setBlockState(mutable, data);
+        int pullX = (int) Math.round(RotationUtil.rotateX(xValue, zValue, rotation)) + origin.getX();
+        int pullZ = (int) Math.round(RotationUtil.rotateZ(xValue, zValue, rotation)) + origin.getZ();
+        int minHeight = arguments.getWorld().getMinHeight();
+        for(int pullY = y.apply(implementationArguments, scope).intValue() + origin.getY(); pullY > minHeight; pullY--) {
+            if(!arguments.getWorld().getBlockState(pullX, pullY, pullZ).isAir()) {
+                arguments.getWorld().setBlockState(pullX, pullY, pullZ, data);
                 break;
             }
-            mutable.subtract(0, 1, 0);
         }
         return null;
     }
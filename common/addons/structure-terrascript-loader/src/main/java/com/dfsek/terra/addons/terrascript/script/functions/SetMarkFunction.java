@@ -13,9 +13,9 @@ import com.dfsek.terra.addons.terrascript.parser.lang.Scope;
 import com.dfsek.terra.addons.terrascript.parser.lang.functions.Function;
 import com.dfsek.terra.addons.terrascript.script.TerraImplementationArguments;
 import com.dfsek.terra.addons.terrascript.tokenizer.Position;
+import com.dfsek.terra.api.util.Rotation;
 import com.dfsek.terra.api.util.RotationUtil;
-import com.dfsek.terra.api.util.vector.Vector2;
-import com.dfsek.terra.api.util.vector.Vector3;
+import com.dfsek.terra.api.util.vector.Vector3Int;
 
 
 public class SetMarkFunction implements Function<Void> {
@@ -34,14 +34,14 @@ public class SetMarkFunction implements Function<Void> {
     @Override
     public Void apply(ImplementationArguments implementationArguments, Scope scope) {
         TerraImplementationArguments arguments = (TerraImplementationArguments) implementationArguments;
-        Vector2 xz = RotationUtil.rotateVector(Vector2.of(x.apply(implementationArguments, scope).doubleValue(),
-            z.apply(implementationArguments, scope).doubleValue()), arguments.getRotation());
-
-
-        arguments.setMark(Vector3.of((int) Math.floor(xz.getX()),
-                (int) Math.floor(
-                    y.apply(implementationArguments, scope).doubleValue()),
-                (int) Math.floor(xz.getZ())).mutable().add(arguments.getOrigin()).immutable(),
+        double xValue = x.apply(implementationArguments, scope).doubleValue();
+        double zValue = z.apply(implementationArguments, scope).doubleValue();
+        Rotation rotation = arguments.getRotation();
+        Vector3Int origin = arguments.getOrigin();
+
+        arguments.setMark((int) Math.floor(RotationUtil.rotateX(xValue, zValue, rotation)) + origin.getX(),
+            (int) Math.floor(y.apply(implementationArguments, scope).doubleValue()) + origin.getY(),
+            (int) Math.floor(RotationUtil.rotateZ(xValue, zValue, rotation)) + origin.getZ(),
             mark.apply(implementationArguments, scope));
         return null;
     }
@@ -17,9 +17,9 @@ import com.dfsek.terra.addons.terrascript.parser.lang.functions.Function;
 import com.dfsek.terra.addons.terrascript.script.TerraImplementationArguments;
 import com.dfsek.terra.addons.terrascript.tokenizer.Position;
 import com.dfsek.terra.api.block.entity.BlockEntity;
+import com.dfsek.terra.api.util.Rotation;
 import com.dfsek.terra.api.util.RotationUtil;
-import com.dfsek.terra.api.util.vector.Vector2;
-import com.dfsek.terra.api.util.vector.Vector3;
+import com.dfsek.terra.api.util.vector.Vector3Int;
 
 
 public class StateFunction implements Function<Void> {
@@ -40,18 +40,20 @@ public class StateFunction implements Function<Void> {
     @Override
     public Void apply(ImplementationArguments implementationArguments, Scope scope) {
         TerraImplementationArguments arguments = (TerraImplementationArguments) implementationArguments;
-        Vector2 xz = RotationUtil.rotateVector(Vector2.of(x.apply(implementationArguments, scope).doubleValue(),
-            z.apply(implementationArguments, scope).doubleValue()), arguments.getRotation());
+        double xValue = x.apply(implementationArguments, scope).doubleValue();
+        double zValue = z.apply(implementationArguments, scope).doubleValue();
+        Rotation rotation = arguments.getRotation();
+        Vector3Int origin = arguments.getOrigin();
 
-
-        Vector3 origin = Vector3.of((int) Math.round(xz.getX()), y.apply(implementationArguments, scope).intValue(),
-            (int) Math.round(xz.getZ())).mutable().add(arguments.getOrigin()).immutable();
+        int stateX = (int) Math.round(RotationUtil.rotateX(xValue, zValue, rotation)) + origin.getX();
+        int stateY = y.apply(implementationArguments, scope).intValue() + origin.getY();
+        int stateZ = (int) Math.round(RotationUtil.rotateZ(xValue, zValue, rotation)) + origin.getZ();
         try {
-            BlockEntity state = arguments.getWorld().getBlockEntity(origin);
+            BlockEntity state = arguments.getWorld().getBlockEntity(stateX, stateY, stateZ);
             state.applyState(data.apply(implementationArguments, scope));
             state.update(false);
         } catch(Exception e) {
-            LOGGER.warn("Could not apply BlockState at {}", origin, e);
+            LOGGER.warn("Could not apply BlockState at {}", Vector3Int.of(stateX, stateY, stateZ), e);
             e.printStackTrace();
         }
         return null;
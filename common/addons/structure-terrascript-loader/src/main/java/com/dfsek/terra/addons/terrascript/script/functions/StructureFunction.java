@@ -15,6 +15,7 @@ import java.util.List;
 import com.dfsek.terra.addons.terrascript.parser.lang.ImplementationArguments;
 import com.dfsek.terra.addons.terrascript.parser.lang.Returnable;
 import com.dfsek.terra.addons.terrascript.parser.lang.Scope;
+import com.dfsek.terra.addons.terrascript.parser.lang.constants.StringConstant;
 import com.dfsek.terra.addons.terrascript.parser.lang.functions.Function;
 import com.dfsek.terra.addons.terrascript.script.StructureScript;
 import com.dfsek.terra.addons.terrascript.script.TerraImplementationArguments;
@@ -24,7 +25,7 @@ import com.dfsek.terra.api.registry.Registry;
 import com.dfsek.terra.api.structure.Structure;
 import com.dfsek.terra.api.util.Rotation;
 import com.dfsek.terra.api.util.RotationUtil;
-import com.dfsek.terra.api.util.vector.Vector2;
+import com.dfsek.terra.api.world.WritableWorld;
 
 
 public class StructureFunction implements Function<Boolean> {
@@ -35,6 +36,12 @@ public class StructureFunction implements Function<Boolean> {
     private final Position position;
     private final Platform platform;
     private final List<Returnable<String>> rotations;
+    /*
+     * Rotations given as literals, parsed up front. Entries are null where the rotation is computed at runtime or the
+     * literal is invalid, which is reported when it's picked like any other invalid rotation.
+     */
+    private final Rotation[] constantRotations;
+    private volatile Structure constantStructure; // Resolved on first use, the target may be registered after this script
 
     public StructureFunction(Returnable<Number> x, Returnable<Number> y, Returnable<Number> z, Returnable<String> id,
                              List<Returnable<String>> rotations, Registry<Structure> registry, Position position, Platform platform) {
@@ -46,6 +53,15 @@ public class StructureFunction implements Function<Boolean> {
         this.z = z;
         this.platform = platform;
         this.rotations = rotations;
+        this.constantRotations = new Rotation[rotations.size()];
+        for(int i = 0; i < constantRotations.length; i++) {
+            if(rotations.get(i) instanceof StringConstant constant) {
+                try {
+                    constantRotations[i] = Rotation.valueOf(constant.getConstant());
+                } catch(IllegalArgumentException ignored) {
+                }
+            }
+        }
     }
 
     @Override
@@ -60,41 +76,48 @@ public class StructureFunction implements Function<Boolean> {
         if(arguments.getRecursions() > platform.getTerraConfig().getMaxRecursion())
             throw new RuntimeException("Structure recursion too deep: " + arguments.getRecursions());
 
-        Vector2 xz = RotationUtil.rotateVector(Vector2.of(x.apply(implementationArguments, scope).doubleValue(),
-            z.apply(implementationArguments, scope).doubleValue()), arguments.getRotation());
-
+        double xValue = x.apply(implementationArguments, scope).doubleValue();
+        double zValue = z.apply(implementationArguments, scope).doubleValue();
+        Rotation rotation = arguments.getRotation();
 
         String app = id.apply(implementationArguments, scope);
-        return registry.getByID(app).map(script -> {
-            Rotation rotation1;
-            String rotString = rotations.get(arguments.getRandom().nextInt(rotations.size())).apply(implementationArguments, scope);
+        Structure structure = getStructure(app);
+        if(structure == null) {
+            LOGGER.error("No such structure {}", app);
+            return false;
+        }
+
+        int index = arguments.getRandom().nextInt(rotations.size());
+        Rotation rotation1 = constantRotations[index];
+        if(rotation1 == null) {
+            String rotString = rotations.get(index).apply(implementationArguments, scope);
             try {
                 rotation1 = Rotation.valueOf(rotString);
             } catch(IllegalArgumentException e) {
                 LOGGER.warn("Invalid rotation {}", rotString);
                 return false;
             }
+        }
 
-            if(script instanceof StructureScript structureScript) {
-                return structureScript.generate(arguments.getOrigin(),
-                    arguments.getWorld()
-                        .buffer((int) Math.round(xz.getX()),
-                            y.apply(implementationArguments, scope).intValue(),
-                            (int) Math.round(xz.getZ())),
-                    arguments.getRandom(),
-                    arguments.getRotation().rotate(rotation1), arguments.getRecursions() + 1);
-            }
-            return script.generate(arguments.getOrigin(),
-                arguments.getWorld()
-                    .buffer((int) Math.round(xz.getX()),
-                        y.apply(implementationArguments, scope).intValue(),
-                        (int) Math.round(xz.getZ())),
-                arguments.getRandom(),
-                arguments.getRotation().rotate(rotation1));
-        }).orElseGet(() -> {
-            LOGGER.error("No such structure {}", app);
-            return false;
-        });
+        WritableWorld buffer = arguments.getWorld()
+            .buffer((int) Math.round(RotationUtil.rotateX(xValue, zValue, rotation)),
+                y.apply(implementationArguments, scope).intValue(),
+                (int) Math.round(RotationUtil.rotateZ(xValue, zValue, rotation)));
+        if(structure instanceof StructureScript structureScript) {
+            return structureScript.generate(arguments.getOrigin(), buffer, arguments.getRandom(), rotation.rotate(rotation1),
+                arguments.getRecursions() + 1);
+        }
+        return structure.generate(arguments.getOrigin(), buffer, arguments.getRandom(), rotation.rotate(rotation1));
+    }
+
+    private Structure getStructure(String app) {
+        if(!(id instanceof StringConstant)) return registry.getByID(app).orElse(null);
+        Structure structure = constantStructure;
+        if(structure == null) {
+            structure = registry.getByID(app).orElse(null);
+            constantStructure = structure;
+        }
+        return structure;
     }
 
     @Override
@@ -12,9 +12,13 @@ import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.lang.reflect.Proxy;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Random;
 
 import com.dfsek.terra.addons.terrascript.parser.Parser;
 import com.dfsek.terra.addons.terrascript.parser.exceptions.ParseException;
@@ -24,7 +28,19 @@ import com.dfsek.terra.addons.terrascript.parser.lang.Returnable;
 import com.dfsek.terra.addons.terrascript.parser.lang.Scope;
 import com.dfsek.terra.addons.terrascript.parser.lang.functions.Function;
 import com.dfsek.terra.addons.terrascript.parser.lang.functions.FunctionBuilder;
+import com.dfsek.terra.addons.terrascript.script.TerraImplementationArguments;
+import com.dfsek.terra.addons.terrascript.script.builders.CheckBlockFunctionBuilder;
 import com.dfsek.terra.addons.terrascript.tokenizer.Position;
+import com.dfsek.terra.api.Platform;
+import com.dfsek.terra.api.block.BlockType;
+import com.dfsek.terra.api.block.state.BlockState;
+import com.dfsek.terra.api.block.state.properties.Property;
+import com.dfsek.terra.api.handle.WorldHandle;
+import com.dfsek.terra.api.util.Rotation;
+import com.dfsek.terra.api.util.vector.Vector3Int;
+import com.dfsek.terra.api.world.WritableWorld;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 
 public class ParserTest {
@@ -65,6 +81,217 @@ public class ParserTest {
         block.execute(null);
     }
 
+    @Test
+    public void blockComparisonsCompileToTypeChecks() throws ParseException {
+        BlockWorld world = new BlockWorld();
+        List<Boolean> results = world.run("""
+            check(getBlock(0, 0, 0) == "minecraft:stone");
+            check("minecraft:stone" == getBlock(0, 0, 0));
+            check(getBlock(0, 0, 0) != "minecraft:stone");
+            check("minecraft:stone" != getBlock(0, 0, 0));
+            check(getBlock(1, 0, 0) == "minecraft:stone");
+            check("minecraft:stone" == getBlock(1, 0, 0));
+            check(getBlock(1, 0, 0) != "minecraft:stone");
+            check("minecraft:stone" != getBlock(1, 0, 0));
+            check(getBlock(1, 0, 0) == "minecraft:oak_log");
+            """);
+
+        assertEquals(List.of(true, true, false, false, false, false, true, true, true), results);
+        // Type checks never build the state string
+        assertEquals(0, world.stringReads);
+    }
+
+    @Test
+    public void otherBlockComparisonsCompareStrings() throws ParseException {
+        BlockWorld world = new BlockWorld();
+        List<Boolean> results = world.run("""
+            check(getBlock(1, 0, 0) == "minecraft:oak_log[axis=y]");
+            check("minecraft:oak_log[axis=y]" != getBlock(1, 0, 0));
+            check(getBlock(0, 0, 0) == "stone");
+            check("stone" != getBlock(0, 0, 0));
+            check(getBlock(0, 0, 0) == "minecraft:missing");
+            str stone = "minecraft:stone";
+            check(getBlock(0, 0, 0) == stone);
+            """);
+
+        // getBlock strips properties, so a literal with properties never matches, as before
+        assertEquals(List.of(false, true, false, true, false, true), results);
+        assertEquals(6, world.stringReads);
+    }
+
+    /*
+     * A platform and world that know two blocks, stone at 0, 0, 0 and an oak log at 1, 0, 0.
+     */
+    private static final class BlockWorld {
+        private final TestBlockType stoneType = new TestBlockType("minecraft:stone", 1);
+        private final TestBlockType logType = new TestBlockType("minecraft:oak_log", 17);
+        private final BlockState stone = new TestBlockState(stoneType, "");
+        private final BlockState log = new TestBlockState(logType, "[axis=y]");
+        private final List<Boolean> results = new ArrayList<>();
+        private int stringReads = 0;
+
+        private static <T> T proxy(Class<T> type, Map<String, java.util.function.Function<Object[], Object>> methods) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{ type }, (proxy, method, args) -> {
+                java.util.function.Function<Object[], Object> implementation = methods.get(method.getName());
+                if(implementation == null) throw new UnsupportedOperationException(method.getName());
+                return implementation.apply(args);
+            }));
+        }
+
+        private BlockState createBlockState(String data) {
+            // Like the platforms, IDs without a namespace resolve to minecraft blocks
+            String id = data.contains(":") ? data : "minecraft:" + data;
+            if(id.startsWith(stoneType.id)) return stone;
+            if(id.startsWith(logType.id)) return log;
+            throw new IllegalArgumentException("Unknown block " + data);
+        }
+
+        private List<Boolean> run(String script) throws ParseException {
+            WorldHandle handle = proxy(WorldHandle.class, Map.of("createBlockState", args -> createBlockState((String) args[0])));
+            Platform platform = proxy(Platform.class, Map.of("getWorldHandle", args -> handle));
+            WritableWorld world = proxy(WritableWorld.class, Map.of("getBlockState", args -> (int) args[0] == 0 ? stone : log));
+
+            Parser parser = new Parser(script)
+                .registerFunction("getBlock", new CheckBlockFunctionBuilder(platform))
+                .registerFunction("check", new FunctionBuilder<Check>() {
+                    @Override
+                    public Check build(List<Returnable<?>> argumentList, Position position) {
+                        return new Check(argumentList.get(0), position);
+                    }
+
+                    @Override
+                    public int argNumber() {
+                        return 1;
+                    }
+
+                    @Override
+                    public Returnable.ReturnType getArgument(int position) {
+                        return position == 0 ? Returnable.ReturnType.BOOLEAN : null;
+                    }
+                });
+            Executable block = parser.parse();
+            // Parsing may read the strings of the resolved literals, only reads while running count
+            stringReads = 0;
+            block.execute(new TerraImplementationArguments(Vector3Int.zero(), Rotation.NONE, new Random(0), world, 0));
+            return results;
+        }
+
+        private final class Check implements Function<Void> {
+            private final Returnable<?> value;
+            private final Position position;
+
+            private Check(Returnable<?> value, Position position) {
+                this.value = value;
+                this.position = position;
+            }
+
+            @Override
+            public Void apply(ImplementationArguments implementationArguments, Scope scope) {
+                results.add((Boolean) value.apply(implementationArguments, scope));
+                return null;
+            }
+
+            @Override
+            public Position getPosition() {
+                return position;
+            }
+
+            @Override
+            public ReturnType returnType() {
+                return ReturnType.VOID;
+            }
+        }
+
+
+        private final class TestBlockState implements BlockState {
+            private final TestBlockType type;
+            private final String properties;
+
+            private TestBlockState(TestBlockType type, String properties) {
+                this.type = type;
+                this.properties = properties;
+            }
+
+            @Override
+            public String getAsString(boolean properties) {
+                stringReads++;
+                return properties ? type.id + this.properties : type.id;
+            }
+
+            @Override
+            public BlockType getBlockType() {
+                return type;
+            }
+
+            @Override
+            public boolean matches(BlockState other) {
+                return other.getBlockType() == type;
+            }
+
+            @Override
+            public <T extends Comparable<T>> boolean has(Property<T> property) {
+                return false;
+            }
+
+            @Override
+            public <T extends Comparable<T>> T get(Property<T> property) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public <T extends Comparable<T>> BlockState set(Property<T> property, T value) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public boolean isAir() {
+                return false;
+            }
+
+            @Override
+            public Object getHandle() {
+                return this;
+            }
+        }
+
+
+        private final class TestBlockType implements BlockType {
+            private final String id;
+            private final int numericId;
+
+            private TestBlockType(String id, int numericId) {
+                this.id = id;
+                this.numericId = numericId;
+            }
+
+            @Override
+            public BlockState getDefaultState() {
+                return this == stoneType ? stone : log;
+            }
+
+            @Override
+            public boolean isSolid() {
+                return true;
+            }
+
+            @Override
+            public boolean isWater() {
+                return false;
+            }
+
+            @Override
+            public int getId() {
+                return numericId;
+            }
+
+            @Override
+            public Object getHandle() {
+                return this;
+            }
+        }
+    }
+
+
     private static class Test1 implements Function<Void> {
         private final Returnable<?> a;
         private final Returnable<?> b;
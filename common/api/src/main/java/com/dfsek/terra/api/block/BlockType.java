@@ -35,4 +35,14 @@ public interface BlockType extends Handle {
      * @return Whether this block is water.
      */
     boolean isWater();
+
+    /**
+     * Get a dense numeric id of this block type, assigned by the platform for the lifetime of the server. Equal types
+     * always have the same id, and ids start at 0, so they can index arrays and bitsets directly.
+     *
+     * @return The id of this block type, or -1 if the platform doesn't provide one.
+     */
+    default int getId() {
+        return -1;
+    }
 }
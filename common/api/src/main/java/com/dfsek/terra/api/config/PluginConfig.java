@@ -32,4 +32,8 @@ public interface PluginConfig {
     int getMaxRecursion();
 
     int getProviderCache();
+
+    boolean isConfigCache();
+
+    int getLoadThreads();
 }
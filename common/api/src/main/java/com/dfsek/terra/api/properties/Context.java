@@ -7,17 +7,22 @@
 
 package com.dfsek.terra.api.properties;
 
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicReference;
 
 
 public class Context {
     private static final AtomicInteger size = new AtomicInteger(0);
     private static final Map<Class<? extends Properties>, PropertyKey<?>> properties = new HashMap<>();
     private final Map<Class<? extends Properties>, Properties> map = new HashMap<>();
-    private final AtomicReference<Properties[]> list = new AtomicReference<>(new Properties[size.get()]);
+    /*
+     * Replaced with a copy on every put, and never modified after freeze(), so lookups are a plain array read.
+     */
+    private Properties[] list = new Properties[size.get()];
+    private boolean frozen = false;
 
     @SuppressWarnings("unchecked")
     public static <T extends Properties> PropertyKey<T> create(Class<T> clazz) {
@@ -38,19 +43,26 @@ public class Context {
         return this;
     }
 
-    public <T extends Properties> Context put(PropertyKey<T> key, T properties) {
-        list.updateAndGet(p -> {
-            if(p.length == size.get()) return p;
-            Properties[] p2 = new Properties[size.get()];
-            System.arraycopy(p, 0, p2, 0, p.length);
-            return p2;
-        })[key.key] = properties;
+    public synchronized <T extends Properties> Context put(PropertyKey<T> key, T properties) {
+        if(frozen) throw new IllegalStateException("Cannot add properties to a frozen context.");
+        Properties[] copy = Arrays.copyOf(list, Math.max(list.length, size.get()));
+        copy[key.key] = properties;
+        list = copy;
         return this;
     }
 
+    /**
+     * Prevent further keyed properties from being added. Called once the owning pack has finished loading, after
+     * which keyed lookups are safe from any thread that obtained the owner through the pack.
+     */
+    public synchronized void freeze() {
+        frozen = true;
+        VarHandle.releaseFence();
+    }
+
     @SuppressWarnings("unchecked")
     public <T extends Properties> T get(PropertyKey<T> key) {
-        return (T) list.get()[key.key];
+        return (T) list[key.key];
     }
 
     public <T extends Properties> boolean has(Class<T> test) {
@@ -12,6 +12,18 @@ import com.dfsek.terra.api.util.vector.Vector2.Mutable;
 
 
 public final class RotationUtil {
+    /*
+     * Integer rotation matrices {xx, xz, zx, zz} of each rotation, indexed by ordinal.
+     */
+    private static final int[][] MATRICES = new int[Rotation.values().length][];
+
+    static {
+        MATRICES[Rotation.NONE.ordinal()] = new int[]{ 1, 0, 0, 1 };
+        MATRICES[Rotation.CW_90.ordinal()] = new int[]{ 0, 1, -1, 0 };
+        MATRICES[Rotation.CW_180.ordinal()] = new int[]{ -1, 0, 0, -1 };
+        MATRICES[Rotation.CCW_90.ordinal()] = new int[]{ 0, -1, 1, 0 };
+    }
+
     /**
      * Rotate and mirror a coordinate pair.
      *
@@ -30,5 +42,19 @@ public final class RotationUtil {
         return copy.immutable();
     }
 
+    /**
+     * Rotate a coordinate pair without allocating, giving the X component of {@link #rotateVector(Vector2, Rotation)}.
+     */
+    public static double rotateX(double x, double z, Rotation r) {
+        int[] matrix = MATRICES[r.ordinal()];
+        return matrix[0] * x + matrix[1] * z;
+    }
 
+    /**
+     * Rotate a coordinate pair without allocating, giving the Z component of {@link #rotateVector(Vector2, Rotation)}.
+     */
+    public static double rotateZ(double x, double z, Rotation r) {
+        int[] matrix = MATRICES[r.ordinal()];
+        return matrix[2] * x + matrix[3] * z;
+    }
 }
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2020-2025 Polyhedral Development
+ *
+ * The Terra API is licensed under the terms of the MIT License. For more details,
+ * reference the LICENSE file in the common/api directory.
+ */
+
+package com.dfsek.terra.api.util.collection;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.dfsek.terra.api.block.BlockType;
+
+
+/**
+ * Immutable set of block types for membership tests during generation. Types with an {@link BlockType#getId() id} are
+ * tested with a single bit check, types without one with a hash lookup.
+ * <p>
+ * Take a snapshot of a {@link MaterialSet} once its config has loaded, and test against the snapshot.
+ */
+public final class MaterialBitSet {
+    private static final MaterialBitSet EMPTY = new MaterialBitSet(new long[0], Set.of());
+
+    private final long[] ids;
+    private final Set<BlockType> unindexed;
+
+    private MaterialBitSet(long[] ids, Set<BlockType> unindexed) {
+        this.ids = ids;
+        this.unindexed = unindexed;
+    }
+
+    public static MaterialBitSet of(Collection<? extends BlockType> types) {
+        // Iterated rather than checked with isEmpty(), which MaterialSet.singleton doesn't implement
+        if(!types.iterator().hasNext()) return EMPTY;
+        long[] ids = new long[0];
+        Set<BlockType> unindexed = new HashSet<>();
+        for(BlockType type : types) {
+            int id = type == null ? -1 : type.getId();
+            if(id < 0) {
+                unindexed.add(type);
+                continue;
+            }
+            int word = id >>> 6;
+            if(word >= ids.length) ids = Arrays.copyOf(ids, word + 1);
+            ids[word] |= 1L << id;
+        }
+        return new MaterialBitSet(ids, unindexed.isEmpty() ? Set.of() : unindexed);
+    }
+
+    public static MaterialBitSet empty() {
+        return EMPTY;
+    }
+
+    public boolean contains(BlockType type) {
+        int id = type.getId();
+        if(id >= 0) {
+            int word = id >>> 6;
+            if(word < ids.length && (ids[word] & (1L << id)) != 0) return true;
+        }
+        return !unindexed.isEmpty() && unindexed.contains(type);
+    }
+
+    public boolean isEmpty() {
+        return this == EMPTY;
+    }
+}
@@ -0,0 +1,88 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import com.dfsek.terra.api.block.BlockType;
+import com.dfsek.terra.api.block.state.BlockState;
+import com.dfsek.terra.api.util.collection.MaterialBitSet;
+import com.dfsek.terra.api.util.collection.MaterialSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class MaterialBitSetTest {
+    private static BlockType type(int id) {
+        return new BlockType() {
+            @Override
+            public BlockState getDefaultState() {
+                return null;
+            }
+
+            @Override
+            public boolean isSolid() {
+                return true;
+            }
+
+            @Override
+            public boolean isWater() {
+                return false;
+            }
+
+            @Override
+            public int getId() {
+                return id;
+            }
+
+            @Override
+            public Object getHandle() {
+                return this;
+            }
+        };
+    }
+
+    @Test
+    public void testIndexed() {
+        List<BlockType> types = List.of(type(0), type(63), type(64), type(1000));
+        MaterialSet set = new MaterialSet();
+        set.addAll(types.subList(0, 3));
+        MaterialBitSet bits = MaterialBitSet.of(set);
+
+        assertTrue(bits.contains(types.get(0)));
+        assertTrue(bits.contains(types.get(1)));
+        assertTrue(bits.contains(types.get(2)));
+        assertFalse(bits.contains(types.get(3)));
+        assertFalse(bits.contains(type(1)));
+        assertFalse(bits.isEmpty());
+    }
+
+    @Test
+    public void testUnindexed() {
+        BlockType first = type(-1);
+        BlockType second = type(-1);
+        BlockType indexed = type(5);
+        MaterialBitSet bits = MaterialBitSet.of(List.of(first, indexed));
+
+        assertTrue(bits.contains(first));
+        assertFalse(bits.contains(second));
+        assertTrue(bits.contains(indexed));
+        assertFalse(bits.contains(type(6)));
+    }
+
+    @Test
+    public void testSnapshot() {
+        BlockType type = type(3);
+        MaterialSet set = new MaterialSet();
+        MaterialBitSet empty = MaterialBitSet.of(set);
+        set.add(type);
+
+        assertTrue(empty.isEmpty());
+        assertFalse(empty.contains(type));
+        assertTrue(MaterialBitSet.of(MaterialSet.singleton(type)).contains(type));
+
+        // MaterialSet is an ordinary mutable set again
+        assertTrue(set.remove(type));
+        assertTrue(set.isEmpty());
+    }
+}
@@ -71,6 +71,14 @@ public class PluginConfigImpl implements ConfigTemplate, PluginConfig {
     @Default
     private int providerCache = 32;
 
+    @Value("cache.configs")
+    @Default
+    private boolean configCache = false;
+
+    @Value("load.threads")
+    @Default
+    private int loadThreads = 1;
+
     @Value("dump-default")
     @Default
     private boolean dumpDefaultData = true;
@@ -148,4 +156,14 @@ public class PluginConfigImpl implements ConfigTemplate, PluginConfig {
     public int getProviderCache() {
         return providerCache;
     }
+
+    @Override
+    public boolean isConfigCache() {
+        return configCache;
+    }
+
+    @Override
+    public int getLoadThreads() {
+        return loadThreads;
+    }
 }
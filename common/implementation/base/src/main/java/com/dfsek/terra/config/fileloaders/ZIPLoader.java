@@ -23,6 +23,8 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -32,25 +34,30 @@ public class ZIPLoader extends LoaderImpl {
 
     private final ZipFile file;
 
+    /**
+     * File entries by name, in archive order. Built once so single file lookups don't scan the whole archive.
+     */
+    private final Map<String, ZipEntry> entries = new LinkedHashMap<>();
+
     public ZIPLoader(ZipFile file) {
         this.file = file;
+        Enumeration<? extends ZipEntry> zipEntries = file.entries();
+        while(zipEntries.hasMoreElements()) {
+            ZipEntry entry = zipEntries.nextElement();
+            if(!entry.isDirectory()) entries.putIfAbsent(entry.getName(), entry);
+        }
     }
 
     @Override
     public InputStream get(String singleFile) throws IOException {
-        Enumeration<? extends ZipEntry> entries = file.entries();
-        while(entries.hasMoreElements()) {
-            ZipEntry entry = entries.nextElement();
-            if(!entry.isDirectory() && entry.getName().equals(singleFile)) return file.getInputStream(entry);
-        }
-        throw new IllegalArgumentException("No such file: " + singleFile);
+        ZipEntry entry = entries.get(singleFile);
+        if(entry == null) throw new IllegalArgumentException("No such file: " + singleFile);
+        return file.getInputStream(entry);
     }
 
     protected void load(String directory, String extension) {
-        Enumeration<? extends ZipEntry> entries = file.entries();
-        while(entries.hasMoreElements()) {
-            ZipEntry entry = entries.nextElement();
-            if(!entry.isDirectory() && entry.getName().startsWith(directory) && entry.getName().endsWith(extension)) {
+        for(ZipEntry entry : entries.values()) {
+            if(entry.getName().startsWith(directory) && entry.getName().endsWith(extension)) {
                 try {
                     String rel = entry.getName().substring(directory.length());
                     streams.put(rel, file.getInputStream(entry));
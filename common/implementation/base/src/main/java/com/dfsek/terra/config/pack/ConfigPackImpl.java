@@ -68,6 +68,7 @@ import com.dfsek.terra.api.event.events.config.pack.ConfigPackPostLoadEvent;
 import com.dfsek.terra.api.event.events.config.pack.ConfigPackPreLoadEvent;
 import com.dfsek.terra.api.event.events.config.type.ConfigTypePostLoadEvent;
 import com.dfsek.terra.api.properties.Context;
+import com.dfsek.terra.api.properties.PropertyHolder;
 import com.dfsek.terra.api.registry.CheckedRegistry;
 import com.dfsek.terra.api.registry.OpenRegistry;
 import com.dfsek.terra.api.registry.Registry;
@@ -242,6 +243,14 @@ public class ConfigPackImpl implements ConfigPack {
         seededBiomeProvider =
             template.getBiomeCache() ? packPostTemplate.getProviderBuilder().caching(platform) : packPostTemplate.getProviderBuilder();
         checkDeadEntries();
+        freezeContexts();
+    }
+
+    private void freezeContexts() {
+        context.freeze();
+        registryMap.values().forEach(registry -> registry.forEach(value -> {
+            if(value instanceof PropertyHolder holder) holder.getContext().freeze();
+        }));
     }
 
     private Map<String, Configuration> discoverConfigurations() {
@@ -28,6 +28,7 @@ import java.lang.reflect.AnnotatedType;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -50,8 +51,9 @@ import com.dfsek.terra.api.util.reflection.TypeKey;
  */
 public class OpenRegistryImpl<T> implements OpenRegistry<T> {
     private static final Entry<?> NULL = new Entry<>(null);
-    private final Map<RegistryKey, Entry<T>> objects;
-    private final ListMultimap<String, Pair<RegistryKey, Entry<T>>> objectIDs = Multimaps.newListMultimap(new HashMap<>(), ArrayList::new);
+    private volatile Map<RegistryKey, Entry<T>> objects;
+    private volatile ListMultimap<String, Pair<RegistryKey, Entry<T>>> objectIDs = Multimaps.newListMultimap(new HashMap<>(),
+        ArrayList::new);
     private final TypeKey<T> typeKey;
 
     public OpenRegistryImpl(TypeKey<T> typeKey) {
@@ -101,6 +103,23 @@ public class OpenRegistryImpl<T> implements OpenRegistry<T> {
         objectIDs.clear();
     }
 
+    /**
+     * Replace the whole contents of this registry at once. Readers see either the old or the new contents, never a mix.
+     *
+     * @param values New contents, in iteration order
+     */
+    protected void replace(Map<RegistryKey, T> values) {
+        Map<RegistryKey, Entry<T>> newObjects = new LinkedHashMap<>();
+        ListMultimap<String, Pair<RegistryKey, Entry<T>>> newIDs = Multimaps.newListMultimap(new HashMap<>(), ArrayList::new);
+        values.forEach((identifier, value) -> {
+            Entry<T> entry = new Entry<>(value);
+            newObjects.put(identifier, entry);
+            newIDs.put(identifier.getID(), Pair.of(identifier, entry));
+        });
+        this.objectIDs = newIDs;
+        this.objects = newObjects;
+    }
+
     private boolean register(RegistryKey identifier, Entry<T> value) {
         boolean exists = objects.containsKey(identifier);
         objects.put(identifier, value);
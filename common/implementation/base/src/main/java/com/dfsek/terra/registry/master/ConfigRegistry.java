@@ -23,11 +23,32 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
 import java.util.zip.ZipFile;
 
 import com.dfsek.terra.api.Platform;
 import com.dfsek.terra.api.config.ConfigPack;
+import com.dfsek.terra.api.registry.key.RegistryKey;
 import com.dfsek.terra.api.util.reflection.TypeKey;
 import com.dfsek.terra.config.pack.ConfigPackImpl;
 import com.dfsek.terra.registry.OpenRegistryImpl;
@@ -39,6 +60,13 @@ import com.dfsek.terra.registry.OpenRegistryImpl;
 public class ConfigRegistry extends OpenRegistryImpl<ConfigPack> {
     private static final Logger logger = LoggerFactory.getLogger(ConfigRegistry.class);
 
+    /**
+     * Packs from the last load, by the folder or archive they were loaded from.
+     */
+    private final Map<File, LoadedPack> loaded = new HashMap<>();
+
+    private byte[] configHash = new byte[0];
+
     public ConfigRegistry() {
         super(TypeKey.of(ConfigPack.class));
     }
@@ -48,33 +76,178 @@ public class ConfigRegistry extends OpenRegistryImpl<ConfigPack> {
         registerChecked(pack.getRegistryKey(), pack);
     }
 
+    /**
+     * Load every pack in the packs folder, replacing the current contents of the registry once all are loaded.
+     *
+     * @param platform Platform to load packs for
+     *
+     * @return Whether every pack loaded successfully.
+     */
     public boolean loadAll(Platform platform) {
-        boolean valid = true;
+        return loadAll(platform, false);
+    }
+
+    /**
+     * Like {@link #loadAll(Platform)}, but packs whose files are identical to the last load are kept instead of being
+     * rebuilt. Everything is rebuilt if {@code config.yml} changed, since packs may depend on it. A pack that fails to
+     * load keeps its previous version, so worlds using it can keep generating.
+     *
+     * @param platform Platform to load packs for
+     *
+     * @return Whether every changed pack loaded successfully.
+     */
+    public boolean reload(Platform platform) {
+        return loadAll(platform, true);
+    }
+
+    private synchronized boolean loadAll(Platform platform, boolean incremental) {
         File packsFolder = new File(platform.getDataFolder(), "packs");
         packsFolder.mkdirs();
-        for(File dir : Objects.requireNonNull(packsFolder.listFiles(File::isDirectory))) {
+        List<File> sources = new ArrayList<>();
+        sources.addAll(Arrays.asList(Objects.requireNonNull(packsFolder.listFiles(File::isDirectory))));
+        sources.addAll(Arrays.asList(Objects.requireNonNull(
+            packsFolder.listFiles(file -> file.getName().endsWith(".zip") || file.getName().endsWith(".terra")))));
+
+        byte[] newConfigHash = hashConfig(platform);
+        boolean reuse = incremental && Arrays.equals(configHash, newConfigHash);
+
+        AtomicBoolean valid = new AtomicBoolean(true);
+        Function<File, LoadedPack> loader = source -> {
+            LoadedPack previous = loaded.get(source);
             try {
-                load(dir, platform);
-            } catch(ConfigException e) {
-                logger.error("Error loading config pack {}", dir.getName(), e);
-                valid = false;
+                byte[] hash = hash(source);
+                if(reuse && previous != null && Arrays.equals(previous.hash(), hash)) {
+                    logger.info("Config pack {} is unchanged, skipping.", source.getName());
+                    return previous;
+                }
+                return new LoadedPack(source, hash, build(source, platform));
+            } catch(IOException | ConfigException e) {
+                logger.error("Error loading config pack {}", source.getName(), e);
+                valid.set(false);
+                if(incremental && previous != null) {
+                    logger.warn("Keeping previously loaded version of config pack {}", source.getName());
+                    return previous;
+                }
+                return null;
             }
+        };
+
+        int threads = Math.min(platform.getTerraConfig().getLoadThreads(), sources.size());
+        List<LoadedPack> packs = threads > 1 ? loadConcurrently(sources, loader, threads) : sources.stream().map(loader).toList();
+        packs = packs.stream().filter(Objects::nonNull).toList();
+
+        Map<RegistryKey, ConfigPack> registered = new LinkedHashMap<>();
+        loaded.clear();
+        for(LoadedPack pack : packs) {
+            RegistryKey key = pack.pack().getRegistryKey();
+            if(registered.putIfAbsent(key, pack.pack()) != null) {
+                logger.error("Error loading config pack {}: pack \"{}\" is already defined.", pack.source().getName(), key);
+                valid.set(false);
+                continue;
+            }
+            loaded.put(pack.source(), pack);
         }
-        for(File zip : Objects.requireNonNull(
-            packsFolder.listFiles(file -> file.getName().endsWith(".zip") || file.getName().endsWith(".terra")))) {
-            try {
-                logger.info("Loading ZIP archive: {}", zip.getName());
-                load(new ZipFile(zip), platform);
-            } catch(IOException | ConfigException e) {
-                logger.error("Error loading config pack {}", zip.getName(), e);
-                valid = false;
+        replace(registered);
+        configHash = newConfigHash;
+        return valid.get();
+    }
+
+    /**
+     * Packs are independent of each other, so they can be built concurrently. This uses its own pool rather than the
+     * common pool, since pack loading blocks on IO and addons may use the common pool themselves.
+     */
+    private static List<LoadedPack> loadConcurrently(List<File> sources, Function<File, LoadedPack> loader, int threads) {
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        AtomicInteger count = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "Terra Pack Loader " + count.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setContextClassLoader(contextClassLoader);
+            return thread;
+        });
+        try {
+            List<Future<LoadedPack>> futures = new ArrayList<>();
+            for(File source : sources) {
+                futures.add(executor.submit(() -> loader.apply(source)));
             }
+            List<LoadedPack> packs = new ArrayList<>();
+            for(Future<LoadedPack> future : futures) {
+                packs.add(future.get());
+            }
+            return packs;
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading config packs", e);
+        } catch(ExecutionException e) {
+            throw new IllegalStateException("Failed to load config packs", e.getCause());
+        } finally {
+            executor.shutdownNow();
         }
-        return valid;
+    }
+
+    @Override
+    public synchronized void clear() {
+        super.clear();
+        loaded.clear();
+        configHash = new byte[0];
+    }
+
+    private static ConfigPack build(File source, Platform platform) throws IOException, ConfigException {
+        if(source.isDirectory()) return new ConfigPackImpl(source, platform);
+        logger.info("Loading ZIP archive: {}", source.getName());
+        return new ConfigPackImpl(new ZipFile(source), platform);
     }
 
     public void load(ZipFile file, Platform platform) throws ConfigException {
         ConfigPackImpl pack = new ConfigPackImpl(file, platform);
         registerChecked(pack.getRegistryKey(), pack);
     }
+
+    private static byte[] hashConfig(Platform platform) {
+        File config = new File(platform.getDataFolder(), "config.yml");
+        try {
+            return config.isFile() ? hash(config) : new byte[0];
+        } catch(IOException e) {
+            logger.warn("Unable to read config.yml, all packs will be reloaded.", e);
+            return new byte[0];
+        }
+    }
+
+    /**
+     * Hash the contents of a pack folder or archive, including file names so renames count as changes.
+     */
+    private static byte[] hash(File source) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch(NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        Path root = source.toPath();
+        if(!source.isDirectory()) {
+            update(digest, root);
+            return digest.digest();
+        }
+        List<Path> files;
+        try(Stream<Path> walk = Files.walk(root)) {
+            files = walk.filter(Files::isRegularFile).sorted().toList();
+        }
+        for(Path file : files) {
+            digest.update(root.relativize(file).toString().replace('\\', '/').getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            update(digest, file);
+        }
+        return digest.digest();
+    }
+
+    private static void update(MessageDigest digest, Path file) throws IOException {
+        byte[] buffer = new byte[1 << 16];
+        try(InputStream in = Files.newInputStream(file)) {
+            int read;
+            while((read = in.read(buffer)) >= 0) digest.update(buffer, 0, read);
+        }
+    }
+
+    private record LoadedPack(File source, byte[] hash, ConfigPack pack) {
+    }
 }
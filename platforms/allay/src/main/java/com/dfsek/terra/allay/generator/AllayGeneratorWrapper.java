@@ -18,6 +18,8 @@ import com.dfsek.terra.allay.delegate.AllayProtoChunk;
 import com.dfsek.terra.allay.delegate.AllayProtoWorld;
 import com.dfsek.terra.allay.delegate.AllayServerWorld;
 import com.dfsek.terra.api.config.ConfigPack;
+import com.dfsek.terra.api.util.Column;
+import com.dfsek.terra.api.world.biome.Biome;
 import com.dfsek.terra.api.world.biome.generation.BiomeProvider;
 import com.dfsek.terra.api.world.chunk.generation.ChunkGenerator;
 import com.dfsek.terra.api.world.chunk.generation.stage.GenerationStage;
@@ -127,12 +129,18 @@ public class AllayGeneratorWrapper implements GeneratorWrapper {
             int minHeight = context.getDimensionInfo().minHeight();
             int maxHeight = context.getDimensionInfo().maxHeight();
             for(int x = 0; x < 16; x++) {
-                for(int y = minHeight; y < maxHeight; y++) {
-                    for(int z = 0; z < 16; z++) {
-                        chunk.setBiome(
-                            x, y, z,
-                            (BiomeType) biomeProvider.getBiome(chunkX * 16 + x, y, chunkZ * 16 + z, seed).getPlatformBiome().getHandle()
-                        );
+                for(int z = 0; z < 16; z++) {
+                    // Columns let providers with a 2D base sample it once, and each run of one biome is only converted once
+                    Column<Biome> column = biomeProvider.getColumn(chunkX * 16 + x, chunkZ * 16 + z, seed, minHeight, maxHeight);
+                    Biome last = null;
+                    BiomeType type = null;
+                    for(int y = minHeight; y < maxHeight; y++) {
+                        Biome biome = column.get(y);
+                        if(biome != last) {
+                            type = (BiomeType) biome.getPlatformBiome().getHandle();
+                            last = biome;
+                        }
+                        chunk.setBiome(x, y, z, type);
                     }
                 }
             }
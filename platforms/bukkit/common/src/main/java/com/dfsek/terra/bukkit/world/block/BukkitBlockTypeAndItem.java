@@ -53,6 +53,11 @@ public class BukkitBlockTypeAndItem implements BlockType, Item {
         return delegate == Material.WATER;
     }
 
+    @Override
+    public int getId() {
+        return delegate.ordinal();
+    }
+
     @Override
     public ItemStack newItemStack(int amount) {
         return BukkitAdapter.adapt(new org.bukkit.inventory.ItemStack(delegate, amount));
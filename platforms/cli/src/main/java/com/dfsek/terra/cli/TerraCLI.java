@@ -1,15 +1,12 @@
 package com.dfsek.terra.cli;
 
-import net.querz.mca.MCAUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
 import java.util.concurrent.Callable;
 
 import com.dfsek.terra.api.config.ConfigPack;
 import com.dfsek.terra.api.event.events.platform.PlatformInitializationEvent;
-import com.dfsek.terra.api.util.vector.Vector2Int;
 import com.dfsek.terra.cli.world.CLIWorld;
 
 import picocli.CommandLine;
@@ -51,22 +48,8 @@ public final class TerraCLI implements Callable<Integer> {
 
         CLIWorld world = new CLIWorld(size, seed, maxHeight, minHeight, generate, noSave);
 
-        world.generate();
-
-        if(!noSave) {
-            world.serialize().parallel().forEach(mcaFile -> {
-                Vector2Int pos = mcaFile.getLeft();
-                String name = MCAUtil.createNameFromRegionLocation(pos.getX(), pos.getZ());
-                LOGGER.info("Writing region ({}, {}) to {}", pos.getX(), pos.getZ(), name);
-
-                try {
-                    MCAUtil.write(mcaFile.getRight(), name);
-                } catch(IOException e) {
-                    e.printStackTrace();
-                }
-                LOGGER.info("Wrote region to file.");
-            });
-        }
+        world.generate(); // Regions are written as they finish unless saving is disabled
+
         LOGGER.info("Done.");
         return 0;
     }
@@ -1,41 +1,48 @@
 package com.dfsek.terra.cli.world;
 
-import com.google.common.collect.Streams;
-import net.querz.mca.MCAFile;
+import net.querz.mca.MCAUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Stream;
+import java.util.concurrent.atomic.LongAdder;
 
 import com.dfsek.terra.api.block.entity.BlockEntity;
 import com.dfsek.terra.api.block.state.BlockState;
 import com.dfsek.terra.api.config.ConfigPack;
 import com.dfsek.terra.api.entity.Entity;
 import com.dfsek.terra.api.entity.EntityType;
-import com.dfsek.terra.api.util.generic.pair.Pair;
-import com.dfsek.terra.api.util.vector.Vector2Int;
 import com.dfsek.terra.api.util.vector.Vector3;
 import com.dfsek.terra.api.world.ServerWorld;
 import com.dfsek.terra.api.world.biome.generation.BiomeProvider;
 import com.dfsek.terra.api.world.chunk.generation.ChunkGenerator;
 import com.dfsek.terra.api.world.chunk.generation.ProtoWorld;
-import com.dfsek.terra.cli.NBTSerializable;
+import com.dfsek.terra.api.world.chunk.generation.stage.GenerationStage;
 import com.dfsek.terra.cli.world.chunk.CLIChunk;
 
 
-public class CLIWorld implements ServerWorld, NBTSerializable<Stream<Pair<Vector2Int, MCAFile>>> {
+public class CLIWorld implements ServerWorld {
     private static final Logger LOGGER = LoggerFactory.getLogger(CLIWorld.class);
+    /*
+     * Region rows waiting to be written before generation stops to let the writer catch up.
+     */
+    private static final int MAX_PENDING_WRITES = 2;
     private final Region[] regions;
-    private final Region[] negativeRegions;
+    /*
+     * Regions around the generated area, which features along the edge write into. They are never saved.
+     */
+    private final Map<Long, Region> outsideRegions = new ConcurrentHashMap<>();
     private final int size;
     private final long seed;
     private final int maxHeight;
@@ -44,9 +51,15 @@ public class CLIWorld implements ServerWorld, NBTSerializable<Stream<Pair<Vector
     private final BiomeProvider biomeProvider;
     private final ConfigPack pack;
     private final boolean noSave;
-    private final AtomicInteger amount = new AtomicInteger(0);
 
-    private final ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() - 1);
+    private final ExecutorService executor = Executors.newFixedThreadPool(
+        Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Terra Region Writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Deque<Future<?>> pendingWrites = new ArrayDeque<>();
 
     public CLIWorld(int size,
                     long seed,
@@ -62,65 +75,151 @@ public class CLIWorld implements ServerWorld, NBTSerializable<Stream<Pair<Vector
         this.pack = pack;
         this.noSave = noSave;
 
-
-        size += 1;
         this.regions = new Region[size * size];
-        this.negativeRegions = new Region[size * size];
         for(int x = 0; x < size; x++) {
             for(int z = 0; z < size; z++) {
                 regions[x + z * size] = new Region(this, x, z);
-                negativeRegions[x + z * size] = new Region(this, x, z);
             }
         }
     }
 
+    /**
+     * Generate every chunk of the world in waves of one region row at a time.
+     * <p>
+     * The terrain of a row of regions, plus the chunk row after it, is generated first, so every chunk that is then
+     * populated has its whole 3x3 neighbourhood in place. Population runs in nine passes over the chunk coordinates
+     * modulo 3, so chunks populated at the same time are three chunks apart and never read or write the same blocks.
+     * The output is therefore the same on every run and with any number of threads.
+     * <p>
+     * Each row of regions is written to disk in the background as soon as nothing can change it anymore, and dropped
+     * from memory afterwards.
+     */
     public void generate() {
-        ArrayList<Double> CPSHistory = new ArrayList<>();
         int sizeChunks = size * 32;
+        List<GenerationStage> stages = pack.getStages();
+        LongAdder[] stageTimes = new LongAdder[stages.size()];
+        Arrays.setAll(stageTimes, i -> new LongAdder());
+        long terrainTime = 0;
+        long populationTime = 0;
+        int terrainRows = 0;
+
+        for(int regionZ = 0; regionZ < size; regionZ++) {
+            int from = regionZ * 32;
+            int to = from + 32;
+
+            long start = System.nanoTime();
+            int terrainFrom = terrainRows;
+            terrainRows = Math.min(to + 1, sizeChunks);
+            runWave(terrainFrom, terrainRows, sizeChunks, 0, 1, (x, z) -> {
+                CLIChunk chunk = getChunkAt(x, z);
+                chunkGenerator.generateChunkData(chunk, this, biomeProvider, x, z);
+            });
+            long terrainEnd = System.nanoTime();
+
+            for(int pass = 0; pass < 9; pass++) {
+                runWave(from, to, sizeChunks, pass, 3, (x, z) -> {
+                    CLIProtoWorld protoWorld = new CLIProtoWorld(this, biomeProvider, x, z);
+                    for(int i = 0; i < stages.size(); i++) {
+                        long stageStart = System.nanoTime();
+                        stages.get(i).populate(protoWorld);
+                        stageTimes[i].add(System.nanoTime() - stageStart);
+                    }
+                });
+            }
+            long populationEnd = System.nanoTime();
+
+            terrainTime += terrainEnd - start;
+            populationTime += populationEnd - terrainEnd;
+            LOGGER.info("Generated region row {}/{}: terrain of {} chunks at {}cps, population of {} chunks at {}cps", regionZ + 1,
+                size, (terrainRows - terrainFrom) * sizeChunks, cps((terrainRows - terrainFrom) * sizeChunks, terrainEnd - start),
+                32 * sizeChunks, cps(32 * sizeChunks, populationEnd - terrainEnd));
+
+            // Features of the chunk row just populated reach one chunk into the previous region row, which is now final
+            if(regionZ > 0) completeRegionRow(regionZ - 1);
+        }
+        if(size > 0) completeRegionRow(size - 1);
+        executor.shutdown();
+        while(!pendingWrites.isEmpty()) awaitWrite();
+        writer.shutdown();
+
+        long chunks = (long) sizeChunks * sizeChunks;
+        LOGGER.info("Generated {} chunks. Terrain: {}cps, population: {}cps, overall: {}cps", chunks, cps(chunks, terrainTime),
+            cps(chunks, populationTime), cps(chunks, terrainTime + populationTime));
+        for(int i = 0; i < stages.size(); i++) {
+            LOGGER.info("Stage {} ({}): {}ms in total, {}ms per chunk over all threads", i, stages.get(i).getClass().getSimpleName(),
+                stageTimes[i].sum() / 1_000_000, stageTimes[i].sum() / 1_000_000d / chunks);
+        }
+    }
+
+    private static double cps(long chunks, long nanos) {
+        return nanos == 0 ? 0 : chunks / (nanos / 1_000_000_000d);
+    }
+
+    /*
+     * Runs a task for every chunk in rows [fromZ, toZ) whose coordinates are congruent to the pass modulo the spacing,
+     * and waits for all of them.
+     */
+    private void runWave(int fromZ, int toZ, int sizeChunks, int pass, int spacing, ChunkTask task) {
         List<Future<?>> futures = new ArrayList<>();
-        final AtomicLong start = new AtomicLong(System.nanoTime());
-        for(int x = 0; x < sizeChunks; x++) {
-            for(int z = 0; z < sizeChunks; z++) {
+        for(int z = fromZ; z < toZ; z++) {
+            if(Math.floorMod(z, spacing) != pass / spacing) continue;
+            for(int x = Math.floorMod(pass, spacing); x < sizeChunks; x += spacing) {
                 int finalX = x;
                 int finalZ = z;
                 futures.add(executor.submit(() -> {
                     try {
-                        int num = amount.getAndIncrement();
-                        CLIChunk chunk;
-                        if (!noSave) {
-                            chunk = getChunkAt(finalX, finalZ);
-                        } else {
-                            chunk = new CLIChunk(Math.floorMod(finalX, 32), Math.floorMod(finalZ, 32), this);
-                        }
-
-                        BiomeProvider cachingBiomeProvider = pack.getBiomeProvider();
-                        chunkGenerator.generateChunkData(chunk, this, cachingBiomeProvider, finalX, finalZ);
-                        CLIProtoWorld protoWorld = new CLIProtoWorld(this, cachingBiomeProvider, finalX, finalZ);
-                        pack.getStages().forEach(stage -> stage.populate(protoWorld));
-                        if(num % 240 == 239) {
-                            long time = System.nanoTime();
-                            double cps = num / ((double) (time - start.get()) / 1000000000);
-                            CPSHistory.add(cps);
-                            LOGGER.info("Generating chunk at ({}, {}), generated {} chunks at {}cps", finalX, finalZ, num, cps);
-                            amount.set(0);
-                            start.set(System.nanoTime());
-                        }
+                        task.run(finalX, finalZ);
                     } catch(Exception e) {
-                        e.printStackTrace();
+                        LOGGER.error("Failed to generate chunk ({}, {})", finalX, finalZ, e);
                     }
                 }));
             }
         }
-
         for(Future<?> future : futures) {
             try {
                 future.get();
             } catch(InterruptedException | ExecutionException e) {
-                e.printStackTrace();
+                throw new IllegalStateException("Chunk generation was interrupted", e);
             }
         }
+    }
 
-        LOGGER.info("Average CPS: {}", CPSHistory.stream().mapToDouble(d -> d).average().orElse(0));
+    /*
+     * Called once nothing will write to a row of regions anymore.
+     */
+    private void completeRegionRow(int regionZ) {
+        outsideRegions.values().removeIf(region -> region.getZ() <= regionZ);
+        if(noSave) {
+            for(int regionX = 0; regionX < size; regionX++) {
+                getRegion(regionX, regionZ).clear();
+            }
+            return;
+        }
+        List<Region> row = new ArrayList<>(size);
+        for(int regionX = 0; regionX < size; regionX++) {
+            row.add(getRegion(regionX, regionZ));
+        }
+        pendingWrites.add(writer.submit(() -> {
+            for(Region region : row) {
+                String name = MCAUtil.createNameFromRegionLocation(region.getX(), region.getZ());
+                LOGGER.info("Writing region ({}, {}) to {}", region.getX(), region.getZ(), name);
+                try {
+                    MCAUtil.write(region.serialize(), name);
+                } catch(IOException e) {
+                    LOGGER.error("Failed to write region ({}, {})", region.getX(), region.getZ(), e);
+                }
+                region.clear();
+            }
+        }));
+        while(pendingWrites.size() > MAX_PENDING_WRITES) awaitWrite();
+    }
+
+    private void awaitWrite() {
+        try {
+            pendingWrites.poll().get();
+        } catch(InterruptedException | ExecutionException e) {
+            throw new IllegalStateException("Failed to write regions", e);
+        }
     }
 
     @Override
@@ -181,9 +280,8 @@ public class CLIWorld implements ServerWorld, NBTSerializable<Stream<Pair<Vector
     }
 
     public Region getRegion(int x, int z) {
-        int key = x + z * size;
-        if(key >= 0) return regions[key];
-        else return negativeRegions[-key];
+        if(x >= 0 && z >= 0 && x < size && z < size) return regions[x + z * size];
+        return outsideRegions.computeIfAbsent(((long) x << 32) | (z & 0xFFFFFFFFL), key -> new Region(this, x, z));
     }
 
     @Override
@@ -227,13 +325,12 @@ public class CLIWorld implements ServerWorld, NBTSerializable<Stream<Pair<Vector
         return null;
     }
 
-    @Override
-    public Stream<Pair<Vector2Int, MCAFile>> serialize() {
-        return Streams
-            .concat(Arrays.stream(regions), Arrays.stream(negativeRegions))
-            .map(region -> Pair.of(Vector2Int.of(region.getX(), region.getZ()), region.serialize()));
+    @FunctionalInterface
+    private interface ChunkTask {
+        void run(int x, int z);
     }
 
+
     private static final class CLIProtoWorld implements ProtoWorld {
         private final CLIWorld delegate;
         private final BiomeProvider biomeProvider;
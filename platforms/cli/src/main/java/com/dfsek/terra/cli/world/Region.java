@@ -2,6 +2,8 @@ package com.dfsek.terra.cli.world;
 
 import net.querz.mca.MCAFile;
 
+import java.util.Arrays;
+
 import com.dfsek.terra.cli.NBTSerializable;
 import com.dfsek.terra.cli.world.chunk.CLIChunk;
 
@@ -28,6 +30,13 @@ public class Region implements NBTSerializable<MCAFile> {
         return chunk;
     }
 
+    /**
+     * Drop all chunks of this region.
+     */
+    public void clear() {
+        Arrays.fill(chunks, null);
+    }
+
     @Override
     public MCAFile serialize() {
         MCAFile mcaFile = new MCAFile(x, z);
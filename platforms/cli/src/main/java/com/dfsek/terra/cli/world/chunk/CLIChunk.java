@@ -16,7 +16,7 @@ import static com.dfsek.terra.cli.handle.CLIWorldHandle.getAIR;
 public class CLIChunk implements Chunk, ProtoChunk, NBTSerializable<net.querz.mca.Chunk> {
     private final int x;
     private final int z;
-    private final CLIBlockState[][][] blocks;
+    private final PalettedSection[] sections; // Sections stay null until a block in them is set
     private final int minHeight;
     private final int maxHeight;
     private final CLIWorld world;
@@ -27,7 +27,7 @@ public class CLIChunk implements Chunk, ProtoChunk, NBTSerializable<net.querz.mc
         this.minHeight = world.getMinHeight();
         this.maxHeight = world.getMaxHeight();
         this.world = world;
-        this.blocks = new CLIBlockState[16][16][maxHeight - minHeight];
+        this.sections = new PalettedSection[(maxHeight - minHeight + 15) >> 4];
     }
 
     @Override
@@ -37,12 +37,21 @@ public class CLIChunk implements Chunk, ProtoChunk, NBTSerializable<net.querz.mc
 
     @Override
     public void setBlock(int x, int y, int z, BlockState data, boolean physics) {
-        blocks[x][z][y - minHeight] = (CLIBlockState) data;
+        int sectionY = y - minHeight;
+        PalettedSection section = sections[sectionY >> 4];
+        if(section == null) {
+            section = new PalettedSection();
+            sections[sectionY >> 4] = section;
+        }
+        section.set(PalettedSection.index(x, sectionY & 15, z), (CLIBlockState) data);
     }
 
     @Override
     public @NotNull CLIBlockState getBlock(int x, int y, int z) {
-        CLIBlockState blockState = blocks[x][z][y - minHeight];
+        int sectionY = y - minHeight;
+        PalettedSection section = sections[sectionY >> 4];
+        if(section == null) return getAIR();
+        CLIBlockState blockState = section.get(PalettedSection.index(x, sectionY & 15, z));
         if(blockState == null) return getAIR();
         return blockState;
     }
@@ -65,14 +74,18 @@ public class CLIChunk implements Chunk, ProtoChunk, NBTSerializable<net.querz.mc
     @Override
     public net.querz.mca.Chunk serialize() {
         net.querz.mca.Chunk chunk = net.querz.mca.Chunk.newChunk(2230);
-        for(int x = 0; x < blocks.length; x++) {
-            for(int z = 0; z < blocks[x].length; z++) {
-                for(int y = 0; y < blocks[z][z].length; y++) {
-                    int yi = y + minHeight;
-                    if(yi < 0 || yi >= 256) continue;
-                    CLIBlockState blockState = blocks[x][z][y];
-                    if(blockState != null) {
-                        chunk.setBlockStateAt(x, yi, z, blockState.getNbt(), false);
+        for(int sectionY = 0; sectionY < sections.length; sectionY++) {
+            PalettedSection section = sections[sectionY];
+            if(section == null) continue;
+            for(int y = 0; y < 16; y++) {
+                int yi = (sectionY << 4) + y + minHeight;
+                if(yi < 0 || yi >= 256 || yi >= maxHeight) continue;
+                for(int z = 0; z < 16; z++) {
+                    for(int x = 0; x < 16; x++) {
+                        CLIBlockState blockState = section.get(PalettedSection.index(x, y, z));
+                        if(blockState != null) {
+                            chunk.setBlockStateAt(x, yi, z, blockState.getNbt(), false);
+                        }
                     }
                 }
             }
@@ -0,0 +1,75 @@
+package com.dfsek.terra.cli.world.chunk;
+
+import java.util.Arrays;
+
+import com.dfsek.terra.cli.block.CLIBlockState;
+
+
+/**
+ * A 16x16x16 section of blocks stored as a palette of distinct states and an array of palette indices packed into
+ * longs, in the same layout Minecraft uses since 1.16. Entry 0 of the palette is {@code null}, for blocks that were
+ * never set.
+ */
+final class PalettedSection {
+    private static final int MIN_BITS = 4;
+    private static final int VOLUME = 16 * 16 * 16;
+
+    private CLIBlockState[] palette = new CLIBlockState[1 << MIN_BITS];
+    private int paletteSize = 1;
+    private int lastIndex = 0;
+    private int bits = MIN_BITS;
+    private long[] data = new long[dataLength(MIN_BITS)];
+
+    private static int dataLength(int bits) {
+        int perLong = 64 / bits;
+        return (VOLUME + perLong - 1) / perLong;
+    }
+
+    static int index(int x, int y, int z) {
+        return (y << 8) | (z << 4) | x;
+    }
+
+    CLIBlockState get(int index) {
+        return palette[read(data, bits, index)];
+    }
+
+    void set(int index, CLIBlockState state) {
+        int value = paletteIndex(state); // May resize, so it has to happen before data is read
+        write(data, bits, index, value);
+    }
+
+    private int paletteIndex(CLIBlockState state) {
+        // Generators tend to set long runs of the same state
+        if(palette[lastIndex] == state) return lastIndex;
+        for(int i = 0; i < paletteSize; i++) {
+            if(palette[i] == state) return lastIndex = i;
+        }
+        if(paletteSize == palette.length) resize(bits + 1);
+        palette[paletteSize] = state;
+        return lastIndex = paletteSize++;
+    }
+
+    private void resize(int newBits) {
+        long[] newData = new long[dataLength(newBits)];
+        for(int i = 0; i < VOLUME; i++) {
+            write(newData, newBits, i, read(data, bits, i));
+        }
+        data = newData;
+        bits = newBits;
+        palette = Arrays.copyOf(palette, 1 << newBits);
+    }
+
+    private static int read(long[] data, int bits, int index) {
+        int perLong = 64 / bits;
+        int shift = (index % perLong) * bits;
+        return (int) (data[index / perLong] >>> shift) & ((1 << bits) - 1);
+    }
+
+    private static void write(long[] data, int bits, int index, int value) {
+        int perLong = 64 / bits;
+        int shift = (index % perLong) * bits;
+        long mask = ((1L << bits) - 1) << shift;
+        int word = index / perLong;
+        data[word] = (data[word] & ~mask) | ((long) value << shift);
+    }
+}
@@ -62,8 +62,7 @@ public class ForgePlatform extends ModPlatform {
     @Override
     public boolean reload() {
         getTerraConfig().load(this);
-        getRawConfigRegistry().clear();
-        boolean succeed = getRawConfigRegistry().loadAll(this);
+        boolean succeed = getRawConfigRegistry().reload(this);
 
         MinecraftServer server = getServer();
 
@@ -28,6 +28,11 @@ public class MinestomBlockType implements BlockType {
         return block.isLiquid();
     }
 
+    @Override
+    public int getId() {
+        return block.id();
+    }
+
     @Override
     public Object getHandle() {
         return block;
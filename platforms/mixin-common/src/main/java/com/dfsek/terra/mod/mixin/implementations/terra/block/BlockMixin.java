@@ -22,6 +22,9 @@ import net.minecraft.block.Blocks;
 import org.spongepowered.asm.mixin.Implements;
 import org.spongepowered.asm.mixin.Interface;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.dfsek.terra.api.block.BlockType;
 
@@ -29,6 +32,13 @@ import com.dfsek.terra.api.block.BlockType;
 @Mixin(Block.class)
 @Implements(@Interface(iface = BlockType.class, prefix = "terra$"))
 public abstract class BlockMixin {
+    @Unique
+    private static final AtomicInteger terra$nextId = new AtomicInteger();
+
+    // Assigned on first use rather than taken from the registry, whose raw ids can be remapped by registry sync
+    @Unique
+    private volatile int terra$id = -1;
+
     public com.dfsek.terra.api.block.state.BlockState terra$getDefaultState() {
         return (com.dfsek.terra.api.block.state.BlockState) ((Block) (Object) this).getDefaultState();
     }
@@ -41,4 +51,18 @@ public abstract class BlockMixin {
     public boolean terra$isWater() {
         return ((Object) this) == Blocks.WATER;
     }
+
+    public int terra$getId() {
+        int id = terra$id;
+        if(id < 0) {
+            synchronized(this) {
+                id = terra$id;
+                if(id < 0) {
+                    id = terra$nextId.getAndIncrement();
+                    terra$id = id;
+                }
+            }
+        }
+        return id;
+    }
 }
@@ -62,8 +62,7 @@ public class NukkitPlatform extends AbstractPlatform {
     public boolean reload() {
         LOGGER.info("Reloading Terra configuration and packs...");
         getTerraConfig().load(this);
-        getRawConfigRegistry().clear();
-        boolean success = getRawConfigRegistry().loadAll(this);
+        boolean success = getRawConfigRegistry().reload(this);
         
         if (success) {
             LOGGER.info("Terra reload complete.");
@@ -10,7 +10,9 @@ import com.dfsek.terra.api.config.ConfigPack;
 import com.dfsek.terra.api.inject.annotations.Inject;
 import com.dfsek.terra.api.registry.Registry;
 import com.dfsek.terra.nukkit.commands.NukkitCommands;
+import com.dfsek.terra.nukkit.generator.GenerationExecutor;
 import com.dfsek.terra.nukkit.generator.NukkitGenerator;
+import com.dfsek.terra.nukkit.generator.Pregenerator;
 import com.dfsek.terra.nukkit.listeners.NukkitListener;
 import ca.solostudios.strata.version.Version;
 import ca.solostudios.strata.Versions;
@@ -39,6 +41,8 @@ public class TerraNukkitPlugin extends PluginBase {
     
     // Track registered generator names to avoid duplicates
     private final Set<String> registeredGeneratorNames = new HashSet<>();
+    
+    private volatile GenerationExecutor generationExecutor;
 
     private final BaseAddon addon = new BaseAddon() {
         @Override
@@ -89,6 +93,9 @@ public class TerraNukkitPlugin extends PluginBase {
         getLogger().info("Firing initialization event...");
         PLATFORM.getEventManager().callEvent(new PlatformInitializationEvent());
         
+        // Start the generation threads before any world can request chunks
+        generationExecutor = new GenerationExecutor(GenerationExecutor.resolveThreads(getConfig().getInt("performance.threads", 0)));
+        
         // Register all generators (main Terra generator and pack-specific ones)
         getLogger().info("Registering Terra generators...");
         registerGenerators();
@@ -360,6 +367,11 @@ public class TerraNukkitPlugin extends PluginBase {
     @Override
     public void onDisable() {
         getLogger().info("Disabling Terra Nukkit Plugin...");
+        Pregenerator.stopAll();
+        if (generationExecutor != null) {
+            generationExecutor.shutdown();
+            generationExecutor = null;
+        }
         // Clean up caches
         worldToPackCache.clear();
         registeredPacks.clear();
@@ -367,6 +379,13 @@ public class TerraNukkitPlugin extends PluginBase {
         getLogger().info("Terra Nukkit Plugin Disabled.");
     }
 
+    /**
+     * @return The executor chunks are generated on, or {@code null} while the plugin is not enabled.
+     */
+    public GenerationExecutor getGenerationExecutor() {
+        return generationExecutor;
+    }
+
     /**
      * Handle plugin reloading to update config packs
      */
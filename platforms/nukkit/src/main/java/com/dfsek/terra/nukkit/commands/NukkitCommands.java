@@ -11,6 +11,7 @@ import cn.nukkit.scheduler.AsyncTask;
 import com.dfsek.terra.api.Platform;
 import com.dfsek.terra.api.config.ConfigPack;
 import com.dfsek.terra.nukkit.TerraNukkitPlugin;
+import com.dfsek.terra.nukkit.generator.Pregenerator;
 import com.dfsek.terra.nukkit.test.PerformanceTest;
 
 import java.util.List;
@@ -41,7 +42,7 @@ public class NukkitCommands {
         // Create and register the base /terra command
         PluginCommand<TerraNukkitPlugin> terraCommand = new PluginCommand<>("terra", plugin);
         terraCommand.setDescription("Terra world generation plugin commands");
-        terraCommand.setUsage("/terra <help|reload|version|create|test>");
+        terraCommand.setUsage("/terra <help|reload|version|create|test|pregen>");
         terraCommand.setAliases(new String[]{"t"});
         terraCommand.setPermission("terra.command");
         
@@ -69,6 +70,7 @@ public class NukkitCommands {
                 case "version" -> handleVersion(sender);
                 case "create" -> handleCreate(sender, args);
                 case "test" -> handleTest(sender, args);
+                case "pregen" -> handlePregen(sender, args);
                 default -> {
                     sender.sendMessage(TextFormat.RED + "Unknown Terra command: " + args[0]);
                     sendHelp(sender);
@@ -81,7 +83,7 @@ public class NukkitCommands {
         public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
             if (args.length == 1) {
                 // Complete subcommands
-                return filterStartingWith(args[0], Arrays.asList("help", "reload", "version", "create", "test"));
+                return filterStartingWith(args[0], Arrays.asList("help", "reload", "version", "create", "test", "pregen"));
             } else if (args.length >= 2) {
                 String subCommand = args[0].toLowerCase();
                 
@@ -123,6 +125,16 @@ public class NukkitCommands {
                                 Arrays.asList("10", "25", "50", "100"));
                         }
                         break;
+
+                    case "pregen":
+                        if (args.length == 2) {
+                            List<String> worlds = new ArrayList<>();
+                            TerraNukkitPlugin.INSTANCE.getServer().getLevels().forEach((id, level) -> worlds.add(level.getName()));
+                            return filterStartingWith(args[1], worlds);
+                        } else if (args.length == 3) {
+                            return filterStartingWith(args[2], Arrays.asList("stop", "32", "64", "128", "256"));
+                        }
+                        break;
                 }
             }
             
@@ -136,6 +148,7 @@ public class NukkitCommands {
             sender.sendMessage(TextFormat.YELLOW + "/terra version" + TextFormat.WHITE + " - Show Terra version information");
             sender.sendMessage(TextFormat.YELLOW + "/terra create <world> [pack] [seed]" + TextFormat.WHITE + " - Create a new Terra world");
             sender.sendMessage(TextFormat.YELLOW + "/terra test <world> [pack] [chunks]" + TextFormat.WHITE + " - Run a performance test");
+            sender.sendMessage(TextFormat.YELLOW + "/terra pregen <world> <radius|stop>" + TextFormat.WHITE + " - Pregenerate chunks around spawn");
         }
         
         private void handleReload(CommandSender sender) {
@@ -268,6 +281,47 @@ public class NukkitCommands {
             });
         }
         
+        private void handlePregen(CommandSender sender, String[] args) {
+            if (!sender.hasPermission("terra.command.pregen")) {
+                sender.sendMessage(TextFormat.RED + "You don't have permission to use this command.");
+                return;
+            }
+            
+            if (args.length < 3) {
+                sender.sendMessage(TextFormat.RED + "Usage: /terra pregen <world> <radius|stop>");
+                return;
+            }
+            
+            cn.nukkit.level.Level level = TerraNukkitPlugin.INSTANCE.getServer().getLevelByName(args[1]);
+            if (level == null) {
+                sender.sendMessage(TextFormat.RED + "World '" + args[1] + "' doesn't exist or isn't loaded!");
+                return;
+            }
+            
+            if (args[2].equalsIgnoreCase("stop")) {
+                if (!Pregenerator.stop(level)) {
+                    sender.sendMessage(TextFormat.RED + "World '" + level.getName() + "' isn't being pregenerated.");
+                }
+                return;
+            }
+            
+            int radius;
+            try {
+                radius = Integer.parseInt(args[2]);
+            } catch (NumberFormatException e) {
+                sender.sendMessage(TextFormat.RED + "Invalid radius: " + args[2]);
+                return;
+            }
+            if (radius < 0 || radius > 10000) {
+                sender.sendMessage(TextFormat.RED + "Radius must be between 0 and 10000 chunks!");
+                return;
+            }
+            
+            if (!Pregenerator.start(level, sender, radius)) {
+                sender.sendMessage(TextFormat.RED + "World '" + level.getName() + "' is already being pregenerated.");
+            }
+        }
+        
         private void handleCreate(CommandSender sender, String[] args) {
             if (!sender.hasPermission("terra.command.create")) {
                 sender.sendMessage(TextFormat.RED + "You don't have permission to use this command.");
@@ -0,0 +1,203 @@
+/*
+ * This file is part of Terra.
+ *
+ * Terra is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Terra is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Terra.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.dfsek.terra.nukkit.generator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.dfsek.terra.nukkit.world.chunk.ChunkBuffer;
+
+
+/**
+ * Terra's own pool of chunk generation threads, sized by {@code performance.threads}.
+ * <p>
+ * Nukkit generates one chunk per call on its async pool, which is shared with every other plugin and usually
+ * smaller than the machine. Chunks are generated here instead, into detached {@link ChunkBuffer}s that the
+ * requesting Nukkit thread copies into the level's chunk. While workers are idle, the neighbours of each requested
+ * chunk are generated ahead, since players almost always need them next, so generation keeps every worker busy
+ * however few chunks Nukkit asks for at once.
+ * <p>
+ * Requests name their world explicitly, so workers never need to work out which world they are generating.
+ */
+public final class GenerationExecutor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GenerationExecutor.class);
+
+    private final int threads;
+    private final ThreadPoolExecutor executor;
+    private final Map<Request, CompletableFuture<ChunkBuffer>> ahead;
+    private final Map<Request, Boolean> requested;
+    private final Set<CompletableFuture<ChunkBuffer>> pending = ConcurrentHashMap.newKeySet();
+
+    public GenerationExecutor(int threads) {
+        this.threads = threads;
+        int maxAhead = threads * 32;
+        // Neighbours that are never requested would stay forever, so the oldest unclaimed chunks are dropped
+        this.ahead = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Request, CompletableFuture<ChunkBuffer>> eldest) {
+                if (size() <= maxAhead) return false;
+                // Still queued chunks are skipped by the workers once cancelled
+                eldest.getValue().cancel(false);
+                return true;
+            }
+        };
+        // Chunks Nukkit already asked for exist in the level, so they are not worth generating ahead again
+        this.requested = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Request, Boolean> eldest) {
+                return size() > maxAhead * 4;
+            }
+        };
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "Terra Generation Thread #" + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        LOGGER.info("Started {} Terra generation threads", threads);
+    }
+
+    /**
+     * @param configured The configured thread count, or 0 or less for the default
+     *
+     * @return The number of generation threads to use, half the logical cores by default.
+     */
+    public static int resolveThreads(int configured) {
+        if (configured > 0) return configured;
+        return Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Generate a chunk, waiting for the result.
+     *
+     * @param world      Identity of the world the chunk belongs to, chunks are only reused for the same identity
+     * @param chunkX     Chunk X coordinate
+     * @param chunkZ     Chunk Z coordinate
+     * @param generation Generates a chunk of the world
+     *
+     * @return The generated chunk
+     */
+    public ChunkBuffer generate(Object world, int chunkX, int chunkZ, Generation generation) {
+        CompletableFuture<ChunkBuffer> future;
+        synchronized (ahead) {
+            Request request = new Request(world, chunkX, chunkZ);
+            future = ahead.remove(request);
+            requested.put(request, Boolean.TRUE);
+        }
+        if (future == null) future = submit(generation, chunkX, chunkZ);
+
+        for (int x = -1; x <= 1; x++) {
+            for (int z = -1; z <= 1; z++) {
+                if ((x == 0 && z == 0) || executor.isShutdown() || executor.getQueue().size() >= threads) continue;
+                int neighbourX = chunkX + x;
+                int neighbourZ = chunkZ + z;
+                Request neighbour = new Request(world, neighbourX, neighbourZ);
+                // The level's provider is main thread state, so only chunks requested through here are known to exist
+                synchronized (ahead) {
+                    if (!requested.containsKey(neighbour)) {
+                        ahead.computeIfAbsent(neighbour, request -> submit(generation, neighbourX, neighbourZ));
+                    }
+                }
+            }
+        }
+
+        try {
+            return future.join();
+        } catch (CancellationException e) {
+            // Shut down while the chunk was queued or generating, generate on the calling thread instead
+            return generation.generate(chunkX, chunkZ);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    private CompletableFuture<ChunkBuffer> submit(Generation generation, int chunkX, int chunkZ) {
+        CompletableFuture<ChunkBuffer> future = new CompletableFuture<>();
+        // Tracked before it is queued, so shutdown completes it even if it is drained from the queue unrun
+        pending.add(future);
+        future.whenComplete((buffer, throwable) -> pending.remove(future));
+        try {
+            executor.execute(() -> {
+                if (future.isDone()) return; // Cancelled while queued
+                try {
+                    future.complete(generation.generate(chunkX, chunkZ));
+                } catch (Throwable throwable) {
+                    future.completeExceptionally(throwable);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shut down, generate on the calling thread instead
+            future.complete(generation.generate(chunkX, chunkZ));
+        }
+        return future;
+    }
+
+    /**
+     * Drop chunks generated ahead for a world, when it stops generating or its pack changes.
+     */
+    public void discard(Object world) {
+        synchronized (ahead) {
+            ahead.entrySet().removeIf(entry -> {
+                if (entry.getKey().world() != world) return false;
+                entry.getValue().cancel(false);
+                return true;
+            });
+            requested.keySet().removeIf(request -> request.world() == world);
+        }
+    }
+
+    /**
+     * Stop the generation threads. Chunks that are still queued or generating are cancelled, and threads waiting for
+     * them generate them themselves.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+        pending.forEach(future -> future.cancel(false));
+        synchronized (ahead) {
+            ahead.clear();
+            requested.clear();
+        }
+    }
+
+    @FunctionalInterface
+    public interface Generation {
+        ChunkBuffer generate(int chunkX, int chunkZ);
+    }
+
+
+    private record Request(Object world, int chunkX, int chunkZ) {
+    }
+}
@@ -35,6 +35,7 @@ import com.dfsek.terra.api.util.vector.Vector3Int;
 import com.dfsek.terra.nukkit.TerraNukkitPlugin;
 import com.dfsek.terra.nukkit.world.NukkitWorld;
 import com.dfsek.terra.nukkit.world.biome.NukkitPlatformBiome;
+import com.dfsek.terra.nukkit.world.chunk.ChunkBuffer;
 import com.dfsek.terra.nukkit.world.chunk.NukkitProtoChunk;
 
 import java.util.HashMap;
@@ -96,10 +97,6 @@ public class NukkitGenerator extends Generator {
     // Add a thread-local flag to track if we're currently initializing a generator
     private static final ThreadLocal<Boolean> INITIALIZING_GENERATOR = ThreadLocal.withInitial(() -> Boolean.FALSE);
     
-    // Add a ThreadLocal map to cache generators by thread ID for async operations
-    private static final ThreadLocal<Map<String, GeneratorCache>> THREAD_LOCAL_CACHE = 
-        ThreadLocal.withInitial(ConcurrentHashMap::new);
-    
     // Track which generators have been initialized on each thread
     private static final ThreadLocal<Set<String>> THREAD_INITIALIZED_WORLDS = 
         ThreadLocal.withInitial(HashSet::new);
@@ -118,18 +115,44 @@ public class NukkitGenerator extends Generator {
         final NukkitWorld terraWorld;
         final long lastUsed;
         final String worldName; // Add world name for better tracking
+        final SharedGeneratorStore.Lease lease; // Generator and biome provider are shared with same-pack, same-seed worlds
         
-        GeneratorCache(ChunkGenerator generator, BiomeProvider provider, NukkitWorld world, String worldName) {
-            this.terraGenerator = generator;
-            this.biomeProvider = provider;
+        GeneratorCache(SharedGeneratorStore.Lease lease, NukkitWorld world, String worldName) {
+            this.terraGenerator = lease.getGenerator();
+            this.biomeProvider = lease.getBiomeProvider();
             this.terraWorld = world;
             this.lastUsed = System.currentTimeMillis();
             this.worldName = worldName;
+            this.lease = lease;
         }
         
         // Get a fresh timestamp for cache updates
         GeneratorCache refreshUsage() {
-            return new GeneratorCache(terraGenerator, biomeProvider, terraWorld, worldName);
+            return new GeneratorCache(lease, terraWorld, worldName);
+        }
+    }
+    
+    /**
+     * Drop a world's generator components, releasing its hold on the shared ones.
+     */
+    private static void discardCache(String worldName) {
+        GeneratorCache cache = GENERATOR_CACHE.remove(worldName);
+        if (cache != null) {
+            cache.lease.release();
+            GenerationExecutor executor = getGenerationExecutor();
+            if (executor != null) {
+                executor.discard(cache);
+            }
+        }
+    }
+    
+    private static GenerationExecutor getGenerationExecutor() {
+        return TerraNukkitPlugin.INSTANCE != null ? TerraNukkitPlugin.INSTANCE.getGenerationExecutor() : null;
+    }
+    
+    private static void discardAllCaches() {
+        for (String worldName : GENERATOR_CACHE.keySet()) {
+            discardCache(worldName);
         }
     }
 
@@ -257,7 +280,7 @@ public class NukkitGenerator extends Generator {
         this.configPack = configPack;
         // Clear cache when changing pack
         if (worldName != null) {
-            GENERATOR_CACHE.remove(worldName);
+            discardCache(worldName);
             initialized = false;
         }
     }
@@ -495,25 +518,15 @@ public class NukkitGenerator extends Generator {
             }
         }
         
-        // Use thread-local cache for generator components (faster)
-        GeneratorCache cache = THREAD_LOCAL_CACHE.get().get(currentWorldName);
-        
-        // Check thread-local cache first (fastest)
+        // Always go through the global cache, so a discarded lease is never used again
+        GeneratorCache cache = GENERATOR_CACHE.get(currentWorldName);
         if (cache == null) {
-            // Only if missing in thread-local, try global cache
-            cache = GENERATOR_CACHE.get(currentWorldName);
-            
-            // If found in global but not thread-local, store in thread-local for next use
-            if (cache != null) {
-                THREAD_LOCAL_CACHE.get().put(currentWorldName, cache);
-            } else {
-                // If not found anywhere, initialize (expensive)
-                cache = initializeGeneratorComponents(currentWorldName);
-                if (cache == null) {
-                    // Fallback if initialization failed
-                    generateFallbackChunk(chunkX, chunkZ);
-                    return;
-                }
+            // If not found, initialize (expensive)
+            cache = initializeGeneratorComponents(currentWorldName);
+            if (cache == null) {
+                // Fallback if initialization failed
+                generateFallbackChunk(chunkX, chunkZ);
+                return;
             }
         }
         
@@ -543,12 +556,19 @@ public class NukkitGenerator extends Generator {
                 return;
             }
             
-            // Create proto chunk in the most efficient way
-            NukkitProtoChunk protoChunk = new NukkitProtoChunk(chunk, cache.terraWorld);
-            
-            // Generate terrain efficiently
-            generateTerrain(chunkX, chunkZ, protoChunk, cache);
+            // Generate on Terra's threads into a detached buffer, then copy it into the level's chunk here
+            GenerationExecutor executor = getGenerationExecutor();
+            GeneratorCache generating = cache;
+            ChunkBuffer buffer = executor != null
+                                 ? executor.generate(cache, chunkX, chunkZ, (x, z) -> generateBuffer(x, z, generating))
+                                 : generateBuffer(chunkX, chunkZ, cache);
+            buffer.applyTo(chunk);
             
+        } catch (OutOfMemoryError e) {
+            // Handle memory issues gracefully - emergency GC and simpler generation
+            LOGGER.error("Out of memory during generation of chunk {},{} - using fallback", chunkX, chunkZ);
+            System.gc();
+            generateFallbackChunk(chunk);
         } catch (Exception e) {
             LOGGER.error("Error generating terrain for chunk {}, {}: {}", 
                       chunkX, chunkZ, e.getMessage());
@@ -627,23 +647,21 @@ public class NukkitGenerator extends Generator {
                 // Create Terra world
                 NukkitWorld terraWorld = new NukkitWorld(level, null, configPack, TerraNukkitPlugin.PLATFORM);
                 
-                // Create generator and providers
-                ChunkGenerator terraGenerator = configPack.getGeneratorProvider().newInstance(configPack);
-                BiomeProvider biomeProvider = configPack.getBiomeProvider();
+                // Reuse the generator and providers of any other world with the same pack and seed
+                SharedGeneratorStore.Lease lease = SharedGeneratorStore.acquire(configPack, terraWorld.getSeed());
                 
-                if (terraGenerator == null || biomeProvider == null) {
+                if (lease.getGenerator() == null || lease.getBiomeProvider() == null) {
+                    lease.release();
                     LOGGER.error("Failed to create generator components");
                     return null;
                 }
                 
-                terraWorld.setGenerator(terraGenerator);
+                terraWorld.setGenerator(lease.getGenerator());
                 
                 // Create and store the generator cache
-                GeneratorCache cache = new GeneratorCache(terraGenerator, biomeProvider, terraWorld, worldName);
+                GeneratorCache cache = new GeneratorCache(lease, terraWorld, worldName);
                 
-                // Store in global and thread-local caches
                 GENERATOR_CACHE.put(worldName, cache);
-                THREAD_LOCAL_CACHE.get().put(worldName, cache);
                 
                 return cache;
             } catch (Exception e) {
@@ -654,59 +672,46 @@ public class NukkitGenerator extends Generator {
     }
     
     /**
-     * Optimized terrain generation
+     * Generate a chunk into a detached buffer. Only touches the world's generator components, so it can run on any
+     * thread.
      */
-    private void generateTerrain(int chunkX, int chunkZ, NukkitProtoChunk protoChunk, GeneratorCache cache) {
-        try {
-            // Add memory optimization: explicitly request garbage collection before a big operation
-            // This helps prevent out-of-memory errors during complex terrain generation
-            if ((chunkX % 16 == 0 && chunkZ % 16 == 0) || Thread.currentThread().getName().contains("main")) {
-                System.gc(); // Request garbage collection to free memory before generating a region
-            }
+    private static ChunkBuffer generateBuffer(int chunkX, int chunkZ, GeneratorCache cache) {
+        ChunkBuffer buffer = new ChunkBuffer(chunkX, chunkZ);
+        NukkitProtoChunk protoChunk = new NukkitProtoChunk(buffer, cache.terraWorld);
 
-            // Inform Terra's biome provider about our full height range (-64 to 256)
-            // This enables deeper terrain generation
-            int minHeight = -64;
-            int maxHeight = 256;
+        // Inform Terra's biome provider about our full height range (-64 to 256)
+        // This enables deeper terrain generation
+        int minHeight = -64;
+        int maxHeight = 256;
 
-            // Pre-generate biomes for the whole chunk at once for efficiency
-            BiomeProvider biomeProvider = cache.biomeProvider;
-            long biomeSeed = random != null ? random.nextLong() : System.currentTimeMillis();
-            
-            // Batch biome assignment - more efficient implementation
-            for (int z = 0; z < 16; z++) {
-                for (int x = 0; x < 16; x++) {
-                    int worldX = chunkX * 16 + x;
-                    int worldZ = chunkZ * 16 + z;
-                    
-                    // Get biome from Terra's biome provider efficiently
-                    com.dfsek.terra.api.world.biome.Biome terraBiome = biomeProvider.getBiome(worldX, 0, worldZ, biomeSeed);
-                    
-                    // Convert to platform biome and set in chunk
-                    if (terraBiome instanceof com.dfsek.terra.api.world.biome.PlatformBiome platformBiome) {
-                        protoChunk.setBiome(x, z, platformBiome);
-                    }
-                }
-            }
-            
-            // Then generate the terrain with optimized ChunkGenerator call
-            try {
-                // Let Terra know we support negative y-coordinates
-                cache.terraWorld.setMinHeight(minHeight);
-                cache.terraWorld.setMaxHeight(maxHeight);
+        // Pre-generate biomes for the whole chunk at once for efficiency
+        BiomeProvider biomeProvider = cache.biomeProvider;
+        // Must be the world seed, both for the terrain to match and for cached biomes to be reusable
+        long biomeSeed = cache.terraWorld.getSeed();
+        
+        // Batch biome assignment - more efficient implementation
+        for (int z = 0; z < 16; z++) {
+            for (int x = 0; x < 16; x++) {
+                int worldX = chunkX * 16 + x;
+                int worldZ = chunkZ * 16 + z;
+                
+                // Get biome from Terra's biome provider efficiently
+                com.dfsek.terra.api.world.biome.Biome terraBiome = biomeProvider.getBiome(worldX, 0, worldZ, biomeSeed);
                 
-                // Generate chunk data with full height range
-                cache.terraGenerator.generateChunkData(protoChunk, cache.terraWorld, biomeProvider, chunkX, chunkZ);
-            } catch (OutOfMemoryError e) {
-                // Handle memory issues gracefully - emergency GC and simpler generation
-                LOGGER.error("Out of memory during generation of chunk {},{} - using fallback", chunkX, chunkZ);
-                System.gc();
-                generateFallbackChunk((BaseFullChunk) protoChunk.getHandle());
+                // Convert to platform biome and set in chunk
+                if (terraBiome instanceof com.dfsek.terra.api.world.biome.PlatformBiome platformBiome) {
+                    protoChunk.setBiome(x, z, platformBiome);
+                }
             }
-        } catch (Exception e) {
-            LOGGER.error("Error in terrain generation: {}", e.getMessage());
-            generateFallbackChunk((BaseFullChunk) protoChunk.getHandle());
         }
+        
+        // Let Terra know we support negative y-coordinates
+        cache.terraWorld.setMinHeight(minHeight);
+        cache.terraWorld.setMaxHeight(maxHeight);
+        
+        // Generate chunk data with full height range
+        cache.terraGenerator.generateChunkData(protoChunk, cache.terraWorld, biomeProvider, chunkX, chunkZ);
+        return buffer;
     }
 
     /**
@@ -1026,7 +1031,7 @@ public class NukkitGenerator extends Generator {
         
         // Clear cache to force reinitialization with new pack
         if (worldName != null) {
-            GENERATOR_CACHE.remove(worldName);
+            discardCache(worldName);
         }
         
         // Reset initialization flag
@@ -1060,7 +1065,7 @@ public class NukkitGenerator extends Generator {
         }
         
         // Clear all generator caches to force fresh initialization
-        GENERATOR_CACHE.clear();
+        discardAllCaches();
         
         LOGGER.info("Generator update complete.");
     }
@@ -1158,7 +1163,6 @@ public class NukkitGenerator extends Generator {
      */
     public static void resetThreadInitState() {
         THREAD_INITIALIZED_WORLDS.get().clear();
-        THREAD_LOCAL_CACHE.get().clear();
         INITIALIZING_GENERATOR.set(false);
         IN_CONSTRUCTOR.set(false);
         resetRecursionCounter();
@@ -1173,10 +1177,9 @@ public class NukkitGenerator extends Generator {
         WORLD_INITIALIZING_FLAGS.clear();
         WORLD_INITIALIZED.clear();
         WORLD_INIT_LOCKS.clear();
-        GENERATOR_CACHE.clear();
+        discardAllCaches();
         
         // Also clear thread-local states
-        THREAD_LOCAL_CACHE.remove();
         THREAD_INITIALIZED_WORLDS.remove();
         ASYNC_WORLD_NAMES.remove();
         
@@ -1193,10 +1196,6 @@ public class NukkitGenerator extends Generator {
         if (worldName != null && !worldName.isEmpty()) {
             // First remove from thread-local storage
             THREAD_INITIALIZED_WORLDS.get().remove(worldName);
-            THREAD_LOCAL_CACHE.get().remove(worldName);
-            
-            // Also remove any thread ID-based cache entries
-            THREAD_LOCAL_CACHE.get().remove("thread-" + Thread.currentThread().getId());
             
             // Clear initialization flags for this world
             WORLD_INITIALIZING_FLAGS.remove(worldName);
@@ -1204,7 +1203,7 @@ public class NukkitGenerator extends Generator {
             WORLD_INIT_LOCKS.remove(worldName);
             
             // Also remove from global cache to force re-initialization
-            GENERATOR_CACHE.remove(worldName);
+            discardCache(worldName);
             
             System.out.println("[INFO] Terra has reset generator state for world: " + worldName + 
                              " on thread: " + Thread.currentThread().getName());
@@ -0,0 +1,290 @@
+/*
+ * This file is part of Terra.
+ *
+ * Terra is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Terra is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Terra.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.dfsek.terra.nukkit.generator;
+
+import cn.nukkit.Server;
+import cn.nukkit.command.CommandSender;
+import cn.nukkit.level.Level;
+import cn.nukkit.scheduler.TaskHandler;
+import cn.nukkit.utils.TextFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.dfsek.terra.nukkit.TerraNukkitPlugin;
+
+
+/**
+ * Pregenerates a square of chunks around a level's spawn, without any players.
+ * <p>
+ * Chunks are requested in a spiral through the level's own population, which generates the neighbours through Terra's
+ * generation threads, so chunks end up exactly as they would when a player loads them. Finished chunks are unloaded,
+ * and thereby saved by the level provider, in batches. No new chunks are requested while the server is below the
+ * minimum TPS. Progress is stored in the plugin folder so a pregeneration stopped by a restart continues where it was.
+ */
+public final class Pregenerator implements Runnable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Pregenerator.class);
+
+    private static final Map<String, Pregenerator> RUNNING = new ConcurrentHashMap<>();
+
+    private static final float MIN_TPS = 18;
+    private static final int UNLOAD_BATCH = 256;
+    private static final long REPORT_INTERVAL = 10_000_000_000L;
+    private static final long SAVE_INTERVAL = 30_000_000_000L;
+
+    private final Level level;
+    private final CommandSender sender;
+    private final int radius;
+    private final int centerX;
+    private final int centerZ;
+    private final long total;
+    private final int maxInFlight;
+    private final File progressFile;
+    private final Spiral spiral;
+    private final Deque<long[]> inFlight = new ArrayDeque<>(); // {index, x, z}, in spiral order
+    private final List<long[]> finished = new ArrayList<>();
+
+    private long next;
+    private long done;
+    private long started;
+    private long startedDone;
+    private long lastReport;
+    private long lastReportDone;
+    private long lastSave;
+    private TaskHandler handler;
+
+    private Pregenerator(Level level, CommandSender sender, int radius, int threads) {
+        this.level = level;
+        this.sender = sender;
+        this.radius = radius;
+        this.centerX = level.getSpawnLocation().getFloorX() >> 4;
+        this.centerZ = level.getSpawnLocation().getFloorZ() >> 4;
+        this.total = (2L * radius + 1) * (2L * radius + 1);
+        this.maxInFlight = threads * 4;
+        this.progressFile = new File(new File(TerraNukkitPlugin.INSTANCE.getDataFolder(), "pregen"), level.getFolderName() + ".properties");
+        this.spiral = new Spiral();
+    }
+
+    /**
+     * Start pregenerating a level, continuing from stored progress if it was pregenerating the same area before.
+     *
+     * @return Whether the pregeneration was started, {@code false} if one is already running for the level.
+     */
+    public static boolean start(Level level, CommandSender sender, int radius) {
+        GenerationExecutor executor = TerraNukkitPlugin.INSTANCE.getGenerationExecutor();
+        int threads = executor == null ? GenerationExecutor.resolveThreads(0) : executor.getThreads();
+        Pregenerator pregenerator = new Pregenerator(level, sender, radius, threads);
+        if (RUNNING.putIfAbsent(level.getFolderName(), pregenerator) != null) return false;
+
+        long resumed = pregenerator.loadProgress();
+        for (long i = 0; i < resumed; i++) pregenerator.spiral.advance();
+        pregenerator.next = resumed;
+        pregenerator.done = resumed;
+        pregenerator.started = pregenerator.lastReport = pregenerator.lastSave = System.nanoTime();
+        pregenerator.startedDone = pregenerator.lastReportDone = resumed;
+        if (resumed > 0) {
+            sender.sendMessage(TextFormat.YELLOW + "Resuming pregeneration of '" + level.getName() + "' at " + resumed + "/" +
+                               pregenerator.total + " chunks.");
+        } else {
+            sender.sendMessage(TextFormat.YELLOW + "Pregenerating " + pregenerator.total + " chunks of '" + level.getName() + "'.");
+        }
+        pregenerator.handler = Server.getInstance().getScheduler().scheduleRepeatingTask(TerraNukkitPlugin.INSTANCE, pregenerator, 1);
+        return true;
+    }
+
+    /**
+     * Stop pregenerating a level, keeping its progress.
+     *
+     * @return Whether a pregeneration was running for the level.
+     */
+    public static boolean stop(Level level) {
+        Pregenerator pregenerator = RUNNING.get(level.getFolderName());
+        if (pregenerator == null) return false;
+        pregenerator.finish(false);
+        return true;
+    }
+
+    /**
+     * Stop all running pregenerations, keeping their progress.
+     */
+    public static void stopAll() {
+        new ArrayList<>(RUNNING.values()).forEach(pregenerator -> pregenerator.finish(false));
+    }
+
+    @Override
+    public void run() {
+        if (Server.getInstance().getLevel(level.getId()) != level) { // Unloaded
+            finish(false);
+            return;
+        }
+
+        // Chunks only count as done in spiral order, so the stored progress never skips over an unfinished chunk
+        for (long[] chunk : inFlight) {
+            if (chunk[0] >= 0 && level.populateChunk((int) chunk[1], (int) chunk[2], true)) {
+                chunk[0] = -1 - chunk[0];
+                finished.add(chunk);
+            }
+        }
+        while (!inFlight.isEmpty() && inFlight.peekFirst()[0] < 0) {
+            inFlight.pollFirst();
+            done++;
+        }
+
+        if (Server.getInstance().getTicksPerSecond() >= MIN_TPS) {
+            while (inFlight.size() < maxInFlight && next < total) {
+                inFlight.addLast(new long[]{ next++, centerX + spiral.x, centerZ + spiral.z });
+                spiral.advance();
+            }
+        }
+
+        if (finished.size() >= UNLOAD_BATCH) unloadFinished();
+
+        long now = System.nanoTime();
+        if (done >= total) {
+            finish(true);
+            return;
+        }
+        if (now - lastReport >= REPORT_INTERVAL) report(now);
+        if (now - lastSave >= SAVE_INTERVAL) {
+            saveProgress();
+            lastSave = now;
+        }
+    }
+
+    private void unloadFinished() {
+        int spawnX = level.getSpawnLocation().getFloorX() >> 4;
+        int spawnZ = level.getSpawnLocation().getFloorZ() >> 4;
+        Iterator<long[]> iterator = finished.iterator();
+        while (iterator.hasNext()) {
+            long[] chunk = iterator.next();
+            int x = (int) chunk[1];
+            int z = (int) chunk[2];
+            // Chunks near the spawn stay loaded anyway, and chunks in use by players are refused by a safe unload
+            if (Math.abs(x - spawnX) > 8 || Math.abs(z - spawnZ) > 8) level.unloadChunk(x, z, true, true);
+            iterator.remove();
+        }
+    }
+
+    private void report(long now) {
+        double recent = (done - lastReportDone) / ((now - lastReport) / 1e9);
+        double overall = (done - startedDone) / ((now - started) / 1e9);
+        long remaining = total - done;
+        String eta = overall > 0 ? formatDuration((long) (remaining / overall)) : "unknown";
+        String message = String.format("Pregenerating '%s': %d/%d chunks (%.1f%%), %.1f chunks/s, ETA %s", level.getName(), done, total,
+            100.0 * done / total, recent, eta);
+        LOGGER.info(message);
+        if (sender.isPlayer()) sender.sendMessage(TextFormat.GRAY + message);
+        lastReport = now;
+        lastReportDone = done;
+    }
+
+    private static String formatDuration(long seconds) {
+        if (seconds >= 3600) return String.format("%dh %02dm", seconds / 3600, (seconds / 60) % 60);
+        if (seconds >= 60) return String.format("%dm %02ds", seconds / 60, seconds % 60);
+        return seconds + "s";
+    }
+
+    private void finish(boolean complete) {
+        if (!RUNNING.remove(level.getFolderName(), this)) return;
+        if (handler != null) handler.cancel();
+        unloadFinished();
+        if (complete) {
+            if (progressFile.exists() && !progressFile.delete()) LOGGER.warn("Failed to delete pregeneration progress {}", progressFile);
+            level.save();
+            double seconds = (System.nanoTime() - started) / 1e9;
+            String message = String.format("Finished pregenerating %d chunks of '%s' in %s.", total, level.getName(),
+                formatDuration((long) seconds));
+            LOGGER.info(message);
+            sender.sendMessage(TextFormat.GREEN + message);
+        } else {
+            saveProgress();
+            String message = "Stopped pregenerating '" + level.getName() + "' at " + done + "/" + total + " chunks.";
+            LOGGER.info(message);
+            sender.sendMessage(TextFormat.YELLOW + message);
+        }
+    }
+
+    /*
+     * Progress only applies to the same area, a different radius or spawn starts over.
+     */
+    private long loadProgress() {
+        if (!progressFile.exists()) return 0;
+        Properties properties = new Properties();
+        try (InputStream in = new FileInputStream(progressFile)) {
+            properties.load(in);
+            if (Integer.parseInt(properties.getProperty("radius")) != radius ||
+                Integer.parseInt(properties.getProperty("center-x")) != centerX ||
+                Integer.parseInt(properties.getProperty("center-z")) != centerZ) return 0;
+            return Math.min(total, Math.max(0, Long.parseLong(properties.getProperty("done"))));
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Ignoring unreadable pregeneration progress {}", progressFile, e);
+            return 0;
+        }
+    }
+
+    private void saveProgress() {
+        Properties properties = new Properties();
+        properties.setProperty("radius", Integer.toString(radius));
+        properties.setProperty("center-x", Integer.toString(centerX));
+        properties.setProperty("center-z", Integer.toString(centerZ));
+        properties.setProperty("done", Long.toString(done));
+        File folder = progressFile.getParentFile();
+        if (!folder.exists() && !folder.mkdirs()) {
+            LOGGER.warn("Failed to create {}", folder);
+            return;
+        }
+        try (OutputStream out = new FileOutputStream(progressFile)) {
+            properties.store(out, "Terra pregeneration progress of " + level.getName());
+        } catch (IOException e) {
+            LOGGER.warn("Failed to save pregeneration progress {}", progressFile, e);
+        }
+    }
+
+    /**
+     * Walks a square spiral outwards from the origin.
+     */
+    private static final class Spiral {
+        private int x = 0, z = 0;
+        private int dx = 0, dz = -1;
+
+        private void advance() {
+            // Turn at the corners of each ring
+            if (x == z || (x < 0 && x == -z) || (x > 0 && x == 1 - z)) {
+                int turn = dx;
+                dx = -dz;
+                dz = turn;
+            }
+            x += dx;
+            z += dz;
+        }
+    }
+}
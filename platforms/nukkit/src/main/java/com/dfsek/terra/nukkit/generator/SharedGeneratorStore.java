@@ -0,0 +1,137 @@
+/*
+ * This file is part of Terra.
+ *
+ * Terra is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Terra is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Terra.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.dfsek.terra.nukkit.generator;
+
+import ca.solostudios.strata.version.Version;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.dfsek.terra.api.config.ConfigPack;
+import com.dfsek.terra.api.registry.key.RegistryKey;
+import com.dfsek.terra.api.world.biome.generation.BiomeProvider;
+import com.dfsek.terra.api.world.chunk.generation.ChunkGenerator;
+
+
+/**
+ * Process-wide store of generator components, shared between all worlds that use the same pack and seed.
+ * <p>
+ * Chunk generators keep their sampler caches keyed by seed, and a pack's biome provider caches pipeline chunks the
+ * same way, so worlds that only differ by name (lobby copies, minigame arenas) can generate from the same instances
+ * and hit each other's cached results instead of recomputing them. Entries are reference counted and dropped once the
+ * last world using them releases its lease.
+ */
+public final class SharedGeneratorStore {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SharedGeneratorStore.class);
+
+    private static final Map<Key, Entry> ENTRIES = new ConcurrentHashMap<>();
+
+    private SharedGeneratorStore() {
+    }
+
+    /**
+     * Acquire the generator components for a pack and seed, creating them if no other world holds them.
+     *
+     * @param pack The config pack
+     * @param seed The world seed
+     *
+     * @return A lease on the shared components, which must be released once the world stops using them.
+     */
+    public static Lease acquire(ConfigPack pack, long seed) {
+        Key key = new Key(pack.getRegistryKey(), pack.getVersion(), seed);
+        Entry entry = ENTRIES.compute(key, (k, existing) -> {
+            // A reloaded pack has the same key and version but new registries, so it must not reuse the old components
+            if(existing == null || existing.pack != pack) {
+                ChunkGenerator generator = pack.getGeneratorProvider().newInstance(pack);
+                LOGGER.debug("Created shared generator components for pack {} with seed {}", k.pack(), seed);
+                existing = new Entry(k, pack, generator, pack.getBiomeProvider());
+            }
+            existing.references++;
+            return existing;
+        });
+        return new Lease(entry);
+    }
+
+    /**
+     * @return The number of distinct pack/seed combinations currently held.
+     */
+    public static int size() {
+        return ENTRIES.size();
+    }
+
+    private static void release(Entry entry) {
+        ENTRIES.computeIfPresent(entry.key, (k, existing) -> {
+            // Counts are only touched inside the map's per-key computation, which serialises them
+            entry.references--;
+            if(existing == entry && entry.references <= 0) {
+                LOGGER.debug("Released shared generator components for pack {} with seed {}", k.pack(), k.seed());
+                return null;
+            }
+            return existing;
+        });
+    }
+
+    private record Key(RegistryKey pack, Version version, long seed) {
+    }
+
+
+    private static final class Entry {
+        private final Key key;
+        private final ConfigPack pack;
+        private final ChunkGenerator generator;
+        private final BiomeProvider biomeProvider;
+        private int references = 0;
+
+        private Entry(Key key, ConfigPack pack, ChunkGenerator generator, BiomeProvider biomeProvider) {
+            this.key = key;
+            this.pack = pack;
+            this.generator = generator;
+            this.biomeProvider = biomeProvider;
+        }
+    }
+
+
+    /**
+     * A world's handle on shared components. Releasing a lease more than once has no further effect.
+     */
+    public static final class Lease {
+        private final Entry entry;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        private Lease(Entry entry) {
+            this.entry = entry;
+        }
+
+        public ChunkGenerator getGenerator() {
+            return entry.generator;
+        }
+
+        public BiomeProvider getBiomeProvider() {
+            return entry.biomeProvider;
+        }
+
+        public void release() {
+            if(released.compareAndSet(false, true)) {
+                SharedGeneratorStore.release(entry);
+            }
+        }
+    }
+}
@@ -18,7 +18,6 @@ import com.dfsek.terra.nukkit.world.chunk.NukkitProtoChunk;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Random;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -81,9 +80,6 @@ public class PerformanceTest {
             long totalTime = 0;
             int successfulChunks = 0;
             
-            // Use a consistent random seed for biome selection
-            Random random = new Random(level.getSeed());
-            
             // Keep track of total generated chunks
             AtomicInteger totalGenerated = new AtomicInteger(0);
             
@@ -114,7 +110,7 @@ public class PerformanceTest {
                                 int worldZ = chunkZ * 16 + z;
                                 
                                 com.dfsek.terra.api.world.biome.Biome terraBiome = 
-                                    biomeProvider.getBiome(worldX, 0, worldZ, random.nextLong());
+                                    biomeProvider.getBiome(worldX, 0, worldZ, level.getSeed());
                                 
                                 if (terraBiome instanceof com.dfsek.terra.api.world.biome.PlatformBiome platformBiome) {
                                     protoChunk.setBiome(x, z, platformBiome);
@@ -19,6 +19,10 @@ package com.dfsek.terra.nukkit.world.block;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import com.dfsek.terra.api.Handle;
 import com.dfsek.terra.api.block.BlockType;
 import com.dfsek.terra.api.block.state.BlockState;
@@ -28,8 +32,12 @@ import com.dfsek.terra.api.registry.key.RegistryKey;
  * Implementation of BlockType for Nukkit blocks.
  */
 public class NukkitBlockType implements BlockType, Handle {
+    private static final Map<RegistryKey, Integer> IDS = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
     private final RegistryKey registryKey;
     private final BlockState defaultState;
+    private int id = -1;
 
     public NukkitBlockType(RegistryKey registryKey, BlockState defaultState) {
         this.registryKey = registryKey;
@@ -60,6 +68,17 @@ public class NukkitBlockType implements BlockType, Handle {
         return false;
     }
 
+    @Override
+    public int getId() {
+        // Block types are created per state, so ids are handed out per registry key in order of first use
+        int id = this.id;
+        if (id < 0) {
+            id = IDS.computeIfAbsent(registryKey, key -> NEXT_ID.getAndIncrement());
+            this.id = id;
+        }
+        return id;
+    }
+
     @Override
     public Object getHandle() {
         if (defaultState instanceof NukkitBlockState nukkitState) {
@@ -0,0 +1,142 @@
+/*
+ * This file is part of Terra.
+ *
+ * Terra is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Terra is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Terra.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.dfsek.terra.nukkit.world.chunk;
+
+import cn.nukkit.level.format.FullChunk;
+
+
+/**
+ * Chunk contents generated away from any Nukkit chunk, so generation can run on Terra's own threads and only the
+ * finished result is copied into the level's chunk.
+ * <p>
+ * Blocks are stored per 16 block high section, and sections that are never written are never allocated. Like Nukkit's
+ * own sections, a section holds a byte of block id and a nibble of metadata per block, with extra arrays allocated only
+ * for ids or metadata that don't fit. Only written blocks are copied over, so untouched positions keep whatever the
+ * target chunk already holds.
+ */
+public class ChunkBuffer {
+    public static final int HEIGHT = 256;
+    private static final int SECTIONS = HEIGHT >> 4;
+
+    private final int chunkX;
+    private final int chunkZ;
+
+    private final Section[] sections = new Section[SECTIONS];
+    // Biome ids are stored plus one, so zero marks a column that was never written
+    private final int[] biomes = new int[256];
+
+    public ChunkBuffer(int chunkX, int chunkZ) {
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+    }
+
+    private static int index(int x, int y, int z) {
+        return ((y & 15) << 8) | ((z & 15) << 4) | (x & 15);
+    }
+
+    public int getX() {
+        return chunkX;
+    }
+
+    public int getZ() {
+        return chunkZ;
+    }
+
+    public void setBlock(int x, int y, int z, int id, int meta) {
+        if (y < 0 || y >= HEIGHT) return;
+        Section section = sections[y >> 4];
+        if (section == null) {
+            section = new Section();
+            sections[y >> 4] = section;
+        }
+        section.set(index(x, y, z), id, meta);
+    }
+
+    public int getBlockId(int x, int y, int z) {
+        if (y < 0 || y >= HEIGHT) return 0;
+        Section section = sections[y >> 4];
+        return section == null ? 0 : section.getId(index(x, y, z));
+    }
+
+    public int getBlockData(int x, int y, int z) {
+        if (y < 0 || y >= HEIGHT) return 0;
+        Section section = sections[y >> 4];
+        return section == null ? 0 : section.getData(index(x, y, z));
+    }
+
+    public void setBiomeId(int x, int z, int biome) {
+        biomes[((z & 15) << 4) | (x & 15)] = biome + 1;
+    }
+
+    /**
+     * Copy everything written to this buffer into a chunk. Must be called from a thread that may modify the chunk.
+     */
+    public void applyTo(FullChunk chunk) {
+        for (int index = 0; index < 256; index++) {
+            if (biomes[index] != 0) chunk.setBiomeId(index & 15, index >> 4, biomes[index] - 1);
+        }
+        for (int y = 0; y < SECTIONS; y++) {
+            Section section = sections[y];
+            if (section == null) continue;
+            int baseY = y << 4;
+            for (int word = 0; word < section.written.length; word++) {
+                long written = section.written[word];
+                while (written != 0) {
+                    int index = (word << 6) | Long.numberOfTrailingZeros(written);
+                    written &= written - 1;
+                    chunk.setBlock(index & 15, baseY + (index >> 8), (index >> 4) & 15, section.getId(index), section.getData(index));
+                }
+            }
+        }
+    }
+
+    private static final class Section {
+        private final byte[] ids = new byte[4096];
+        private final byte[] data = new byte[2048]; // Nibble per block, the low nibble of each byte is the even index
+        private final long[] written = new long[64];
+        private byte[] idsExtra; // Bits 8 to 15 of the id, for ids above 255
+        private byte[] dataExtra; // Bits 4 to 11 of the metadata, for metadata above 15
+
+        void set(int index, int id, int meta) {
+            ids[index] = (byte) id;
+            if (id > 0xFF || idsExtra != null) {
+                if (idsExtra == null) idsExtra = new byte[4096];
+                idsExtra[index] = (byte) (id >> 8);
+            }
+
+            int shift = (index & 1) << 2;
+            data[index >> 1] = (byte) ((data[index >> 1] & ~(0xF << shift)) | ((meta & 0xF) << shift));
+            if (meta > 0xF || dataExtra != null) {
+                if (dataExtra == null) dataExtra = new byte[4096];
+                dataExtra[index] = (byte) (meta >> 4);
+            }
+
+            written[index >> 6] |= 1L << index;
+        }
+
+        int getId(int index) {
+            int id = ids[index] & 0xFF;
+            return idsExtra == null ? id : id | ((idsExtra[index] & 0xFF) << 8);
+        }
+
+        int getData(int index) {
+            int meta = (data[index >> 1] >> ((index & 1) << 2)) & 0xF;
+            return dataExtra == null ? meta : meta | ((dataExtra[index] & 0xFF) << 4);
+        }
+    }
+}
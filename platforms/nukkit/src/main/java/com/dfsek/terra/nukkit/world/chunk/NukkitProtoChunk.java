@@ -28,8 +28,8 @@ import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Efficient implementation of ProtoChunk/ProtoWorld for Nukkit chunk generation.
@@ -38,10 +38,11 @@ public class NukkitProtoChunk implements ProtoWorld, ProtoChunk {
     private static final Logger LOGGER = LoggerFactory.getLogger(NukkitProtoChunk.class);
     
     private final FullChunk delegate;
+    private final ChunkBuffer buffer; // Set instead of the delegate when generating away from the level's chunk
     private final NukkitWorld world;
     
-    // Cache frequently used blocks for better performance
-    private static final Map<String, cn.nukkit.block.Block> BLOCK_CACHE = new HashMap<>();
+    // Cache frequently used blocks for better performance, shared by all generation threads
+    private static final Map<String, cn.nukkit.block.Block> BLOCK_CACHE = new ConcurrentHashMap<>();
     
     // Pre-initialize common blocks to avoid repeated lookups
     static {
@@ -76,12 +77,25 @@ public class NukkitProtoChunk implements ProtoWorld, ProtoChunk {
 
     public NukkitProtoChunk(FullChunk delegate, World world) {
         this.delegate = delegate;
+        this.buffer = null;
         if (!(world instanceof NukkitWorld nukkitWorld)) {
             throw new IllegalArgumentException("NukkitProtoChunk requires a NukkitWorld instance");
         }
         this.world = nukkitWorld;
     }
     
+    /**
+     * Generate into a detached buffer rather than a level chunk.
+     *
+     * @param buffer The buffer to write to
+     * @param world  The world being generated
+     */
+    public NukkitProtoChunk(ChunkBuffer buffer, NukkitWorld world) {
+        this.delegate = null;
+        this.buffer = buffer;
+        this.world = world;
+    }
+    
     /**
      * Alternative constructor that accepts any FullChunk and tries to resolve the world itself.
      * This is useful for asynchronous generation where the world reference might be lost.
@@ -90,6 +104,7 @@ public class NukkitProtoChunk implements ProtoWorld, ProtoChunk {
      */
     public NukkitProtoChunk(FullChunk delegate) {
         this.delegate = delegate;
+        this.buffer = null;
         
         NukkitWorld resolvedWorld = null;
         String worldName = null;
@@ -262,12 +277,12 @@ public class NukkitProtoChunk implements ProtoWorld, ProtoChunk {
 
     @Override
     public int centerChunkX() {
-        return delegate.getX();
+        return buffer != null ? buffer.getX() : delegate.getX();
     }
 
     @Override
     public int centerChunkZ() {
-        return delegate.getZ();
+        return buffer != null ? buffer.getZ() : delegate.getZ();
     }
 
     @Override
@@ -298,7 +313,7 @@ public class NukkitProtoChunk implements ProtoWorld, ProtoChunk {
                 // Place bedrock at actual minimum height, not hardcoded to y=0
                 if (y == getMinHeight() && nukkitBlock.getId() == cn.nukkit.block.Block.BEDROCK) {
                     int minY = Math.max(0, getMinHeight()); // Use 0 if getMinHeight() returns negative values
-                    delegate.setBlock(x, minY, z, nukkitBlock.getId(), nukkitBlock.getDamage());
+                    writeBlock(x, minY, z, nukkitBlock.getId(), nukkitBlock.getDamage());
                     return;
                 } else if (y < 0) {
                     // Skip placing blocks in negative y-space for now
@@ -306,7 +321,7 @@ public class NukkitProtoChunk implements ProtoWorld, ProtoChunk {
                     return;
                 }
                 // Normal placement for positive y values
-                delegate.setBlock(x, y, z, nukkitBlock.getId(), nukkitBlock.getDamage());
+                writeBlock(x, y, z, nukkitBlock.getId(), nukkitBlock.getDamage());
                 return;
             }
             
@@ -314,7 +329,7 @@ public class NukkitProtoChunk implements ProtoWorld, ProtoChunk {
             // Extract block name
             if (blockString.equals("minecraft:air") || blockString.equals("air")) {
                 if (y >= 0) {
-                    delegate.setBlock(x, y, z, cn.nukkit.block.Block.AIR, 0);
+                    writeBlock(x, y, z, cn.nukkit.block.Block.AIR, 0);
                 }
                 return;
             }
@@ -335,7 +350,7 @@ public class NukkitProtoChunk implements ProtoWorld, ProtoChunk {
             // Place bedrock ONLY at the absolute bottom level
             if (y == getMinHeight() && blockName.equals("bedrock")) {
                 int minY = Math.max(0, getMinHeight()); // Use 0 if getMinHeight() returns negative values
-                delegate.setBlock(x, minY, z, cn.nukkit.block.Block.BEDROCK, 0);
+                writeBlock(x, minY, z, cn.nukkit.block.Block.BEDROCK, 0);
                 return;
             }
             
@@ -347,7 +362,7 @@ public class NukkitProtoChunk implements ProtoWorld, ProtoChunk {
             // Try to get from cache first for common blocks
             cn.nukkit.block.Block nukkitBlock = BLOCK_CACHE.get(blockName);
             if (nukkitBlock != null) {
-                delegate.setBlock(x, y, z, nukkitBlock.getId(), nukkitBlock.getDamage());
+                writeBlock(x, y, z, nukkitBlock.getId(), nukkitBlock.getDamage());
                 return;
             }
             
@@ -358,17 +373,17 @@ public class NukkitProtoChunk implements ProtoWorld, ProtoChunk {
                 if (BLOCK_CACHE.size() < 1000) { // Limit cache size
                     BLOCK_CACHE.put(blockName, nukkitBlock);
                 }
-                delegate.setBlock(x, y, z, nukkitBlock.getId(), nukkitBlock.getDamage());
+                writeBlock(x, y, z, nukkitBlock.getId(), nukkitBlock.getDamage());
             } else {
                 // Default to diamond block if mapping fails - makes unmapped blocks easily visible
                 System.out.println("[Terra] Unmapped block detected: " + blockName + " at position " + x + "," + y + "," + z);
-                delegate.setBlock(x, y, z, cn.nukkit.block.Block.DIAMOND_BLOCK, 0);
+                writeBlock(x, y, z, cn.nukkit.block.Block.DIAMOND_BLOCK, 0);
             }
         } catch (Exception e) {
             // Use diamond block as fallback for errors too
             System.out.println("[Terra] Error setting block: " + e.getMessage() + " at " + x + "," + y + "," + z);
             if (y >= 0 && y < getMaxHeight()) {
-                delegate.setBlock(x, y, z, cn.nukkit.block.Block.DIAMOND_BLOCK, 0);
+                writeBlock(x, y, z, cn.nukkit.block.Block.DIAMOND_BLOCK, 0);
             }
         }
     }
@@ -427,7 +442,7 @@ public class NukkitProtoChunk implements ProtoWorld, ProtoChunk {
     @NotNull
     public BlockState getBlock(int x, int y, int z) {
         if (y >= getMinHeight() && y < getMaxHeight()) {
-            cn.nukkit.block.Block nukkitBlock = cn.nukkit.block.Block.get(delegate.getBlockId(x, y, z), delegate.getBlockData(x, y, z));
+            cn.nukkit.block.Block nukkitBlock = cn.nukkit.block.Block.get(readBlockId(x, y, z), readBlockData(x, y, z));
             return TerraNukkitPlugin.PLATFORM.getWorldHandle().createBlockState(nukkitBlock.getName());
         } else {
             return TerraNukkitPlugin.PLATFORM.getWorldHandle().air();
@@ -481,7 +496,31 @@ public class NukkitProtoChunk implements ProtoWorld, ProtoChunk {
 
     @Override
     public Object getHandle() {
-        return delegate;
+        return buffer != null ? buffer : delegate;
+    }
+    
+    private void writeBlock(int x, int y, int z, int id, int meta) {
+        if (buffer != null) {
+            buffer.setBlock(x, y, z, id, meta);
+        } else {
+            delegate.setBlock(x, y, z, id, meta);
+        }
+    }
+    
+    private int readBlockId(int x, int y, int z) {
+        return buffer != null ? buffer.getBlockId(x, y, z) : delegate.getBlockId(x, y, z);
+    }
+    
+    private int readBlockData(int x, int y, int z) {
+        return buffer != null ? buffer.getBlockData(x, y, z) : delegate.getBlockData(x, y, z);
+    }
+    
+    private void writeBiome(int x, int z, int biome) {
+        if (buffer != null) {
+            buffer.setBiomeId(x, z, biome);
+        } else {
+            delegate.setBiomeId(x, z, biome);
+        }
     }
 
     /**
@@ -497,7 +536,7 @@ public class NukkitProtoChunk implements ProtoWorld, ProtoChunk {
         // Fast path for NukkitPlatformBiome
         if (biome instanceof NukkitPlatformBiome nukkitPlatformBiome) {
             EnumBiome enumBiome = nukkitPlatformBiome.getHandle();
-            delegate.setBiomeId(x, z, enumBiome.id);
+            writeBiome(x, z, enumBiome.id);
             return;
         }
         
@@ -511,6 +550,6 @@ public class NukkitProtoChunk implements ProtoWorld, ProtoChunk {
             biomeId = enumBiome.id;
         }
         
-        delegate.setBiomeId(x, z, biomeId);
+        writeBiome(x, z, biomeId);
     }
 } 
\ No newline at end of file